@@ -0,0 +1,43 @@
+package com.pahanaedu.billingapp.bench.jmh;
+
+import com.pahanaedu.billingapp.BillingappApplication;
+import com.pahanaedu.billingapp.bench.BenchDataGenerator;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+
+/**
+ * The real application context on the app's bench profile (in-memory H2 in
+ * SQL Server mode), seeded by its BenchDataSeeder with the fixed seed and
+ * the smaller sizes below, so numbers from different commits describe the
+ * same data. One context per JMH fork; started in a Trial-level setup.
+ */
+public final class BenchApp {
+
+    public static final BenchDataGenerator.Sizes SIZES = new BenchDataGenerator.Sizes(2_000, 5_000, 20_000, 8);
+    public static final LocalDateTime BASE = LocalDateTime.of(2024, 9, 1, 12, 0);
+
+    private BenchApp() {}
+
+    public static ConfigurableApplicationContext start() {
+        // as arguments: default properties would lose to the profile's properties
+        return new SpringApplicationBuilder(BillingappApplication.class)
+                .run(
+                        "--spring.profiles.active=bench",
+                        "--app.bench.customers=" + SIZES.customers(),
+                        "--app.bench.items=" + SIZES.items(),
+                        "--app.bench.bills=" + SIZES.bills(),
+                        "--app.bench.max-lines-per-bill=" + SIZES.maxLinesPerBill(),
+                        "--server.port=0",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.springframework.security=WARN",
+                        "--logging.level.com.pahanaedu.billingapp=WARN");
+    }
+
+    /** Same seed as the seeded database, for in-memory graphs. */
+    public static BenchDataGenerator generator() {
+        return new BenchDataGenerator(BenchDataGenerator.DEFAULT_SEED, BASE);
+    }
+}
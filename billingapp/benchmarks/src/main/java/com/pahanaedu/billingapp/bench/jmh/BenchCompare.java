@@ -0,0 +1,77 @@
+package com.pahanaedu.billingapp.bench.jmh;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Compares two JMH JSON result files (baseline, candidate) benchmark by
+ * benchmark and exits 1 if any got slower by more than the threshold
+ * (default 10%) and by more than the two runs' combined error, so noise
+ * alone does not fail a build.
+ *
+ * Usage: BenchCompare baseline.json candidate.json [thresholdPercent]
+ */
+public final class BenchCompare {
+
+    private record Result(String mode, double score, double error, String unit) {}
+
+    private BenchCompare() {}
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("usage: BenchCompare baseline.json candidate.json [thresholdPercent]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) / 100 : 0.10;
+        Map<String, Result> baseline = read(new File(args[0]));
+        Map<String, Result> candidate = read(new File(args[1]));
+
+        int regressions = 0;
+        System.out.printf(Locale.ROOT, "%-70s %14s %14s %8s%n", "benchmark", "baseline", "candidate", "change");
+        for (Map.Entry<String, Result> e : candidate.entrySet()) {
+            Result now = e.getValue();
+            Result was = baseline.get(e.getKey());
+            if (was == null || !was.unit().equals(now.unit())) {
+                System.out.printf(Locale.ROOT, "%-70s %14s %14.3f %8s%n", e.getKey(), "-", now.score(), "new");
+                continue;
+            }
+            // throughput: higher is better; time modes: lower is better
+            boolean higherIsBetter = "thrpt".equals(now.mode());
+            double change = (now.score() - was.score()) / was.score();
+            double worse = higherIsBetter ? -change : change;
+            boolean beyondNoise = Math.abs(now.score() - was.score()) > was.error() + now.error();
+            boolean regressed = worse > threshold && beyondNoise;
+            if (regressed) regressions++;
+            System.out.printf(Locale.ROOT, "%-70s %14.3f %14.3f %+7.1f%% %s%s%n", e.getKey(), was.score(), now.score(),
+                    change * 100, now.unit(), regressed ? "  REGRESSION" : "");
+        }
+        if (regressions > 0) {
+            System.out.printf(Locale.ROOT, "%d regression(s) over %.0f%%%n", regressions, threshold * 100);
+            System.exit(1);
+        }
+    }
+
+    private static Map<String, Result> read(File file) throws Exception {
+        Map<String, Result> results = new LinkedHashMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(file)) {
+            StringBuilder key = new StringBuilder(run.path("benchmark").asText()
+                    .replace("com.pahanaedu.billingapp.bench.jmh.", ""));
+            Iterator<Map.Entry<String, JsonNode>> params = run.path("params").fields();
+            while (params.hasNext()) {
+                Map.Entry<String, JsonNode> p = params.next();
+                key.append(' ').append(p.getKey()).append('=').append(p.getValue().asText());
+            }
+            JsonNode metric = run.path("primaryMetric");
+            double error = metric.path("scoreError").asDouble(0);
+            results.put(key.toString(), new Result(run.path("mode").asText(), metric.path("score").asDouble(),
+                    Double.isNaN(error) ? 0 : error, metric.path("scoreUnit").asText()));
+        }
+        return results;
+    }
+}
@@ -0,0 +1,65 @@
+package com.pahanaedu.billingapp.bench.jmh;
+
+import com.pahanaedu.billingapp.bench.BenchDataGenerator;
+import com.pahanaedu.billingapp.dto.BillDTO;
+import com.pahanaedu.billingapp.dto.BillItemDTO;
+import com.pahanaedu.billingapp.model.Bill;
+import com.pahanaedu.billingapp.service.BillService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BillService.createBill end to end: customer and item lookups, stock
+ * deduction, total computation, insert and commit. Each invocation bills a
+ * different pre-drawn basket, with the same skewed popularity as the seed data.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CheckoutBenchmark {
+
+    private static final int BASKETS = 1024;
+
+    @Param({"1", "10", "50"})
+    public int lines;
+
+    private ConfigurableApplicationContext ctx;
+    private BillService billService;
+    private BillDTO[] baskets;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ctx = BenchApp.start();
+        billService = ctx.getBean(BillService.class);
+
+        SplittableRandom rnd = new SplittableRandom(BenchDataGenerator.DEFAULT_SEED);
+        baskets = new BillDTO[BASKETS];
+        for (int b = 0; b < BASKETS; b++) {
+            List<BillItemDTO> items = new ArrayList<>(lines);
+            for (int l = 0; l < lines; l++) {
+                long itemId = 1 + BenchDataGenerator.skewed(rnd, BenchApp.SIZES.items());
+                items.add(new BillItemDTO(itemId, 1 + rnd.nextInt(3)));
+            }
+            baskets[b] = new BillDTO(1L + rnd.nextInt(BenchApp.SIZES.customers()), items);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ctx.close();
+    }
+
+    @Benchmark
+    public Bill createBill() {
+        return billService.createBill(baskets[next++ & (BASKETS - 1)]);
+    }
+}
@@ -0,0 +1,35 @@
+package com.pahanaedu.billingapp.bench.jmh;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pahanaedu.billingapp.model.Bill;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/** Serialising a Bill graph the way the REST layer does (Boot's Jackson defaults). */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonBenchmark {
+
+    @Param({"1", "10", "50"})
+    public int lines;
+
+    private ObjectMapper mapper;
+    private Bill bill;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        mapper = Jackson2ObjectMapperBuilder.json().build();
+        bill = BenchApp.generator().billGraph(lines);
+    }
+
+    @Benchmark
+    public byte[] writeBill() throws Exception {
+        return mapper.writeValueAsBytes(bill);
+    }
+}
@@ -0,0 +1,55 @@
+package com.pahanaedu.billingapp.bench.jmh;
+
+import com.pahanaedu.billingapp.util.PdfGeneratorUtil;
+import org.openjdk.jmh.annotations.*;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The bill-pdf template (rendered once, with the app's resolver settings)
+ * and PdfGeneratorUtil, separately, so layout cost and template cost are
+ * not mixed up. No database or Spring context involved.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PdfBenchmark {
+
+    @Param({"1", "10", "50"})
+    public int lines;
+
+    private SpringTemplateEngine engine;
+    private Context context;
+    private String html;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode("HTML");
+        resolver.setCharacterEncoding("UTF-8");
+        engine = new SpringTemplateEngine();
+        engine.setTemplateResolver(resolver);
+
+        context = new Context();
+        context.setVariable("bill", BenchApp.generator().billGraph(lines));
+        html = engine.process("bill-pdf", context);
+    }
+
+    @Benchmark
+    public String template() {
+        return engine.process("bill-pdf", context);
+    }
+
+    @Benchmark
+    public byte[] htmlToPdf() {
+        return PdfGeneratorUtil.generatePdfFromHtml(html);
+    }
+}
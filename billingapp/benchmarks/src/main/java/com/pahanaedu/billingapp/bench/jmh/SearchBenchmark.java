@@ -0,0 +1,54 @@
+package com.pahanaedu.billingapp.bench.jmh;
+
+import com.pahanaedu.billingapp.dto.ItemFilter;
+import com.pahanaedu.billingapp.model.Item;
+import com.pahanaedu.billingapp.repository.ItemRepository;
+import com.pahanaedu.billingapp.repository.ItemSort;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** ItemRepository.search (page + count) for each allow-listed sort, with and without a text query. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchBenchmark {
+
+    @Param({"name", "price_desc"})
+    public String sort;
+
+    @Param({"", "history"})
+    public String q;
+
+    @Param({"0", "20"})
+    public int page;
+
+    private ConfigurableApplicationContext ctx;
+    private ItemRepository items;
+    private ItemFilter filter;
+    private ItemSort itemSort;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ctx = BenchApp.start();
+        items = ctx.getBean(ItemRepository.class);
+        filter = new ItemFilter(q.isEmpty() ? null : q, List.of(), null, null, false);
+        itemSort = ItemSort.fromParam(sort);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ctx.close();
+    }
+
+    @Benchmark
+    public Page<Item> search() {
+        return items.search(filter, itemSort, page, 20);
+    }
+}
@@ -0,0 +1,22 @@
+package com.pahanaedu.billingapp.bench.load;
+
+import com.pahanaedu.billingapp.BillingappApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+
+/**
+ * The application for {@link LoadTest} to drive: the bench profile (in-memory
+ * H2 in SQL Server mode, seeded by BenchDataSeeder with the sizes under
+ * app.bench.*). The app jar ships neither H2 nor the seeder, so this runs
+ * from the benchmarks classpath. Arguments go to Spring as usual, e.g.
+ * --app.bench.items=500 or --spring.profiles.active=replica (added to bench).
+ */
+public final class BenchServer {
+
+    private BenchServer() {}
+
+    public static void main(String[] args) {
+        new SpringApplicationBuilder(BillingappApplication.class)
+                .profiles("bench")
+                .run(args);
+    }
+}
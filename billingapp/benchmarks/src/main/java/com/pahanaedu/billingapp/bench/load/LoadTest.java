@@ -0,0 +1,312 @@
+package com.pahanaedu.billingapp.bench.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.pahanaedu.billingapp.bench.BenchDataGenerator;
+import org.HdrHistogram.Histogram;
+
+import java.io.File;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Closed-loop HTTP load against a running app (normally the bench profile):
+ * each of {@code --clients} workers picks a scenario by weight, sends it,
+ * waits for the answer and goes again. Latencies after the warm-up go into
+ * one histogram per scenario; the report has throughput, error count and
+ * p50/p90/p99/max.
+ *
+ * <pre>
+ * LoadTest [--url http://localhost:8080] [--clients 16] [--warmup PT15S] [--duration PT60S]
+ *          [--mix checkout=10,browse=70,pdf=10,login=10] [--customers 50000] [--items 100000] [--bills 1000000]
+ *          [--seed 20240901] [--out target/load-result.json] [--baseline results/load-baseline.json] [--threshold 10]
+ * </pre>
+ *
+ * With --baseline the run is compared scenario by scenario and the exit
+ * code is 1 when throughput fell or p99 rose by more than the threshold
+ * (percent). Copy a result file over the baseline to accept it.
+ */
+public final class LoadTest {
+
+    enum Scenario { CHECKOUT, BROWSE, PDF, LOGIN }
+
+    private static final String[] SORTS = {"newest", "name", "price", "price_desc", "bestselling"};
+    private static final String[] QUERIES = {"", "", "history", "atlas", "notes", "river", "pencil"};
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(2);
+
+    private final Options opts;
+    private final HttpClient http;
+    private final ObjectMapper json = new ObjectMapper();
+    private final Map<Scenario, Histogram> latencies = new EnumMap<>(Scenario.class);
+    private final Map<Scenario, long[]> errors = new EnumMap<>(Scenario.class);
+    private volatile String adminToken;
+
+    private LoadTest(Options opts) {
+        this.opts = opts;
+        this.http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+        for (Scenario s : Scenario.values()) {
+            latencies.put(s, new Histogram(MAX_LATENCY_MICROS, 3));
+            errors.put(s, new long[1]);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options opts = Options.parse(args);
+        LoadTest test = new LoadTest(opts);
+        ObjectNode result = test.run();
+
+        File out = new File(opts.out);
+        if (out.getParentFile() != null) out.getParentFile().mkdirs();
+        test.json.enable(SerializationFeature.INDENT_OUTPUT).writeValue(out, result);
+        System.out.println("Result saved to " + out);
+
+        if (opts.baseline != null) {
+            File baseline = new File(opts.baseline);
+            if (!baseline.exists()) {
+                System.out.println("No baseline at " + baseline + "; copy the result there to create one");
+            } else if (compare(test.json.readTree(baseline), result, opts.threshold / 100) > 0) {
+                System.exit(1);
+            }
+        }
+    }
+
+    private ObjectNode run() throws Exception {
+        adminToken = login("admin", "admin123");
+        System.out.printf(Locale.ROOT, "%d clients against %s: warm-up %s, measuring %s, mix %s%n",
+                opts.clients, opts.url, opts.warmup, opts.duration, opts.mix);
+
+        long start = System.nanoTime();
+        long measureFrom = start + opts.warmup.toNanos();
+        long end = measureFrom + opts.duration.toNanos();
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < opts.clients; i++) {
+            SplittableRandom rnd = new SplittableRandom(opts.seed + i);
+            workers.add(Thread.ofPlatform().name("load-" + i).start(() -> work(rnd, measureFrom, end)));
+        }
+        for (Thread t : workers) t.join();
+        return report(opts.duration.toNanos() / 1e9);
+    }
+
+    private void work(SplittableRandom rnd, long measureFrom, long end) {
+        Histogram[] local = new Histogram[Scenario.values().length];
+        long[] localErrors = new long[local.length];
+        for (int i = 0; i < local.length; i++) local[i] = new Histogram(MAX_LATENCY_MICROS, 3);
+
+        long now;
+        while ((now = System.nanoTime()) < end) {
+            Scenario s = pick(rnd);
+            boolean ok;
+            try {
+                ok = send(s, rnd);
+            } catch (Exception e) {
+                ok = false;
+            }
+            long done = System.nanoTime();
+            if (now < measureFrom) continue;
+            if (ok) local[s.ordinal()].recordValue(Math.min(MAX_LATENCY_MICROS, (done - now) / 1000));
+            else localErrors[s.ordinal()]++;
+        }
+        synchronized (latencies) {
+            for (Scenario s : Scenario.values()) {
+                latencies.get(s).add(local[s.ordinal()]);
+                errors.get(s)[0] += localErrors[s.ordinal()];
+            }
+        }
+    }
+
+    private Scenario pick(SplittableRandom rnd) {
+        int r = rnd.nextInt(opts.mix.values().stream().mapToInt(Integer::intValue).sum());
+        for (Map.Entry<Scenario, Integer> e : opts.mix.entrySet()) {
+            r -= e.getValue();
+            if (r < 0) return e.getKey();
+        }
+        throw new IllegalStateException("empty mix");
+    }
+
+    // --------- scenarios
+
+    private boolean send(Scenario s, SplittableRandom rnd) throws Exception {
+        return switch (s) {
+            case CHECKOUT -> {
+                StringBuilder body = new StringBuilder("{\"customerId\":")
+                        .append(1 + rnd.nextInt(opts.customers)).append(",\"items\":[");
+                int lines = 1 + rnd.nextInt(5);
+                for (int i = 0; i < lines; i++) {
+                    if (i > 0) body.append(',');
+                    body.append("{\"itemId\":").append(1 + BenchDataGenerator.skewed(rnd, opts.items))
+                            .append(",\"quantity\":").append(1 + rnd.nextInt(3)).append('}');
+                }
+                body.append("]}");
+                yield authed(post("/api/bills", body.toString()));
+            }
+            case BROWSE -> {
+                String q = QUERIES[rnd.nextInt(QUERIES.length)];
+                String uri = "/api/v1/items?size=12&page=" + rnd.nextInt(5) + "&sort=" + SORTS[rnd.nextInt(SORTS.length)]
+                        + (q.isEmpty() ? "" : "&q=" + q);
+                yield ok(http.send(get(uri).build(), HttpResponse.BodyHandlers.discarding()));
+            }
+            case PDF -> authed(get("/api/pdf/bill/" + (1 + rnd.nextInt(opts.bills))));
+            case LOGIN -> {
+                HttpResponse<Void> res = http.send(post("/api/v1/auth/login",
+                        "{\"username\":\"user\",\"password\":\"user123\"}").build(), HttpResponse.BodyHandlers.discarding());
+                yield ok(res);
+            }
+        };
+    }
+
+    /** Sends with the admin bearer token, logging in again once if it was rejected (expired). */
+    private boolean authed(HttpRequest.Builder request) throws Exception {
+        String token = adminToken;
+        HttpResponse<Void> res = http.send(request.copy().header("Authorization", "Bearer " + token).build(),
+                HttpResponse.BodyHandlers.discarding());
+        if (res.statusCode() == 401) {
+            synchronized (this) {
+                if (token.equals(adminToken)) adminToken = login("admin", "admin123");
+            }
+            res = http.send(request.header("Authorization", "Bearer " + adminToken).build(),
+                    HttpResponse.BodyHandlers.discarding());
+        }
+        return ok(res);
+    }
+
+    private String login(String username, String password) throws Exception {
+        HttpResponse<String> res = http.send(post("/api/v1/auth/login",
+                "{\"username\":\"" + username + "\",\"password\":\"" + password + "\"}").build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (!ok(res)) throw new IllegalStateException("Login as " + username + " failed: HTTP " + res.statusCode());
+        return json.readTree(res.body()).path("accessToken").asText();
+    }
+
+    private HttpRequest.Builder get(String path) {
+        return HttpRequest.newBuilder(URI.create(opts.url + path)).timeout(Duration.ofSeconds(60)).GET();
+    }
+
+    private HttpRequest.Builder post(String path, String body) {
+        return HttpRequest.newBuilder(URI.create(opts.url + path)).timeout(Duration.ofSeconds(60))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+    }
+
+    private static boolean ok(HttpResponse<?> res) {
+        return res.statusCode() / 100 == 2;
+    }
+
+    // --------- report and baseline
+
+    private ObjectNode report(double seconds) {
+        ObjectNode root = json.createObjectNode();
+        root.put("clients", opts.clients);
+        root.put("durationSeconds", seconds);
+        root.put("mix", opts.mix.toString());
+        ObjectNode scenarios = root.putObject("scenarios");
+
+        System.out.printf(Locale.ROOT, "%-10s %10s %8s %10s %10s %10s %10s%n",
+                "scenario", "req/s", "errors", "p50 ms", "p90 ms", "p99 ms", "max ms");
+        for (Scenario s : Scenario.values()) {
+            Histogram h = latencies.get(s);
+            long errs = errors.get(s)[0];
+            if (h.getTotalCount() == 0 && errs == 0) continue;
+            ObjectNode n = scenarios.putObject(s.name().toLowerCase(Locale.ROOT));
+            n.put("throughput", h.getTotalCount() / seconds);
+            n.put("errors", errs);
+            n.put("p50", h.getValueAtPercentile(50) / 1000.0);
+            n.put("p90", h.getValueAtPercentile(90) / 1000.0);
+            n.put("p99", h.getValueAtPercentile(99) / 1000.0);
+            n.put("max", h.getMaxValue() / 1000.0);
+            System.out.printf(Locale.ROOT, "%-10s %10.1f %8d %10.1f %10.1f %10.1f %10.1f%n", s.name().toLowerCase(Locale.ROOT),
+                    n.get("throughput").asDouble(), errs, n.get("p50").asDouble(), n.get("p90").asDouble(),
+                    n.get("p99").asDouble(), n.get("max").asDouble());
+        }
+        return root;
+    }
+
+    /** Prints the change per scenario; returns how many regressed. */
+    static int compare(JsonNode baseline, JsonNode result, double threshold) {
+        int regressions = 0;
+        System.out.printf(Locale.ROOT, "%-10s %22s %22s%n", "vs base", "req/s", "p99 ms");
+        var it = result.path("scenarios").fields();
+        while (it.hasNext()) {
+            Map.Entry<String, JsonNode> e = it.next();
+            JsonNode was = baseline.path("scenarios").path(e.getKey());
+            if (was.isMissingNode()) continue;
+            JsonNode now = e.getValue();
+            double tput = change(was.path("throughput").asDouble(), now.path("throughput").asDouble());
+            double p99 = change(was.path("p99").asDouble(), now.path("p99").asDouble());
+            boolean regressed = tput < -threshold || p99 > threshold || now.path("errors").asLong() > was.path("errors").asLong();
+            if (regressed) regressions++;
+            System.out.printf(Locale.ROOT, "%-10s %10.1f -> %8.1f %+5.0f%% %10.1f -> %8.1f %+5.0f%%%s%n", e.getKey(),
+                    was.path("throughput").asDouble(), now.path("throughput").asDouble(), tput * 100,
+                    was.path("p99").asDouble(), now.path("p99").asDouble(), p99 * 100,
+                    regressed ? "  REGRESSION" : "");
+        }
+        return regressions;
+    }
+
+    private static double change(double was, double now) {
+        return was == 0 ? 0 : (now - was) / was;
+    }
+
+    // --------- options
+
+    private static final class Options {
+        String url = "http://localhost:8080";
+        int clients = 16;
+        Duration warmup = Duration.ofSeconds(15);
+        Duration duration = Duration.ofSeconds(60);
+        Map<Scenario, Integer> mix = parseMix("checkout=10,browse=70,pdf=10,login=10");
+        int customers = 50_000;
+        int items = 100_000;
+        int bills = 1_000_000;
+        long seed = BenchDataGenerator.DEFAULT_SEED;
+        String out = "target/load-result.json";
+        String baseline;
+        double threshold = 10;
+
+        static Options parse(String[] args) {
+            Options o = new Options();
+            for (int i = 0; i + 1 < args.length; i += 2) {
+                String v = args[i + 1];
+                switch (args[i]) {
+                    case "--url" -> o.url = v.endsWith("/") ? v.substring(0, v.length() - 1) : v;
+                    case "--clients" -> o.clients = Integer.parseInt(v);
+                    case "--warmup" -> o.warmup = Duration.parse(v);
+                    case "--duration" -> o.duration = Duration.parse(v);
+                    case "--mix" -> o.mix = parseMix(v);
+                    case "--customers" -> o.customers = Integer.parseInt(v);
+                    case "--items" -> o.items = Integer.parseInt(v);
+                    case "--bills" -> o.bills = Integer.parseInt(v);
+                    case "--seed" -> o.seed = Long.parseLong(v);
+                    case "--out" -> o.out = v;
+                    case "--baseline" -> o.baseline = v;
+                    case "--threshold" -> o.threshold = Double.parseDouble(v);
+                    default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+                }
+            }
+            if (args.length % 2 != 0) throw new IllegalArgumentException("Missing value for " + args[args.length - 1]);
+            return o;
+        }
+
+        static Map<Scenario, Integer> parseMix(String spec) {
+            Map<Scenario, Integer> mix = new EnumMap<>(Scenario.class);
+            for (String part : spec.split(",")) {
+                String[] kv = part.split("=");
+                int weight = Integer.parseInt(kv[1].trim());
+                if (weight > 0) mix.put(Scenario.valueOf(kv[0].trim().toUpperCase(Locale.ROOT)), weight);
+            }
+            if (mix.isEmpty()) throw new IllegalArgumentException("Empty mix: " + spec);
+            return mix;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.pahanaedu.billingapp;
 
+import com.pahanaedu.billingapp.config.StartupDiagnostics;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 
@@ -7,7 +8,9 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 public class BillingappApplication {
 
 	public static void main(String[] args) {
-		SpringApplication.run(BillingappApplication.class, args);
+		SpringApplication app = new SpringApplication(BillingappApplication.class);
+		StartupDiagnostics.install(app);
+		app.run(args);
 	}
 
 }
@@ -0,0 +1,58 @@
+package com.pahanaedu.billingapp.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/** Shared pool for background work (startup rebuilds and index loads, backfills) so it never runs on Tomcat threads. */
+@Configuration
+public class BackgroundConfig {
+
+    /**
+     * With spring.threads.virtual.enabled the workers are virtual threads, like Tomcat's;
+     * the pool size still caps how many chunks hold a JDBC connection at once.
+     */
+    @Bean(name = "backgroundExecutor", destroyMethod = "shutdownNow")
+    public ExecutorService backgroundExecutor(@Value("${app.background.threads:4}") int threads,
+                                              @Value("${spring.threads.virtual.enabled:false}") boolean virtual) {
+        ThreadFactory factory;
+        if (virtual) {
+            factory = Thread.ofVirtual().name("background-", 1).factory();
+        } else {
+            AtomicInteger seq = new AtomicInteger();
+            factory = r -> {
+                Thread t = new Thread(r, "background-" + seq.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            };
+        }
+        return Executors.newFixedThreadPool(threads, factory);
+    }
+
+    /**
+     * BCrypt runs here (see BoundedPasswordEncoder). Sized as a share of the cores so a
+     * login storm cannot starve checkout; a full queue rejects instead of piling up.
+     * Always platform threads: hashing is CPU-bound, so virtual threads would not help.
+     */
+    @Bean(name = "passwordHashingExecutor", destroyMethod = "shutdownNow")
+    public ExecutorService passwordHashingExecutor(@Value("${app.password-hashing.cpu-share:0.25}") double cpuShare,
+                                                   @Value("${app.password-hashing.queue-capacity:32}") int queueCapacity) {
+        int threads = Math.max(1, (int) Math.round(Runtime.getRuntime().availableProcessors() * cpuShare));
+        AtomicInteger seq = new AtomicInteger();
+        ThreadFactory factory = r -> {
+            Thread t = new Thread(r, "password-hash-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), factory, new ThreadPoolExecutor.AbortPolicy());
+    }
+}
@@ -0,0 +1,43 @@
+package com.pahanaedu.billingapp.config;
+
+import com.pahanaedu.billingapp.controller.CatalogResponseCacheFilter;
+import com.pahanaedu.billingapp.jdbc.ReplicaHealth;
+import com.pahanaedu.billingapp.service.CatalogResponseCache;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Pre-encoded catalogue JSON (see CatalogResponseCache). The filter sits just
+ * behind Spring Security and ahead of the DispatcherServlet.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.catalog-cache.enabled", havingValue = "true", matchIfMissing = true)
+public class CatalogResponseCacheConfig {
+
+    @Bean
+    public CatalogResponseCache catalogResponseCache(ObjectProvider<ReplicaHealth> replica,
+                                                     @Value("${app.catalog-cache.max-entries:2000}") int maxEntries,
+                                                     @Value("${app.catalog-cache.gzip-min-bytes:1024}") int gzipMinBytes,
+                                                     @Value("${app.catalog-cache.ttl:PT30S}") Duration ttl) {
+        // replica reads may be this far behind a write, so nothing is stored that soon after one
+        ReplicaHealth health = replica.getIfAvailable();
+        return new CatalogResponseCache(maxEntries, gzipMinBytes, health == null ? 0 : health.maxStalenessMillis(),
+                ttl.toMillis());
+    }
+
+    @Bean
+    public FilterRegistrationBean<CatalogResponseCacheFilter> catalogResponseCacheFilter(CatalogResponseCache cache) {
+        FilterRegistrationBean<CatalogResponseCacheFilter> registration =
+                new FilterRegistrationBean<>(new CatalogResponseCacheFilter(cache));
+        registration.addUrlPatterns("/api/v1/items/*");
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 1);
+        return registration;
+    }
+}
@@ -9,81 +9,83 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+/**
+ * Seeds the roles and the default accounts when they are missing.
+ * A warm database costs two queries and no BCrypt, so restarts stay fast;
+ * existing accounts (including a changed admin password) are left alone.
+ */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class DataInitializer implements CommandLineRunner {
 
+    private static final List<String> ROLES = List.of("ROLE_ADMIN", "ROLE_USER", "ROLE_STAFF");
+
+    private record Seed(String username, String password, String fullName, String email, String phone, String role) {}
+
+    private static final List<Seed> USERS = List.of(
+            new Seed("admin", "admin123", "System Administrator", "admin@pahanaedu.com", "+1234567890", "ROLE_ADMIN"),
+            new Seed("user", "user123", "Test User", "user@pahanaedu.com", "+1234567891", "ROLE_USER"));
+
     private final RoleRepository roleRepository;
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
 
     @Override
+    @Transactional
     public void run(String... args) throws Exception {
-        initializeRoles();
-        initializeDefaultUsers();
+        Map<String, Role> roles = initializeRoles();
+        initializeDefaultUsers(roles);
     }
 
-    private void initializeRoles() {
-        createRoleIfNotExists("ROLE_ADMIN", "Administrator role with full access");
-        createRoleIfNotExists("ROLE_USER", "Regular user role");
-        createRoleIfNotExists("ROLE_STAFF", "Staff role with limited admin access");
-        log.info("Roles initialized successfully");
-    }
+    private Map<String, Role> initializeRoles() {
+        Map<String, Role> roles = roleRepository.findAll().stream()
+                .filter(r -> r.getName() != null)
+                .collect(Collectors.toMap(Role::getName, Function.identity(), (a, b) -> a));
 
-    private void createRoleIfNotExists(String roleName, String description) {
-        if (roleRepository.findByName(roleName).isEmpty()) {
+        List<Role> missing = new ArrayList<>();
+        for (String name : ROLES) {
+            if (roles.containsKey(name)) continue;
             Role role = new Role();
-            role.setName(roleName);
-            roleRepository.save(role);
-            log.info("Created role: {}", roleName);
+            role.setName(name);
+            missing.add(role);
         }
-    }
-
-    private void initializeDefaultUsers() {
-        // Create admin user
-        if (userRepository.findByUsername("admin").isEmpty()) {
-            Role adminRole = roleRepository.findByName("ROLE_ADMIN")
-                    .orElseThrow(() -> new RuntimeException("ROLE_ADMIN not found"));
-
-            User admin = new User();
-            admin.setUsername("admin");
-            admin.setPassword(passwordEncoder.encode("admin123"));
-            admin.setFullName("System Administrator");
-            admin.setEmail("admin@pahanaedu.com");
-            admin.setPhone("+1234567890");
-            admin.setRoles(Set.of(adminRole));
-
-            userRepository.save(admin);
-            log.info("Created default admin user: admin/admin123");
-        } else {
-            // Update existing admin password if needed
-            User existingAdmin = userRepository.findByUsername("admin").get();
-            existingAdmin.setPassword(passwordEncoder.encode("admin123"));
-            userRepository.save(existingAdmin);
-            log.info("Updated admin password");
+        if (!missing.isEmpty()) {
+            roleRepository.saveAll(missing).forEach(r -> roles.put(r.getName(), r));
+            log.info("Created roles: {}", missing.stream().map(Role::getName).toList());
         }
+        return roles;
+    }
 
-        // Create test user
-        if (userRepository.findByUsername("user").isEmpty()) {
-            Role userRole = roleRepository.findByName("ROLE_USER")
-                    .orElseThrow(() -> new RuntimeException("ROLE_USER not found"));
+    private void initializeDefaultUsers(Map<String, Role> roles) {
+        Set<String> existing = new HashSet<>(userRepository.findExistingUsernames(
+                USERS.stream().map(Seed::username).toList()));
 
+        List<User> missing = new ArrayList<>();
+        for (Seed seed : USERS) {
+            if (existing.contains(seed.username())) continue;
             User user = new User();
-            user.setUsername("user");
-            user.setPassword(passwordEncoder.encode("user123"));
-            user.setFullName("Test User");
-            user.setEmail("user@pahanaedu.com");
-            user.setPhone("+1234567891");
-            user.setRoles(Set.of(userRole));
-
-            userRepository.save(user);
-            log.info("Created default test user: user/user123");
+            user.setUsername(seed.username());
+            user.setPassword(passwordEncoder.encode(seed.password()));
+            user.setFullName(seed.fullName());
+            user.setEmail(seed.email());
+            user.setPhone(seed.phone());
+            user.setRoles(Set.of(roles.get(seed.role())));
+            missing.add(user);
+        }
+        if (!missing.isEmpty()) {
+            userRepository.saveAll(missing);
+            log.info("Created default users: {}", missing.stream().map(User::getUsername).toList());
         }
-
-        log.info("Default users initialized successfully");
     }
 }
@@ -0,0 +1,114 @@
+package com.pahanaedu.billingapp.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.pahanaedu.billingapp.dto.CacheStatsDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+
+/**
+ * The on-heap Caffeine caches behind Hibernate's second-level cache, one per
+ * region, each created up front with its own bound. Hits, misses, evictions
+ * and removals come from the JCache statistics MXBean of each cache, which is
+ * also what the cache.* meters (JCacheMetrics) read.
+ */
+public class HibernateCacheRegions implements MeterBinder, AutoCloseable {
+
+    /** Entry bound (0 = unbounded) and time-to-live after a write (zero = none) for one region. */
+    public record Limits(long maxEntries, Duration ttl) {}
+
+    private static final String STATISTICS_BEAN = "javax.cache:type=CacheStatistics,CacheManager=%s,Cache=%s";
+
+    private final CacheManager cacheManager;
+    private final Map<String, Limits> limits;
+    private final MBeanServer mbeans = ManagementFactory.getPlatformMBeanServer();
+
+    public HibernateCacheRegions(String name, Map<String, Limits> limits) {
+        this.limits = new LinkedHashMap<>(limits);
+        this.cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create(name), getClass().getClassLoader());
+        limits.forEach((region, l) -> cacheManager.createCache(region, configuration(l)));
+    }
+
+    /** Handed to Hibernate's JCache region factory. */
+    public CacheManager cacheManager() {
+        return cacheManager;
+    }
+
+    public List<CacheStatsDTO> stats() {
+        List<CacheStatsDTO> out = new ArrayList<>();
+        limits.forEach((region, l) -> {
+            Cache<Object, Object> cache = cacheManager.getCache(region);
+            long size = cache.unwrap(com.github.benmanes.caffeine.cache.Cache.class).estimatedSize();
+            ObjectName bean = statisticsBean(region);
+            long h = statistic(bean, "CacheHits"), m = statistic(bean, "CacheMisses");
+            out.add(new CacheStatsDTO(region, (int) Math.min(size, Integer.MAX_VALUE),
+                    (int) Math.min(l.maxEntries(), Integer.MAX_VALUE), h, m,
+                    h + m == 0 ? 0 : (double) h / (h + m),
+                    statistic(bean, "CacheRemovals"), statistic(bean, "CacheEvictions")));
+        });
+        return out;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (String region : limits.keySet()) {
+            JCacheMetrics.monitor(registry, cacheManager.getCache(region));
+        }
+    }
+
+    @Override
+    public void close() {
+        cacheManager.close();
+    }
+
+    // --------- internals
+
+    private static CaffeineConfiguration<Object, Object> configuration(Limits limits) {
+        CaffeineConfiguration<Object, Object> config = new CaffeineConfiguration<>();
+        config.setTypes(Object.class, Object.class);
+        config.setStoreByValue(false);          // Hibernate already stores disassembled state
+        config.setStatisticsEnabled(true);
+        if (limits.maxEntries() > 0) config.setMaximumSize(OptionalLong.of(limits.maxEntries()));
+        if (!limits.ttl().isZero()) config.setExpireAfterWrite(OptionalLong.of(limits.ttl().toNanos()));
+        return config;
+    }
+
+    private ObjectName statisticsBean(String region) {
+        try {
+            return new ObjectName(String.format(STATISTICS_BEAN,
+                    sanitize(cacheManager.getURI().toString()), sanitize(region)));
+        } catch (JMException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // same escaping Caffeine applies when it registers the bean
+    private static String sanitize(String name) {
+        return name.replaceAll("[,:=\n]", ".");
+    }
+
+    private long statistic(ObjectName bean, String attribute) {
+        try {
+            return ((Number) mbeans.getAttribute(bean, attribute)).longValue();
+        } catch (JMException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.pahanaedu.billingapp.config;
+
+import com.pahanaedu.billingapp.security.UserCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * The app's own pools and caches as Micrometer meters, next to the
+ * auto-configured JVM, HikariCP, Hibernate and HTTP ones.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder executorMetrics(@Qualifier("backgroundExecutor") ExecutorService background,
+                                       @Qualifier("passwordHashingExecutor") ExecutorService hashing) {
+        return registry -> {
+            new ExecutorServiceMetrics(background, "background", Tags.empty()).bindTo(registry);
+            new ExecutorServiceMetrics(hashing, "password-hashing", Tags.empty()).bindTo(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder userCacheMetrics(UserCache userCache) {
+        Tags tags = Tags.of("cache", "users");
+        return registry -> {
+            // each reads one counter; stats() would take the cache lock on every scrape
+            Gauge.builder("cache.size", userCache, UserCache::size)
+                    .tags(tags).register(registry);
+            FunctionCounter.builder("cache.gets", userCache, UserCache::hits)
+                    .tags(tags.and("result", "hit")).register(registry);
+            FunctionCounter.builder("cache.gets", userCache, UserCache::misses)
+                    .tags(tags.and("result", "miss")).register(registry);
+            FunctionCounter.builder("cache.evictions", userCache, UserCache::evictions)
+                    .description("Entries dropped by the size bound or the TTL")
+                    .tags(tags).register(registry);
+            FunctionCounter.builder("cache.invalidations", userCache, UserCache::invalidations)
+                    .description("Entries dropped because the user changed")
+                    .tags(tags).register(registry);
+        };
+    }
+}
@@ -0,0 +1,150 @@
+package com.pahanaedu.billingapp.config;
+
+import com.pahanaedu.billingapp.jdbc.ReplicaAwareJpaDialect;
+import com.pahanaedu.billingapp.jdbc.ReplicaHealth;
+import com.pahanaedu.billingapp.jdbc.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Read replica for catalogue, bill history and reporting reads, switched on by
+ * app.datasource.replica.url. Both pools are built here rather than exposed
+ * as beans, so the one DataSource bean (wrapped by SqlAccountingConfig like
+ * before) counts each statement once and Boot's auto-configuration backs off.
+ *
+ * Only {@code @Transactional(readOnly = true)} work goes to the replica (see
+ * ReplicaRoutingDataSource); the replica is not used until the app is ready,
+ * so Flyway, seeding and the index warm-ups read the primary.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.datasource.replica", name = "url")
+@Slf4j
+public class ReadReplicaConfig {
+
+    @Bean(destroyMethod = "close")
+    public ReplicaHealth replicaHealth(DataSourceProperties primaryProperties,
+                                       Environment environment,
+                                       @Value("${app.datasource.replica.max-staleness:PT5S}") Duration maxStaleness,
+                                       @Value("${app.datasource.replica.heartbeat:true}") boolean heartbeat,
+                                       @Value("${app.datasource.replica.check-interval:PT1S}") Duration checkInterval)
+            throws Exception {
+        Binder binder = Binder.get(environment);
+        HikariDataSource primary = pool(primaryProperties, new HikariDataSource(), binder, "spring.datasource.hikari", "primary");
+
+        DataSourceProperties replicaProperties = binder.bind("app.datasource.replica", DataSourceProperties.class)
+                .orElseThrow(() -> new IllegalStateException("app.datasource.replica is incomplete"));
+        replicaProperties.afterPropertiesSet();
+        HikariDataSource replica = new HikariDataSource();
+        replica.setInitializationFailTimeout(-1);       // start even while the replica is down
+        replica.setConnectionTimeout(2000);             // and give up quickly, the primary can serve
+        replica.setReadOnly(true);
+        pool(replicaProperties, replica, binder, "app.datasource.replica.hikari", "replica");
+
+        return new ReplicaHealth(primary, replica, maxStaleness.toMillis(), heartbeat, checkInterval.toMillis());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaHealth health,
+                                 @Value("${app.datasource.replica.max-staleness:PT5S}") Duration maxStaleness) {
+        // lazy proxy: the physical connection is picked at the first statement, after readOnly is known
+        return new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(health.primary(), health.replica(),
+                health, ReadReplicaConfig::currentUser, maxStaleness.toMillis()));
+    }
+
+    /** A session gives its connection back after each transaction, so it never takes a replica one into a write. */
+    @Bean
+    public HibernatePropertiesCustomizer releaseConnectionsAfterTransaction() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+
+    /** Replica rows may lag: read-only transactions use the second-level cache without filling it. */
+    @Bean
+    public static BeanPostProcessor replicaAwareJpaDialect() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof LocalContainerEntityManagerFactoryBean emf) {
+                    emf.setJpaDialect(new ReplicaAwareJpaDialect());
+                }
+                return bean;
+            }
+        };
+    }
+
+    /** Primary pool metrics come from Boot (it unwraps the routing data source to the primary); these are the replica's. */
+    @Bean
+    public MeterBinder replicaPoolMetrics(ReplicaHealth health) {
+        return registry -> {
+            if (health.replica() instanceof HikariDataSource hikari && hikari.getMetricsTrackerFactory() == null) {
+                hikari.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+            }
+        };
+    }
+
+    /**
+     * app.datasource.replica.migrate=true: the replica is a local stand-in (e.g. a second embedded
+     * database), so the app migrates it too. A real replica gets the schema through replication.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.datasource.replica.migrate", havingValue = "true")
+    public FlywayMigrationStrategy migrateReplicaToo(ReplicaHealth health) {
+        return flyway -> {
+            flyway.migrate();
+            Flyway.configure().configuration(flyway.getConfiguration()).dataSource(health.replica()).load().migrate();
+            log.info("Migrated the local read replica");
+        };
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startReplicaChecks(ApplicationReadyEvent event) {
+        event.getApplicationContext().getBean(ReplicaHealth.class).start();
+    }
+
+    // --------- internals
+
+    private static HikariDataSource pool(DataSourceProperties properties, HikariDataSource pool, Binder binder,
+                                         String hikariPrefix, String name) {
+        pool.setJdbcUrl(properties.determineUrl());
+        pool.setUsername(properties.determineUsername());
+        pool.setPassword(properties.determinePassword());
+        pool.setDriverClassName(properties.determineDriverClassName());
+        pool.setPoolName(name);
+        binder.bind(hikariPrefix, Bindable.ofInstance(pool));
+        return pool;
+    }
+
+    private static String currentUser() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !auth.isAuthenticated() || auth instanceof AnonymousAuthenticationToken) return null;
+        return auth.getName();
+    }
+}
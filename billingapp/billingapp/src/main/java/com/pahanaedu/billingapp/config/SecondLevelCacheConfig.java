@@ -0,0 +1,70 @@
+package com.pahanaedu.billingapp.config;
+
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Hibernate second-level cache for reference data: the Role and Item entities,
+ * plus the query cache for the role-by-name lookup and the category facets.
+ * Every region is a bounded on-heap cache created here (HibernateCacheRegions);
+ * a region Hibernate asks for that is not listed fails at startup.
+ *
+ * Invalidation: both entities are READ_WRITE, so a write through the entity
+ * (checkout's stock update, item edits) locks the entry until commit and then
+ * replaces it. Cached query results are discarded once any table they read has
+ * been written (update-timestamps region), so the facet counts never outlive a
+ * checkout. Checkout reads stock past the cache (ItemRepository.findForCheckoutById),
+ * and while a read replica is configured, read-only transactions do not fill the
+ * cache (ReplicaAwareJpaDialect).
+ *
+ * The cache is per JVM and nothing invalidates it across instances: with more
+ * than one, another node's write stays unseen here until item.ttl / query.ttl
+ * expire (30 s by default). For longer TTLs, run a single instance or disable
+ * the cache (app.l2-cache.enabled=false).
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.l2-cache", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class SecondLevelCacheConfig {
+
+    public static final String ROLE_REGION = "role";
+    public static final String ITEM_REGION = "item";
+
+    @Bean(destroyMethod = "close")
+    public HibernateCacheRegions hibernateCacheRegions(
+            @Value("${app.l2-cache.role.max-entries:100}") long roleEntries,
+            @Value("${app.l2-cache.item.max-entries:20000}") long itemEntries,
+            @Value("${app.l2-cache.item.ttl:PT30S}") Duration itemTtl,
+            @Value("${app.l2-cache.query.max-entries:1000}") long queryEntries,
+            @Value("${app.l2-cache.query.ttl:PT30S}") Duration queryTtl) {
+        Map<String, HibernateCacheRegions.Limits> regions = new LinkedHashMap<>();
+        regions.put(ROLE_REGION, new HibernateCacheRegions.Limits(roleEntries, Duration.ZERO));
+        regions.put(ITEM_REGION, new HibernateCacheRegions.Limits(itemEntries, itemTtl));
+        regions.put(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME,
+                new HibernateCacheRegions.Limits(queryEntries, queryTtl));
+        // one entry per table, never bounded: an evicted timestamp would let stale query results look fresh
+        regions.put(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+                new HibernateCacheRegions.Limits(0, Duration.ZERO));
+        return new HibernateCacheRegions("billingapp-l2", regions);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCache(HibernateCacheRegions regions) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, regions.cacheManager());
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+}
@@ -0,0 +1,65 @@
+package com.pahanaedu.billingapp.config;
+
+import com.pahanaedu.billingapp.jdbc.CountingDataSource;
+import com.pahanaedu.billingapp.jdbc.QueryAccountingFilter;
+import com.pahanaedu.billingapp.jdbc.SlowQueryJournal;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * JDBC instrumentation: per-request accounting (see QueryAccountingFilter) and
+ * the slow-query journal, both fed by CountingDataSource. The filter runs ahead
+ * of Spring Security so user lookups for HTTP Basic are counted too.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.sql-accounting.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlAccountingConfig {
+
+    // static: post-processors are created before the rest of the configuration
+    @Bean
+    public static BeanPostProcessor countingDataSourcePostProcessor(ObjectProvider<SlowQueryJournal> journal) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource ds && !(bean instanceof CountingDataSource)
+                        ? new CountingDataSource(ds, journal.getIfAvailable()) : bean;
+            }
+        };
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.slow-query.enabled", havingValue = "true", matchIfMissing = true)
+    public SlowQueryJournal slowQueryJournal(@Value("${app.slow-query.threshold:PT0.2S}") Duration threshold,
+                                             @Value("${app.slow-query.capacity:1024}") int capacity) {
+        return new SlowQueryJournal(threshold.toNanos(), capacity);
+    }
+
+    @Bean
+    public FilterRegistrationBean<QueryAccountingFilter> queryAccountingFilter(
+            Environment environment,
+            @Value("${app.sql-accounting.repeat-threshold:10}") int repeatThreshold,
+            @Value("${app.sql-accounting.default-budget:0}") int defaultBudget,
+            @Value("${app.sql-accounting.enforce-budgets:false}") boolean enforceBudgets) {
+        // app.sql-accounting.budgets[/api/bills/{id}]=5
+        Map<String, Integer> budgets = Binder.get(environment)
+                .bind("app.sql-accounting.budgets", Bindable.mapOf(String.class, Integer.class))
+                .orElse(Map.of());
+        FilterRegistrationBean<QueryAccountingFilter> registration = new FilterRegistrationBean<>(
+                new QueryAccountingFilter(repeatThreshold, defaultBudget, budgets, enforceBudgets));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+}
@@ -0,0 +1,149 @@
+package com.pahanaedu.billingapp.config;
+
+import com.pahanaedu.billingapp.dto.StartupReportDTO;
+import com.pahanaedu.billingapp.event.WarmupCompletedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationContextInitializedEvent;
+import org.springframework.boot.context.event.ApplicationEnvironmentPreparedEvent;
+import org.springframework.boot.context.event.ApplicationPreparedEvent;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.boot.context.event.ApplicationStartingEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.boot.web.context.WebServerInitializedEvent;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.PayloadApplicationEvent;
+import org.springframework.core.metrics.StartupStep;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Time-to-ready broken down by phase, measured from JVM start:
+ * jvm (up to SpringApplication.run), environment, context, beans (refresh up
+ * to the web server listening, including Flyway and JPA), lifecycle, runners
+ * (seeding and ready listeners). Also keeps the slowest bean instantiations
+ * and when each background warm-up (see {@link WarmupCompletedEvent}) finished.
+ *
+ * Installed from main() because most phases end before any bean exists; it
+ * registers itself as a singleton so AdminDiagnosticsController can read it.
+ */
+@Slf4j
+public class StartupDiagnostics implements ApplicationListener<ApplicationEvent> {
+
+    private static final int BUFFER_CAPACITY = 4096;
+    private static final int SLOWEST_BEANS = 10;
+
+    private final BufferingApplicationStartup startup;
+    private final ReentrantLock lock = new ReentrantLock();     // not synchronized: report() may run on a virtual request thread
+    private final long jvmStart = ManagementFactory.getRuntimeMXBean().getStartTime();
+    private final List<StartupReportDTO.Phase> phases = new ArrayList<>();
+    private final List<StartupReportDTO.Warmup> warmups = new ArrayList<>();
+    private List<StartupReportDTO.Timing> slowestBeans = List.of();
+    private long lastMark;
+    private long readyAt = -1;
+
+    private StartupDiagnostics(BufferingApplicationStartup startup) {
+        this.startup = startup;
+    }
+
+    /** Records bean instantiation steps only, so the buffer stays small. */
+    public static void install(SpringApplication app) {
+        BufferingApplicationStartup startup = new BufferingApplicationStartup(BUFFER_CAPACITY);
+        startup.addFilter(step -> step.getName().equals("spring.beans.instantiate"));
+        app.setApplicationStartup(startup);
+        app.addListeners(new StartupDiagnostics(startup));
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationEvent event) {
+        if (event instanceof ApplicationStartingEvent) mark("jvm");
+        else if (event instanceof ApplicationEnvironmentPreparedEvent) mark("environment");
+        else if (event instanceof ApplicationContextInitializedEvent e) {
+            e.getApplicationContext().getBeanFactory().registerSingleton("startupDiagnostics", this);
+        }
+        else if (event instanceof ApplicationPreparedEvent) mark("context");
+        else if (event instanceof WebServerInitializedEvent) mark("beans");
+        else if (event instanceof ApplicationStartedEvent) mark("lifecycle");
+        else if (event instanceof ApplicationReadyEvent) ready();
+        else if (event instanceof PayloadApplicationEvent<?> p && p.getPayload() instanceof WarmupCompletedEvent w) {
+            warmedUp(w);
+        }
+    }
+
+    public StartupReportDTO report() {
+        lock.lock();
+        try {
+            return new StartupReportDTO(readyAt, List.copyOf(phases), slowestBeans, List.copyOf(warmups));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // --------- internals
+
+    private void mark(String phase) {
+        lock.lock();
+        try {
+            long at = sinceJvmStart();
+            phases.add(new StartupReportDTO.Phase(phase, at, at - lastMark));
+            lastMark = at;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void ready() {
+        mark("runners");
+        StartupReportDTO.Timing slowest;
+        lock.lock();
+        try {
+            readyAt = lastMark;
+            slowestBeans = slowestBeans(startup.getBufferedTimeline());
+            slowest = slowestBeans.isEmpty() ? null : slowestBeans.get(0);
+        } finally {
+            lock.unlock();
+        }
+        StringBuilder sb = new StringBuilder();
+        for (StartupReportDTO.Phase p : report().phases()) {
+            if (!sb.isEmpty()) sb.append(", ");
+            sb.append(p.name()).append(' ').append(p.tookMillis());
+        }
+        log.info("Ready {} ms after JVM start ({}); slowest bean: {}", readyAt, sb,
+                slowest == null ? "n/a" : slowest.name() + " " + slowest.millis() + " ms");
+    }
+
+    private void warmedUp(WarmupCompletedEvent w) {
+        lock.lock();
+        try {
+            warmups.add(new StartupReportDTO.Warmup(w.name(), w.entries(), w.millis(), sinceJvmStart()));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static List<StartupReportDTO.Timing> slowestBeans(StartupTimeline timeline) {
+        return timeline.getEvents().stream()
+                .sorted(Comparator.comparing(StartupTimeline.TimelineEvent::getDuration).reversed())
+                .limit(SLOWEST_BEANS)
+                .map(e -> new StartupReportDTO.Timing(beanName(e.getStartupStep()), e.getDuration().toMillis()))
+                .toList();
+    }
+
+    private static String beanName(StartupStep step) {
+        for (StartupStep.Tag tag : step.getTags()) {
+            if ("beanName".equals(tag.getKey())) return tag.getValue();
+        }
+        return step.getName();
+    }
+
+    private long sinceJvmStart() {
+        return System.currentTimeMillis() - jvmStart;
+    }
+}
@@ -0,0 +1,100 @@
+package com.pahanaedu.billingapp.controller;
+
+import com.pahanaedu.billingapp.config.HibernateCacheRegions;
+import com.pahanaedu.billingapp.config.StartupDiagnostics;
+import com.pahanaedu.billingapp.dto.CacheStatsDTO;
+import com.pahanaedu.billingapp.dto.MeterSummaryDTO;
+import com.pahanaedu.billingapp.dto.ReplicaStatusDTO;
+import com.pahanaedu.billingapp.dto.SlowQueryDTO;
+import com.pahanaedu.billingapp.dto.StartupReportDTO;
+import com.pahanaedu.billingapp.jdbc.ReplicaHealth;
+import com.pahanaedu.billingapp.jdbc.SlowQueryJournal;
+import com.pahanaedu.billingapp.service.CatalogResponseCache;
+import com.pahanaedu.billingapp.service.MetricsSummaryService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Admin-only runtime diagnostics.
+ */
+@RestController
+@RequestMapping("/api/admin/diagnostics")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminDiagnosticsController {
+
+    private static final int MAX_SLOW_QUERIES = 100;
+
+    // only present when started through BillingappApplication.main (not in slice tests)
+    private final ObjectProvider<StartupDiagnostics> startupDiagnostics;
+    private final MetricsSummaryService metricsSummary;
+    private final ObjectProvider<SlowQueryJournal> slowQueries;     // absent when app.slow-query.enabled=false
+    private final ObjectProvider<ReplicaHealth> replicaHealth;      // absent without app.datasource.replica.url
+    private final ObjectProvider<HibernateCacheRegions> cacheRegions;   // absent when app.l2-cache.enabled=false
+    private final ObjectProvider<CatalogResponseCache> catalogCache;    // absent when app.catalog-cache.enabled=false
+
+    @GetMapping("/startup")
+    public ResponseEntity<StartupReportDTO> startup() {
+        StartupDiagnostics diagnostics = startupDiagnostics.getIfAvailable();
+        return diagnostics == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(diagnostics.report());
+    }
+
+    /** Hot-path timers, pool, Hibernate, cache and JVM meters; the full set is at /actuator/prometheus. */
+    @GetMapping("/metrics")
+    public List<MeterSummaryDTO> metrics() {
+        return metricsSummary.summary();
+    }
+
+    // GET /api/admin/diagnostics/slow-queries?sort=total|p99&limit=20
+    @GetMapping("/slow-queries")
+    public ResponseEntity<List<SlowQueryDTO>> slowQueries(@RequestParam(defaultValue = "total") String sort,
+                                                          @RequestParam(defaultValue = "20") int limit) {
+        SlowQueryJournal journal = slowQueries.getIfAvailable();
+        if (journal == null) return ResponseEntity.notFound().build();
+        SlowQueryJournal.Sort order = switch (sort.trim().toLowerCase(Locale.ROOT)) {
+            case "total" -> SlowQueryJournal.Sort.TOTAL;
+            case "p99" -> SlowQueryJournal.Sort.P99;
+            default -> throw new IllegalArgumentException("Unsupported sort: " + sort);
+        };
+        return ResponseEntity.ok(journal.worst(order, Math.min(Math.max(limit, 1), MAX_SLOW_QUERIES)));
+    }
+
+    @DeleteMapping("/slow-queries")
+    public ResponseEntity<Void> clearSlowQueries() {
+        SlowQueryJournal journal = slowQueries.getIfAvailable();
+        if (journal == null) return ResponseEntity.notFound().build();
+        journal.clear();
+        return ResponseEntity.noContent().build();
+    }
+
+    /** Read replica: up, lag, whether reads are going to it, and how connections were routed. */
+    @GetMapping("/replica")
+    public ResponseEntity<ReplicaStatusDTO> replica() {
+        ReplicaHealth health = replicaHealth.getIfAvailable();
+        return health == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(health.status());
+    }
+
+    /** Hibernate second-level cache, one entry per region: size against its bound, hit rate, evictions. */
+    @GetMapping("/second-level-cache")
+    public ResponseEntity<List<CacheStatsDTO>> secondLevelCache() {
+        HibernateCacheRegions regions = cacheRegions.getIfAvailable();
+        return regions == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(regions.stats());
+    }
+
+    /** Pre-encoded catalogue responses: entries, hit rate, invalidations by item writes. */
+    @GetMapping("/catalog-cache")
+    public ResponseEntity<CacheStatsDTO> catalogCache() {
+        CatalogResponseCache cache = catalogCache.getIfAvailable();
+        return cache == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(cache.stats());
+    }
+}
@@ -1,30 +1,37 @@
 package com.pahanaedu.billingapp.controller;
 
-import com.pahanaedu.billingapp.dto.AuthResponse;
 import com.pahanaedu.billingapp.dto.LoginRequest;
+import com.pahanaedu.billingapp.dto.RefreshTokenRequest;
 import com.pahanaedu.billingapp.dto.RegisterRequest;
+import com.pahanaedu.billingapp.dto.TokenResponse;
 import com.pahanaedu.billingapp.dto.UserDto;
 import com.pahanaedu.billingapp.model.Role;
 import com.pahanaedu.billingapp.model.User;
-import com.pahanaedu.billingapp.repository.UserRepository;
+import com.pahanaedu.billingapp.security.CachedUser;
 import com.pahanaedu.billingapp.security.CustomUserDetailsService;
+import com.pahanaedu.billingapp.security.LoginThrottle;
+import com.pahanaedu.billingapp.security.TokenRevocationList;
+import com.pahanaedu.billingapp.security.TokenService;
+import com.pahanaedu.billingapp.security.UserCache;
 import com.pahanaedu.billingapp.service.UserService;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.logout.SecurityContextLogoutHandler;
-import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.Set;
 
 @RestController
@@ -35,7 +42,10 @@ public class AuthController {
     private final AuthenticationManager authenticationManager;
     private final UserService userService;
     private final CustomUserDetailsService userDetailsService;
-    private final UserRepository userRepository;
+    private final UserCache userCache;
+    private final TokenService tokenService;
+    private final TokenRevocationList revocations;
+    private final LoginThrottle loginThrottle;
 
     // Helper: normalize role to ADMIN or CUSTOMER for the frontend
     private static String simplifyRoleFromAuthorities(Iterable<? extends GrantedAuthority> authorities) {
@@ -57,24 +67,38 @@ public class AuthController {
         return "CUSTOMER";
     }
 
-    // ---------- REGISTER (auto-login + return UserDto) ----------
+    private TokenResponse tokens(UserDto user, UserDetails ud) {
+        List<String> authorities = ud.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList();
+        TokenService.Token access = tokenService.issue(ud.getUsername(), authorities, TokenService.Type.ACCESS);
+        TokenService.Token refresh = tokenService.issue(ud.getUsername(), List.of(), TokenService.Type.REFRESH);
+        return new TokenResponse(user, access.value(), refresh.value(), "Bearer",
+                tokenService.accessTtlSeconds(), tokenService.refreshTtlSeconds());
+    }
+
+    private UserDto toDto(UserDetails ud) {
+        CachedUser u = userCache.get(ud.getUsername()).orElse(null);
+        return new UserDto(
+                u != null ? u.id() : null,
+                u != null && u.fullName() != null ? u.fullName() : ud.getUsername(),
+                ud.getUsername(),
+                u != null ? u.email() : null,
+                u != null ? u.phone() : null,
+                simplifyRoleFromAuthorities(ud.getAuthorities())
+        );
+    }
+
+    // ---------- REGISTER (auto-login + return UserDto and tokens) ----------
     @PostMapping("/register")
-    public ResponseEntity<UserDto> register(@RequestBody RegisterRequest req, HttpServletRequest request) {
+    public ResponseEntity<TokenResponse> register(@RequestBody RegisterRequest req) {
         // create the user with ROLE_USER
         User created = userService.register(
                 req.getUsername(), req.getPassword(), req.getFullName(), req.getEmail(), req.getPhone(), "ROLE_USER"
         );
 
-        // auto-login the newly created user (creates JSESSIONID)
+        // auto-login the newly created user
         Authentication auth = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(req.getUsername(), req.getPassword())
         );
-        SecurityContext context = SecurityContextHolder.createEmptyContext();
-        context.setAuthentication(auth);
-        SecurityContextHolder.setContext(context);
-        request.getSession(true).setAttribute(
-                HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY, context
-        );
 
         // return full UserDto so frontend can hydrate /account immediately
         String role = simplifyRoleFromRoles(created.getRoles());
@@ -86,45 +110,54 @@ public class AuthController {
                 created.getPhone(),
                 role
         );
-        return ResponseEntity.ok(dto);
+        return ResponseEntity.ok(tokens(dto, (UserDetails) auth.getPrincipal()));
     }
 
-    // ---------- LOGIN (persist session + return UserDto) ----------
+    // ---------- LOGIN (throttled; BCrypt once, then bearer tokens) ----------
     @PostMapping("/login")
-    public ResponseEntity<UserDto> login(@RequestBody LoginRequest req, HttpServletRequest request) {
+    public ResponseEntity<TokenResponse> login(@RequestBody LoginRequest req, HttpServletRequest request) {
+        loginThrottle.check(req.getUsername(), request.getRemoteAddr());
         Authentication auth = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(req.getUsername(), req.getPassword())
         );
 
-        SecurityContext context = SecurityContextHolder.createEmptyContext();
-        context.setAuthentication(auth);
-        SecurityContextHolder.setContext(context);
-        request.getSession(true).setAttribute(
-                HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY, context
-        );
-
         UserDetails ud = (UserDetails) auth.getPrincipal();
-        // fetch full user so we can return profile info
-        User u = userRepository.findByUsername(ud.getUsername()).orElse(null);
-        String role = simplifyRoleFromAuthorities(ud.getAuthorities());
+        return ResponseEntity.ok(tokens(toDto(ud), ud));
+    }
 
-        UserDto dto = new UserDto(
-                u != null ? u.getId() : null,
-                u != null && u.getFullName() != null ? u.getFullName() : ud.getUsername(),
-                ud.getUsername(),
-                u != null ? u.getEmail() : null,
-                u != null ? u.getPhone() : null,
-                role
-        );
-        return ResponseEntity.ok(dto);
+    // ---------- REFRESH (rotate: the old refresh token is spent) ----------
+    @PostMapping("/refresh")
+    public ResponseEntity<TokenResponse> refresh(@Valid @RequestBody RefreshTokenRequest req) {
+        TokenService.Verified old = tokenService.verify(req.refreshToken(), TokenService.Type.REFRESH)
+                .filter(t -> !revocations.isRevoked(t))
+                .orElseThrow(() -> new BadCredentialsException("Invalid or expired refresh token"));
+
+        // reload so role changes and deleted/disabled accounts take effect here
+        UserDetails ud;
+        try {
+            ud = userDetailsService.loadUserByUsername(old.username());
+        } catch (UsernameNotFoundException ex) {
+            throw new BadCredentialsException("Invalid or expired refresh token");
+        }
+        if (!ud.isEnabled()) throw new BadCredentialsException("Account disabled");
+
+        // the token is spent here: a concurrent refresh with it, on any instance, gets 401
+        if (!revocations.revoke(old)) throw new BadCredentialsException("Invalid or expired refresh token");
+        return ResponseEntity.ok(tokens(toDto(ud), ud));
     }
 
-    // ---------- LOGOUT ----------
+    // ---------- LOGOUT (revoke the presented access token and, if sent, the refresh token) ----------
     @PostMapping("/logout")
-    public ResponseEntity<Void> logout(HttpServletRequest request, HttpServletResponse response) {
-        new SecurityContextLogoutHandler().logout(
-                request, response, SecurityContextHolder.getContext().getAuthentication()
-        );
+    public ResponseEntity<Void> logout(@RequestBody(required = false) RefreshTokenRequest body,
+                                       HttpServletRequest request, HttpServletResponse response) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.getCredentials() instanceof TokenService.Verified access) {
+            revocations.revoke(access);
+        }
+        if (body != null && body.refreshToken() != null) {
+            tokenService.verify(body.refreshToken(), TokenService.Type.REFRESH).ifPresent(revocations::revoke);
+        }
+        new SecurityContextLogoutHandler().logout(request, response, auth);
         return ResponseEntity.ok().build();
     }
 
@@ -136,18 +169,6 @@ public class AuthController {
     @GetMapping("/me")
     public ResponseEntity<UserDto> me(@AuthenticationPrincipal UserDetails principal) {
         if (principal == null) return ResponseEntity.status(401).build();
-
-        User u = userRepository.findByUsername(principal.getUsername()).orElse(null);
-        String role = simplifyRoleFromAuthorities(principal.getAuthorities());
-
-        UserDto dto = new UserDto(
-                u != null ? u.getId() : null,
-                u != null && u.getFullName() != null ? u.getFullName() : principal.getUsername(),
-                principal.getUsername(),
-                u != null ? u.getEmail() : null,
-                u != null ? u.getPhone() : null,
-                role
-        );
-        return ResponseEntity.ok(dto);
+        return ResponseEntity.ok(toDto(principal));
     }
 }
@@ -0,0 +1,127 @@
+package com.pahanaedu.billingapp.controller;
+
+import com.pahanaedu.billingapp.service.CatalogResponseCache;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Answers GET /api/v1/items (pages), /api/v1/items/{id} and
+ * /api/v1/items/categories from {@link CatalogResponseCache}: a hit skips the
+ * controller, the database and Jackson and writes the stored bytes (gzip when
+ * accepted), or 304 when If-None-Match carries the ETag. A miss runs the
+ * controller once, stores a 200 JSON body and serves it the same way.
+ *
+ * Registered after Spring Security (CatalogResponseCacheConfig), so only
+ * requests that got through it are answered.
+ */
+public class CatalogResponseCacheFilter extends OncePerRequestFilter {
+
+    private static final String PAGES = "/api/v1/items";
+    private static final String FACETS = "/api/v1/items/categories";
+    private static final Pattern DETAIL = Pattern.compile("/api/v1/items/(\\d{1,18})");
+    // what ItemRestController.list reads, in key order; anything else cannot change the page
+    private static final List<String> PAGE_PARAMS =
+            List.of("category", "inStock", "maxPrice", "minPrice", "page", "q", "size", "sort");
+
+    private final CatalogResponseCache cache;
+
+    public CatalogResponseCacheFilter(CatalogResponseCache cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"GET".equals(request.getMethod()) || key(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String key = key(request);
+        CatalogResponseCache.Entry entry = cache.get(key);
+        if (entry != null) {
+            write(request, response, entry);
+            return;
+        }
+
+        long seen = cache.generation();
+        ContentCachingResponseWrapper buffered = new ContentCachingResponseWrapper(response);
+        chain.doFilter(request, buffered);
+        String type = buffered.getContentType();
+        if (buffered.getStatus() != HttpServletResponse.SC_OK || buffered.containsHeader(HttpHeaders.CONTENT_ENCODING)
+                || type == null || !MediaType.APPLICATION_JSON.isCompatibleWith(MediaType.parseMediaType(type))) {
+            buffered.copyBodyToResponse();
+            return;
+        }
+        write(request, response, cache.put(key, seen, type, buffered.getContentAsByteArray()));
+    }
+
+    // --------- internals
+
+    /**
+     * Path plus the list endpoint's parameters in a fixed order, names and values
+     * URL-encoded so no value can pose as another parameter; null for anything
+     * this filter does not cache.
+     */
+    static String key(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (path.equals(FACETS)) return FACETS;
+        Matcher detail = DETAIL.matcher(path);
+        if (detail.matches()) return CatalogResponseCache.detailKey(Long.parseLong(detail.group(1)));
+        if (!path.equals(PAGES)) return null;
+
+        StringBuilder key = new StringBuilder(PAGES);
+        char sep = '?';
+        for (String name : PAGE_PARAMS) {
+            String[] values = request.getParameterValues(name);
+            if (values == null) continue;
+            for (String v : values) {
+                key.append(sep).append(name).append('=').append(URLEncoder.encode(v, StandardCharsets.UTF_8));
+                sep = '&';
+            }
+        }
+        return key.toString();
+    }
+
+    private static void write(HttpServletRequest request, HttpServletResponse response,
+                              CatalogResponseCache.Entry entry) throws IOException {
+        boolean gzip = entry.gzip() != null && acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");      // keep it, but revalidate with the ETag
+        response.setHeader(HttpHeaders.ETAG, gzip ? entry.gzipEtag() : entry.etag());
+        if (entry.matches(request.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        byte[] body = gzip ? entry.gzip() : entry.body();
+        response.setContentType(entry.contentType());
+        if (gzip) response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) return false;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            String name = parts[0].trim();
+            if (!name.equalsIgnoreCase("gzip") && !name.equals("*")) continue;
+            boolean refused = parts.length > 1 && parts[1].trim().replace(" ", "").matches("q=0(\\.0*)?");
+            if (!refused) return true;
+        }
+        return false;
+    }
+}
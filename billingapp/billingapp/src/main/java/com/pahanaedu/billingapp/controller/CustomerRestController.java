@@ -1,7 +1,16 @@
 package com.pahanaedu.billingapp.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.pahanaedu.billingapp.dto.BillSummaryDTO;
+import com.pahanaedu.billingapp.dto.CustomerDTO;
+import com.pahanaedu.billingapp.dto.CustomerLookupDTO;
+import com.pahanaedu.billingapp.dto.CustomerSummaryDTO;
+import com.pahanaedu.billingapp.dto.PurgeStatusDTO;
 import com.pahanaedu.billingapp.model.Customer;
+import com.pahanaedu.billingapp.service.CustomerLookupIndex;
+import com.pahanaedu.billingapp.service.CustomerPurgeService;
 import com.pahanaedu.billingapp.service.CustomerService;
+import com.pahanaedu.billingapp.service.CustomerStatsService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -9,12 +18,15 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
+import java.net.URI;
 import java.util.Map;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/v1/customers")
@@ -22,14 +34,31 @@ import java.util.Map;
 @SecurityRequirement(name = "basicAuth")
 public class CustomerRestController {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     @Autowired
     private CustomerService customerService;
 
+    @Autowired
+    private CustomerStatsService customerStatsService;
+
+    @Autowired
+    private CustomerPurgeService customerPurgeService;
+
+    @Autowired
+    private CustomerLookupIndex customerLookupIndex;
+
+    @Autowired
+    private MergePatcher patcher;
+
     @GetMapping
-    @Operation(summary = "Get all customers", description = "Returns a list of all customers")
+    @Operation(summary = "List customers", description = "Returns a page of customer summaries (no bills), optionally filtered by a name/email/phone prefix")
     @ApiResponse(responseCode = "200", description = "Customers retrieved successfully")
-    public ResponseEntity<List<Customer>> getAllCustomers() {
-        return ResponseEntity.ok(customerService.getAllCustomers());
+    public ResponseEntity<Page<CustomerSummaryDTO>> getAllCustomers(
+            @Parameter(description = "Page number (0-based)") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Page size (max 100)") @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Prefix of name, email or phone") @RequestParam(defaultValue = "") String q) {
+        return ResponseEntity.ok(customerService.searchCustomers(q, Math.max(page, 0), Math.min(Math.max(size, 1), MAX_PAGE_SIZE)));
     }
 
     @PostMapping
@@ -37,11 +66,28 @@ public class CustomerRestController {
     @Operation(summary = "Create new customer", description = "Creates a new customer")
     @ApiResponse(responseCode = "200", description = "Customer created successfully")
     @ApiResponse(responseCode = "400", description = "Invalid customer data")
-    public ResponseEntity<Customer> addCustomer(@Valid @RequestBody Customer customer) {
-        Customer saved = customerService.saveCustomer(customer);
+    public ResponseEntity<Customer> addCustomer(@Valid @RequestBody CustomerDTO customer) {
+        Customer saved = customerService.saveCustomer(customer.applyTo(new Customer()));
         return ResponseEntity.ok(saved);
     }
 
+    @GetMapping("/lookup")
+    @Operation(summary = "Find customer by phone or email", description = "Exact match on the normalised phone number or email; pass exactly one")
+    @ApiResponse(responseCode = "200", description = "Customer found")
+    @ApiResponse(responseCode = "400", description = "Neither or both of phone and email given")
+    @ApiResponse(responseCode = "404", description = "No customer with that phone or email")
+    public ResponseEntity<CustomerLookupDTO> lookup(
+            @Parameter(description = "Phone number, any punctuation") @RequestParam(required = false) String phone,
+            @Parameter(description = "Email address, any case") @RequestParam(required = false) String email) {
+        boolean hasPhone = phone != null && !phone.isBlank();
+        boolean hasEmail = email != null && !email.isBlank();
+        if (hasPhone == hasEmail) {
+            throw new IllegalArgumentException("Pass exactly one of phone or email");
+        }
+        Optional<CustomerLookupDTO> hit = hasPhone ? customerLookupIndex.findByPhone(phone) : customerLookupIndex.findByEmail(email);
+        return hit.map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get customer by ID", description = "Returns a specific customer by ID")
     @ApiResponse(responseCode = "200", description = "Customer retrieved successfully")
@@ -54,46 +100,97 @@ public class CustomerRestController {
         return ResponseEntity.ok(customer);
     }
 
+    @GetMapping("/{id}/bills")
+    @Operation(summary = "Get customer bills", description = "Returns a page of the customer's bill headers, newest first")
+    @ApiResponse(responseCode = "200", description = "Bills retrieved successfully")
+    @ApiResponse(responseCode = "404", description = "Customer not found")
+    public ResponseEntity<Page<BillSummaryDTO>> getCustomerBills(
+            @Parameter(description = "Customer ID") @PathVariable Long id,
+            @Parameter(description = "Page number (0-based)") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Page size (max 100)") @RequestParam(defaultValue = "20") int size) {
+        if (!customerService.customerExists(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(customerService.getCustomerBills(id, Math.max(page, 0), Math.min(Math.max(size, 1), MAX_PAGE_SIZE)));
+    }
+
+    @PostMapping("/stats/backfill")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Recompute customer totals", description = "Recomputes bill count, total spent and last purchase for every customer from bill history (Admin only)")
+    @ApiResponse(responseCode = "200", description = "Backfill finished")
+    @ApiResponse(responseCode = "409", description = "A backfill is already running")
+    public ResponseEntity<Map<String, Object>> backfillStats() {
+        int updated = customerStatsService.backfill();
+        if (updated < 0) {
+            return ResponseEntity.status(409).body(Map.of("error", "Backfill already running"));
+        }
+        return ResponseEntity.ok(Map.of("customersUpdated", updated));
+    }
+
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN') or hasRole('USER')")
-    @Operation(summary = "Update customer", description = "Updates an existing customer")
+    @Operation(summary = "Update customer", description = "Replaces the customer's contact details")
     @ApiResponse(responseCode = "200", description = "Customer updated successfully")
+    @ApiResponse(responseCode = "400", description = "Invalid customer data, or phone/email taken by another customer")
     @ApiResponse(responseCode = "404", description = "Customer not found")
     public ResponseEntity<Customer> updateCustomer(
             @Parameter(description = "Customer ID") @PathVariable Long id,
-            @Valid @RequestBody Customer customer) {
+            @Valid @RequestBody CustomerDTO customer) {
         Customer existing = customerService.getCustomerById(id);
         if (existing == null) {
             return ResponseEntity.notFound().build();
         }
-        customer.setId(id);
-        Customer updated = customerService.saveCustomer(customer);
-        return ResponseEntity.ok(updated);
+        // copy onto the loaded row; merging the body would null out the bills collection
+        return ResponseEntity.ok(customerService.saveCustomer(customer.applyTo(existing)));
+    }
+
+    @PatchMapping(path = "/{id}", consumes = {MergePatcher.MEDIA_TYPE, MediaType.APPLICATION_JSON_VALUE})
+    @PreAuthorize("hasRole('ADMIN') or hasRole('USER')")
+    @Operation(summary = "Patch customer", description = "JSON merge patch of name, email and/or phone; only changed columns are written")
+    @ApiResponse(responseCode = "200", description = "Customer updated successfully")
+    @ApiResponse(responseCode = "400", description = "Invalid patch, or phone/email taken by another customer")
+    @ApiResponse(responseCode = "404", description = "Customer not found")
+    public ResponseEntity<Customer> patchCustomer(
+            @Parameter(description = "Customer ID") @PathVariable Long id,
+            @RequestBody JsonNode patch) {
+        Customer existing = customerService.getCustomerById(id);
+        if (existing == null) {
+            return ResponseEntity.notFound().build();
+        }
+        CustomerDTO dto = patcher.apply(CustomerDTO.from(existing), patch);
+        return ResponseEntity.ok(customerService.saveCustomer(dto.applyTo(existing)));
     }
 
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
-    @Operation(summary = "Delete customer", description = "Deletes a customer and all related bills (Admin only)")
+    @Operation(summary = "Delete customer", description = "Deletes a customer and all related bills (Admin only). Long histories are purged in the background; poll the returned job.")
     @ApiResponse(responseCode = "204", description = "Customer deleted successfully")
+    @ApiResponse(responseCode = "202", description = "Purge started in the background")
     @ApiResponse(responseCode = "404", description = "Customer not found")
-    @ApiResponse(responseCode = "400", description = "Cannot delete customer with existing bills")
     @ApiResponse(responseCode = "403", description = "Access denied - Admin role required")
     public ResponseEntity<Object> deleteCustomer(@Parameter(description = "Customer ID") @PathVariable Long id) {
-        try {
-            Customer existing = customerService.getCustomerById(id);
-            if (existing == null) {
-                return ResponseEntity.notFound().build();
-            }
-            
-            customerService.deleteCustomer(id);
-            return ResponseEntity.noContent().build();
-            
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().body(
-                Map.of("error", "Cannot delete customer", 
-                       "message", "Customer has associated bills. Delete bills first or use force delete.",
-                       "details", e.getMessage())
-            );
+        Customer existing = customerService.getCustomerById(id);
+        if (existing == null) {
+            return ResponseEntity.notFound().build();
         }
+        if (!customerPurgeService.canPurgeNow(existing)) {
+            PurgeStatusDTO job = customerPurgeService.startPurge(existing);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/v1/customers/purges/" + job.jobId()))
+                    .body(job);
+        }
+        customerService.deleteCustomer(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/purges/{jobId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Customer purge progress", description = "Progress of a background customer delete (Admin only)")
+    @ApiResponse(responseCode = "200", description = "Job found")
+    @ApiResponse(responseCode = "404", description = "Unknown or expired job")
+    public ResponseEntity<PurgeStatusDTO> purgeStatus(@Parameter(description = "Purge job ID") @PathVariable long jobId) {
+        return customerPurgeService.status(jobId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
     }
 }
@@ -1,43 +1,143 @@
 package com.pahanaedu.billingapp.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.pahanaedu.billingapp.dto.BarcodeBatchResponse;
+import com.pahanaedu.billingapp.dto.BestSellerDTO;
+import com.pahanaedu.billingapp.dto.CategoryFacetDTO;
 import com.pahanaedu.billingapp.dto.ItemDTO;
+import com.pahanaedu.billingapp.dto.ItemFilter;
+import com.pahanaedu.billingapp.dto.RelatedItemDTO;
+import com.pahanaedu.billingapp.dto.ScannedItemDTO;
 import com.pahanaedu.billingapp.model.Item;
 import com.pahanaedu.billingapp.repository.ItemRepository;
+import com.pahanaedu.billingapp.repository.ItemSort;
+import com.pahanaedu.billingapp.service.BarcodeIndex;
+import com.pahanaedu.billingapp.service.BestSellerService;
+import com.pahanaedu.billingapp.service.RelatedItemsService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.validation.Valid;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
 @RestController
 @RequestMapping("/api/v1/items")
 public class ItemRestController {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final ItemRepository repo;
+    private final BestSellerService bestSellers;
+    private final RelatedItemsService relatedItems;
+    private final BarcodeIndex barcodes;
+    private final MergePatcher patcher;
+    private final Map<ItemSort, Timer> searchTimers = new EnumMap<>(ItemSort.class);
 
-    public ItemRestController(ItemRepository repo) {
+    public ItemRestController(ItemRepository repo,
+                              BestSellerService bestSellers,
+                              RelatedItemsService relatedItems,
+                              BarcodeIndex barcodes,
+                              MergePatcher patcher,
+                              MeterRegistry meterRegistry) {
         this.repo = repo;
+        this.bestSellers = bestSellers;
+        this.relatedItems = relatedItems;
+        this.barcodes = barcodes;
+        this.patcher = patcher;
+        // one timer per allow-listed sort: bestselling joins the sales history, the others do not
+        for (ItemSort s : ItemSort.values()) {
+            searchTimers.put(s, Timer.builder("catalog.search")
+                    .description("ItemRepository.search: filter, sort and page count")
+                    .tag("sort", s.getParam())
+                    .register(meterRegistry));
+        }
+    }
+
+    // Normalised barcode, rejecting one that already belongs to another item
+    private String checkedBarcode(String raw, Long itemId) {
+        String barcode = BarcodeIndex.normalize(raw);
+        if (barcode == null) return null;
+        boolean taken = itemId == null ? repo.existsByBarcode(barcode) : repo.existsByBarcodeAndIdNot(barcode, itemId);
+        if (taken) throw new IllegalArgumentException("Barcode already assigned to another item: " + barcode);
+        return barcode;
     }
 
-    // GET /api/v1/items?page=0&size=12&q=pen&category=Fiction
+    // GET /api/v1/items?page=0&size=12&q=pen&category=Fiction&category=History
+    //     &minPrice=5&maxPrice=20&inStock=true&sort=price_desc
+    // sort: newest (default), name, name_desc, price, price_desc, bestselling
     @GetMapping
+    @Transactional(readOnly = true)
     public Page<Item> list(@RequestParam(defaultValue = "0") int page,
                            @RequestParam(defaultValue = "12") int size,
                            @RequestParam(defaultValue = "") String q,
-                           @RequestParam(required = false) String category) {
-        Pageable pageable = PageRequest.of(page, size);
-        return repo.search(category, q, pageable);
+                           @RequestParam(required = false) List<String> category,
+                           @RequestParam(required = false) Double minPrice,
+                           @RequestParam(required = false) Double maxPrice,
+                           @RequestParam(defaultValue = "false") boolean inStock,
+                           @RequestParam(required = false) String sort) {
+        ItemFilter filter = new ItemFilter(q, category, minPrice, maxPrice, inStock);
+        ItemSort itemSort = ItemSort.fromParam(sort);
+        return searchTimers.get(itemSort).record(() -> repo.search(filter, itemSort,
+                Math.max(page, 0), Math.min(Math.max(size, 1), MAX_PAGE_SIZE)));
+    }
+
+    // GET /api/v1/items/bestsellers?window=7d&limit=10   (window: 7d, 30d, all) - served from memory
+    @GetMapping("/bestsellers")
+    @Transactional(readOnly = true)
+    public List<BestSellerDTO> bestsellers(@RequestParam(defaultValue = "30d") String window,
+                                           @RequestParam(defaultValue = "10") int limit) {
+        return bestSellers.top(BestSellerService.Window.fromParam(window),
+                Math.min(limit, BestSellerService.MAX_LIMIT));
+    }
+
+    // GET /api/v1/items/categories   (filter facets: items and in-stock items per category, query cache)
+    // Not read-only on purpose: cached results must come from the primary (see ReplicaAwareJpaDialect)
+    @GetMapping("/categories")
+    public List<CategoryFacetDTO> categories() {
+        return repo.findCategoryFacets();
+    }
+
+    // GET /api/v1/items/by-barcode/9780140449136   (till scanner, in-memory index)
+    @GetMapping("/by-barcode/{code}")
+    public ResponseEntity<ScannedItemDTO> byBarcode(@PathVariable String code) {
+        return barcodes.find(code)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    // POST /api/v1/items/by-barcode  ["9780140449136", "978-0-14-044913-6", ...]  -> price a whole stack
+    @PostMapping("/by-barcode")
+    public BarcodeBatchResponse byBarcodes(@RequestBody List<String> codes) {
+        return barcodes.findAll(codes);
     }
 
     @GetMapping("/{id}")
+    @Transactional(readOnly = true)
     public ResponseEntity<Item> getOne(@PathVariable Long id) {
         return repo.findById(id)
                 .map(ResponseEntity::ok)
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
+    // GET /api/v1/items/{id}/related?limit=6   ("frequently bought together", from memory)
+    // details=true also loads the Item rows (one extra PK query)
+    @GetMapping("/{id}/related")
+    @Transactional(readOnly = true)
+    public List<RelatedItemDTO> related(@PathVariable Long id,
+                                        @RequestParam(defaultValue = "6") int limit,
+                                        @RequestParam(defaultValue = "false") boolean details) {
+        return relatedItems.related(id, limit, details);
+    }
+
     // CREATE (ADMIN/STAFF)
     @PostMapping
     @PreAuthorize("hasRole('ADMIN') or hasRole('STAFF')")
@@ -49,6 +149,7 @@ public class ItemRestController {
         item.setStock(dto.getStock() == null ? 0 : dto.getStock());
         item.setCategory(dto.getCategory());               // <--- map category
         item.setImageUrl(dto.getImageUrl());
+        item.setBarcode(checkedBarcode(dto.getBarcode(), null));
         Item saved = repo.save(item);
         return ResponseEntity.ok(saved);
     }
@@ -64,6 +165,26 @@ public class ItemRestController {
             existing.setStock(dto.getStock() == null ? existing.getStock() : dto.getStock());
             existing.setCategory(dto.getCategory());       // <--- map category
             existing.setImageUrl(dto.getImageUrl());
+            existing.setBarcode(checkedBarcode(dto.getBarcode(), id));
+            return ResponseEntity.ok(repo.save(existing));
+        }).orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    // PARTIAL UPDATE (ADMIN/STAFF): JSON merge patch, e.g. {"price": 12.5}; only changed columns are written
+    @PatchMapping(path = "/{id}", consumes = {MergePatcher.MEDIA_TYPE, MediaType.APPLICATION_JSON_VALUE})
+    @PreAuthorize("hasRole('ADMIN') or hasRole('STAFF')")
+    public ResponseEntity<Item> patch(@PathVariable Long id, @RequestBody JsonNode patch) {
+        return repo.findById(id).map(existing -> {
+            ItemDTO dto = patcher.apply(ItemDTO.from(existing), patch);
+            existing.setName(dto.getName());
+            existing.setDescription(dto.getDescription());
+            existing.setPrice(dto.getPrice());
+            if (dto.getStock() != null) existing.setStock(dto.getStock());
+            existing.setCategory(dto.getCategory());
+            existing.setImageUrl(dto.getImageUrl());
+            if (!Objects.equals(dto.getBarcode(), existing.getBarcode())) {
+                existing.setBarcode(checkedBarcode(dto.getBarcode(), id));
+            }
             return ResponseEntity.ok(repo.save(existing));
         }).orElseGet(() -> ResponseEntity.notFound().build());
     }
@@ -0,0 +1,53 @@
+package com.pahanaedu.billingapp.controller;
+
+import com.fasterxml.jackson.core.JacksonException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Applies a JSON merge-patch (RFC 7386) to a flat DTO: members present in the
+ * patch overwrite the DTO's fields (null clears them), absent members are left
+ * alone. The patched DTO is then bean-validated like a @Valid request body.
+ */
+@Component
+class MergePatcher {
+
+    static final String MEDIA_TYPE = "application/merge-patch+json";
+
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    MergePatcher(ObjectMapper objectMapper, Validator validator) {
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+    }
+
+    <T> T apply(T target, JsonNode patch) {
+        if (patch == null || !patch.isObject()) {
+            throw new IllegalArgumentException("Merge patch must be a JSON object");
+        }
+        T patched;
+        try {
+            patched = objectMapper.readerForUpdating(target).readValue(patch);
+        } catch (JacksonException ex) {
+            throw new IllegalArgumentException("Invalid merge patch: " + ex.getOriginalMessage());
+        } catch (IOException ex) {
+            throw new IllegalArgumentException("Invalid merge patch: " + ex.getMessage());
+        }
+        Set<ConstraintViolation<T>> violations = validator.validate(patched);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException("Validation failed: " + violations.stream()
+                    .map(v -> v.getPropertyPath() + " " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", ")));
+        }
+        return patched;
+    }
+}
@@ -1,23 +1,33 @@
 package com.pahanaedu.billingapp.controller;//package com.pahanaedu.billingapp.controller;
 
+import com.pahanaedu.billingapp.dto.CacheStatsDTO;
 import com.pahanaedu.billingapp.dto.ChangePasswordRequest;
 import com.pahanaedu.billingapp.dto.CreateUserRequest;
 import com.pahanaedu.billingapp.dto.UpdateUserRequest;
 import com.pahanaedu.billingapp.dto.UserDto;
+import com.pahanaedu.billingapp.dto.UserFilter;
+import com.pahanaedu.billingapp.dto.UserImportResultDTO;
+import com.pahanaedu.billingapp.event.UserChangedEvent;
 import com.pahanaedu.billingapp.model.Role;
 import com.pahanaedu.billingapp.model.User;
 import com.pahanaedu.billingapp.repository.RoleRepository;
 import com.pahanaedu.billingapp.repository.UserRepository;
+import com.pahanaedu.billingapp.repository.UserSort;
+import com.pahanaedu.billingapp.security.UserCache;
+import com.pahanaedu.billingapp.service.UserImportService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.security.Principal;
 import java.util.Optional;
 import java.util.Set;
@@ -32,9 +42,14 @@ import java.util.Set;
 @PreAuthorize("hasRole('ADMIN')")
 public class UserAdminController {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final UserRepository userRepo;
     private final RoleRepository roleRepo;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher events;
+    private final UserCache userCache;
+    private final UserImportService userImportService;
 
     // --------- Helpers
 
@@ -61,19 +76,24 @@ public class UserAdminController {
 
     // --------- Endpoints
 
-    /** List users with optional search (by username/fullName/email). */
+    /** List users; q is a prefix of username/email/fullName, role filters through user_roles. */
     @GetMapping
     public Page<UserDto> list(@RequestParam(defaultValue = "0") int page,
                               @RequestParam(defaultValue = "10") int size,
-                              @RequestParam(defaultValue = "") String q) {
+                              @RequestParam(defaultValue = "") String q,
+                              @RequestParam(required = false) String role,
+                              @RequestParam(defaultValue = "id") String sort,
+                              @RequestParam(defaultValue = "asc") String dir) {
+
+        return userRepo.searchDirectory(new UserFilter(q, null, null, role),
+                UserSort.fromParam(sort), dir.equalsIgnoreCase("desc"),
+                Math.max(page, 0), Math.min(Math.max(size, 1), MAX_PAGE_SIZE));
+    }
 
-        Pageable pageable = PageRequest.of(page, size);
-        if (q == null || q.isBlank()) {
-            return userRepo.findAll(pageable).map(UserAdminController::toDto);
-        }
-        return userRepo
-                .findByUsernameContainingIgnoreCaseOrFullNameContainingIgnoreCaseOrEmailContainingIgnoreCase(q, q, q, pageable)
-                .map(UserAdminController::toDto);
+    /** Hit rate and size of the username -> principal/profile cache. */
+    @GetMapping("/cache-stats")
+    public CacheStatsDTO cacheStats() {
+        return userCache.stats();
     }
 
     /** Get one user. */
@@ -113,14 +133,19 @@ public class UserAdminController {
         if (opt.isEmpty()) return ResponseEntity.notFound().build();
 
         User u = opt.get();
+        String oldUsername = u.getUsername();
+        String oldRole = firstRoleName(u);
+        int oldRoleCount = u.getRoles() == null ? 0 : u.getRoles().size();
 
         if (req.fullName() != null) u.setFullName(req.fullName());
         if (req.Username() != null) u.setUsername(  req.Username());
         if (req.email() != null)    u.setEmail(req.email());
         if (req.phone() != null)    u.setPhone(req.phone());
 
+        boolean roleChanged = false;
         if (req.role() != null && !req.role().isBlank()) {
             Role role = resolveRoleOrThrow(req.role());
+            roleChanged = oldRoleCount != 1 || !role.getName().equals(oldRole);
             u.setRoles(Set.of(role));
         }
 
@@ -128,9 +153,31 @@ public class UserAdminController {
         // if (req.username()!=null && userRepo.existsByUsernameAndIdNot(req.username(), id)) ...
 
         User saved = userRepo.save(u);
+        boolean renamed = !oldUsername.equals(saved.getUsername());
+        if (renamed) events.publishEvent(new UserChangedEvent(oldUsername, UserChangedEvent.Change.RENAMED));
+        if (roleChanged) events.publishEvent(new UserChangedEvent(oldUsername, UserChangedEvent.Change.ROLES));
+        if (!renamed && !roleChanged) events.publishEvent(new UserChangedEvent(oldUsername, UserChangedEvent.Change.PROFILE));
         return ResponseEntity.ok(toDto(saved));
     }
 
+    /** Bulk create from a CSV upload (header: username,password,fullName,email,phone,role). */
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<UserImportResultDTO> importUsers(@RequestParam("file") MultipartFile file) throws IOException {
+        try (InputStream in = file.getInputStream()) {
+            return imported(userImportService.importCsv(in));
+        }
+    }
+
+    /** Same, with the CSV as the raw request body (curl --data-binary @users.csv). */
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<UserImportResultDTO> importUsersCsv(InputStream body) throws IOException {
+        return imported(userImportService.importCsv(body));
+    }
+
+    private static ResponseEntity<UserImportResultDTO> imported(UserImportResultDTO result) {
+        return result == null ? ResponseEntity.status(409).build() : ResponseEntity.ok(result);
+    }
+
     /** Change password. */
     @PatchMapping("/{id}/password")
     public ResponseEntity<Object> changePassword(@PathVariable Long id,
@@ -138,6 +185,7 @@ public class UserAdminController {
         return userRepo.findById(id).map(u -> {
             u.setPassword(passwordEncoder.encode(req.password()));
             userRepo.save(u);
+            events.publishEvent(new UserChangedEvent(u.getUsername(), UserChangedEvent.Change.PASSWORD));
             return ResponseEntity.noContent().build();
         }).orElseGet(() -> ResponseEntity.notFound().build());
     }
@@ -145,7 +193,8 @@ public class UserAdminController {
     /** Delete user (block self delete if you want). */
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> delete(@PathVariable Long id, Principal principal) {
-        if (!userRepo.existsById(id)) return ResponseEntity.notFound().build();
+        Optional<User> target = userRepo.findById(id);
+        if (target.isEmpty()) return ResponseEntity.notFound().build();
 
         // Optional: avoid deleting currently logged-in admin by mistake
         if (principal != null) {
@@ -157,6 +206,7 @@ public class UserAdminController {
         }
 
         userRepo.deleteById(id);
+        events.publishEvent(new UserChangedEvent(target.get().getUsername(), UserChangedEvent.Change.DELETED));
         return ResponseEntity.noContent().build();
     }
 }
@@ -4,10 +4,15 @@ import com.pahanaedu.billingapp.dto.ChangePasswordRequest;
 import com.pahanaedu.billingapp.dto.CreateUserRequest;
 import com.pahanaedu.billingapp.dto.UpdateUserRequest;
 import com.pahanaedu.billingapp.dto.UserDto;
+import com.pahanaedu.billingapp.dto.UserFilter;
+import com.pahanaedu.billingapp.event.UserChangedEvent;
 import com.pahanaedu.billingapp.model.Role;
 import com.pahanaedu.billingapp.model.User;
 import com.pahanaedu.billingapp.repository.RoleRepository;
 import com.pahanaedu.billingapp.repository.UserRepository;
+import com.pahanaedu.billingapp.repository.UserSort;
+import com.pahanaedu.billingapp.security.CachedUser;
+import com.pahanaedu.billingapp.security.UserCache;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -15,10 +20,8 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
@@ -40,9 +43,13 @@ import java.util.stream.Collectors;
 @SecurityRequirement(name = "basicAuth")
 public class UserManagementController {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final UserRepository userRepo;
     private final RoleRepository roleRepo;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher events;
+    private final UserCache userCache;
 
     // Helper methods
     private static String firstRoleName(User u) {
@@ -61,6 +68,17 @@ public class UserManagementController {
         );
     }
 
+    private static UserDto toDto(CachedUser u) {
+        return new UserDto(
+                u.id(),
+                u.fullName(),
+                u.username(),
+                u.email(),
+                u.phone(),
+                u.firstRole() != null ? u.firstRole() : "USER"
+        );
+    }
+
     private Role resolveRoleOrThrow(String name) {
         return roleRepo.findByName(name)
                 .orElseThrow(() -> new IllegalArgumentException("Role not found: " + name));
@@ -86,14 +104,9 @@ public class UserManagementController {
             return ResponseEntity.status(401).build();
         }
         
-        User user = userRepo.findByUsername(principal.getUsername())
-                .orElse(null);
-        
-        if (user == null) {
-            return ResponseEntity.notFound().build();
-        }
-        
-        return ResponseEntity.ok(toDto(user));
+        return userCache.get(principal.getUsername())
+                .map(u -> ResponseEntity.ok(toDto(u)))
+                .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     @PutMapping("/profile")
@@ -126,6 +139,7 @@ public class UserManagementController {
         }
         
         User saved = userRepo.save(user);
+        events.publishEvent(new UserChangedEvent(saved.getUsername(), UserChangedEvent.Change.PROFILE));
         return ResponseEntity.ok(toDto(saved));
     }
 
@@ -150,6 +164,7 @@ public class UserManagementController {
         
         user.setPassword(passwordEncoder.encode(request.password()));
         userRepo.save(user);
+        events.publishEvent(new UserChangedEvent(user.getUsername(), UserChangedEvent.Change.PASSWORD));
         
         return ResponseEntity.noContent().build();
     }
@@ -160,25 +175,19 @@ public class UserManagementController {
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "List all users", description = "Returns a paginated list of all users (Admin only)")
     @ApiResponse(responseCode = "200", description = "Users retrieved successfully")
+    @ApiResponse(responseCode = "400", description = "Unsupported sort field")
     @ApiResponse(responseCode = "403", description = "Access denied - Admin role required")
     public Page<UserDto> listUsers(
             @Parameter(description = "Page number (0-based)") @RequestParam(defaultValue = "0") int page,
-            @Parameter(description = "Page size") @RequestParam(defaultValue = "10") int size,
-            @Parameter(description = "Search query (username, fullName, or email)") @RequestParam(defaultValue = "") String q,
-            @Parameter(description = "Sort field") @RequestParam(defaultValue = "id") String sortBy,
+            @Parameter(description = "Page size (max 100)") @RequestParam(defaultValue = "10") int size,
+            @Parameter(description = "Search prefix (username, email or full name)") @RequestParam(defaultValue = "") String q,
+            @Parameter(description = "Role filter, e.g. ROLE_STAFF") @RequestParam(required = false) String role,
+            @Parameter(description = "Sort field: id, username, email or fullName") @RequestParam(defaultValue = "id") String sortBy,
             @Parameter(description = "Sort direction") @RequestParam(defaultValue = "asc") String sortDir) {
 
-        Sort sort = sortDir.equalsIgnoreCase("desc") ? 
-                Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
-        Pageable pageable = PageRequest.of(page, size, sort);
-        
-        if (q == null || q.isBlank()) {
-            return userRepo.findAll(pageable).map(UserManagementController::toDto);
-        }
-        
-        return userRepo
-                .findByUsernameContainingIgnoreCaseOrFullNameContainingIgnoreCaseOrEmailContainingIgnoreCase(q, q, q, pageable)
-                .map(UserManagementController::toDto);
+        return userRepo.searchDirectory(new UserFilter(q, null, null, role),
+                UserSort.fromParam(sortBy), sortDir.equalsIgnoreCase("desc"),
+                Math.max(page, 0), Math.min(Math.max(size, 1), MAX_PAGE_SIZE));
     }
 
     @GetMapping("/{id}")
@@ -232,6 +241,9 @@ public class UserManagementController {
         if (opt.isEmpty()) return ResponseEntity.notFound().build();
         
         User user = opt.get();
+        String oldUsername = user.getUsername();
+        String oldRole = firstRoleName(user);
+        int oldRoleCount = user.getRoles() == null ? 0 : user.getRoles().size();
         
         if (request.fullName() != null && !request.fullName().isBlank()) {
             user.setFullName(request.fullName());
@@ -246,12 +258,18 @@ public class UserManagementController {
             user.setPhone(request.phone());
         }
         
+        boolean roleChanged = false;
         if (request.role() != null && !request.role().isBlank()) {
             Role role = resolveRoleOrThrow(request.role());
+            roleChanged = oldRoleCount != 1 || !role.getName().equals(oldRole);
             user.setRoles(Set.of(role));
         }
         
         User saved = userRepo.save(user);
+        boolean renamed = !oldUsername.equals(saved.getUsername());
+        if (renamed) events.publishEvent(new UserChangedEvent(oldUsername, UserChangedEvent.Change.RENAMED));
+        if (roleChanged) events.publishEvent(new UserChangedEvent(oldUsername, UserChangedEvent.Change.ROLES));
+        if (!renamed && !roleChanged) events.publishEvent(new UserChangedEvent(oldUsername, UserChangedEvent.Change.PROFILE));
         return ResponseEntity.ok(toDto(saved));
     }
 
@@ -268,6 +286,7 @@ public class UserManagementController {
         return userRepo.findById(id).map(user -> {
             user.setPassword(passwordEncoder.encode(request.password()));
             userRepo.save(user);
+            events.publishEvent(new UserChangedEvent(user.getUsername(), UserChangedEvent.Change.PASSWORD));
             return ResponseEntity.noContent().<Void>build();
         }).orElseGet(() -> ResponseEntity.notFound().build());
     }
@@ -283,7 +302,8 @@ public class UserManagementController {
             @Parameter(description = "User ID") @PathVariable Long id,
             Principal principal) {
         
-        if (!userRepo.existsById(id)) {
+        Optional<User> target = userRepo.findById(id);
+        if (target.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
         
@@ -297,6 +317,7 @@ public class UserManagementController {
         }
         
         userRepo.deleteById(id);
+        events.publishEvent(new UserChangedEvent(target.get().getUsername(), UserChangedEvent.Change.DELETED));
         return ResponseEntity.noContent().build();
     }
 
@@ -314,24 +335,17 @@ public class UserManagementController {
 
     @GetMapping("/search")
     @PreAuthorize("hasRole('ADMIN')")
-    @Operation(summary = "Advanced user search", description = "Advanced search with multiple criteria (Admin only)")
+    @Operation(summary = "Advanced user search", description = "Username/email prefixes and role, all optional and combined (Admin only)")
     @ApiResponse(responseCode = "200", description = "Search results retrieved successfully")
     @ApiResponse(responseCode = "403", description = "Access denied - Admin role required")
     public Page<UserDto> searchUsers(
-            @Parameter(description = "Username filter") @RequestParam(required = false) String username,
-            @Parameter(description = "Email filter") @RequestParam(required = false) String email,
-            @Parameter(description = "Role filter") @RequestParam(required = false) String role,
+            @Parameter(description = "Username prefix") @RequestParam(required = false) String username,
+            @Parameter(description = "Email prefix") @RequestParam(required = false) String email,
+            @Parameter(description = "Role filter, e.g. ROLE_STAFF") @RequestParam(required = false) String role,
             @Parameter(description = "Page number") @RequestParam(defaultValue = "0") int page,
-            @Parameter(description = "Page size") @RequestParam(defaultValue = "10") int size) {
-        
-        Pageable pageable = PageRequest.of(page, size);
-        
-        // Simple implementation - can be enhanced with Specifications for complex queries
-        if (username != null && !username.isBlank()) {
-            return userRepo.findByUsernameContainingIgnoreCase(username, pageable)
-                    .map(UserManagementController::toDto);
-        }
+            @Parameter(description = "Page size (max 100)") @RequestParam(defaultValue = "10") int size) {
         
-        return userRepo.findAll(pageable).map(UserManagementController::toDto);
+        return userRepo.searchDirectory(new UserFilter(null, username, email, role), UserSort.ID, false,
+                Math.max(page, 0), Math.min(Math.max(size, 1), MAX_PAGE_SIZE));
     }
 }
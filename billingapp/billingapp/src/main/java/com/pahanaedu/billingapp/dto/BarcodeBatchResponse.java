@@ -0,0 +1,10 @@
+package com.pahanaedu.billingapp.dto;
+
+import java.util.List;
+
+/** Result of pricing a stack of scans; repeated codes appear once per scan. */
+public record BarcodeBatchResponse(
+        List<ScannedItemDTO> items,    // in scan order, unknown codes skipped
+        List<String> unknown,          // codes with no matching item
+        double total
+) {}
@@ -0,0 +1,8 @@
+package com.pahanaedu.billingapp.dto;
+
+/** One entry of the best-seller rail: the item card plus units sold in the requested window. */
+public record BestSellerDTO(
+        Long itemId,
+        long unitsSold,
+        ItemSummaryDTO item
+) {}
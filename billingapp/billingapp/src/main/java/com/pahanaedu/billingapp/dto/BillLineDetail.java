@@ -0,0 +1,6 @@
+package com.pahanaedu.billingapp.dto;
+
+import java.time.LocalDateTime;
+
+/** One bill line with its bill header (query projection); used to describe bills removed in bulk. */
+public record BillLineDetail(Long billId, LocalDateTime billDate, double totalAmount, Long itemId, Integer quantity) {}
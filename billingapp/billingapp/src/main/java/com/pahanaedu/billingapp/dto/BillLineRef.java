@@ -0,0 +1,4 @@
+package com.pahanaedu.billingapp.dto;
+
+/** (bill, item) pair of one bill line (query projection). */
+public record BillLineRef(Long billId, Long itemId) {}
@@ -0,0 +1,10 @@
+package com.pahanaedu.billingapp.dto;
+
+import java.time.LocalDateTime;
+
+/** Bill header for history listings; lines are fetched per bill via /api/bills/{id}. */
+public record BillSummaryDTO(
+        Long id,
+        LocalDateTime billDate,
+        double totalAmount
+) {}
@@ -0,0 +1,13 @@
+package com.pahanaedu.billingapp.dto;
+
+/** Counters for one in-process cache since startup. */
+public record CacheStatsDTO(
+        String name,
+        int size,
+        int maxSize,
+        long hits,
+        long misses,
+        double hitRate,         // hits / (hits + misses), 0 when unused
+        long invalidations,
+        long evictions          // dropped by the size bound or the TTL
+) {}
@@ -0,0 +1,8 @@
+package com.pahanaedu.billingapp.dto;
+
+/** One category in the catalog filter: how many items it has, and how many are in stock. */
+public record CategoryFacetDTO(
+        String category,
+        long items,
+        long inStock
+) {}
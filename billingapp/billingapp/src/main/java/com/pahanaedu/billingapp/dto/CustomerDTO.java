@@ -0,0 +1,51 @@
+package com.pahanaedu.billingapp.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.pahanaedu.billingapp.model.Customer;
+import com.pahanaedu.billingapp.util.ContactKeys;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+
+/** Editable customer fields: the POST/PUT body and the target of PATCH /api/v1/customers/{id}. */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class CustomerDTO {
+
+    @NotBlank
+    private String name;
+
+    @Email
+    private String email;
+
+    // the lookup key keeps the digits only (ContactKeys.phone), at most MAX_PHONE_KEY of them
+    @Size(max = 40)
+    @Pattern(regexp = "\\D*(\\d\\D*){0," + ContactKeys.MAX_PHONE_KEY + "}", message = "must have at most " + ContactKeys.MAX_PHONE_KEY + " digits")
+    private String phone;
+
+    public static CustomerDTO from(Customer customer) {
+        CustomerDTO dto = new CustomerDTO();
+        dto.name = customer.getName();
+        dto.email = customer.getEmail();
+        dto.phone = customer.getPhone();
+        return dto;
+    }
+
+    /** Copies the editable fields onto a new or loaded customer. */
+    public Customer applyTo(Customer customer) {
+        customer.setName(name);
+        customer.setEmail(email);
+        customer.setPhone(phone);
+        return customer;
+    }
+
+    // getters/setters
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public String getEmail() { return email; }
+    public void setEmail(String email) { this.email = email; }
+
+    public String getPhone() { return phone; }
+    public void setPhone(String phone) { this.phone = phone; }
+}
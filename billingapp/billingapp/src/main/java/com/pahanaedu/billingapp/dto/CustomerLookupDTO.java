@@ -0,0 +1,13 @@
+package com.pahanaedu.billingapp.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/** Till lookup result: who the customer is, without totals or history (query projection). */
+public record CustomerLookupDTO(
+        Long id,
+        String name,
+        String email,
+        String phone,
+        @JsonIgnore String phoneKey,
+        @JsonIgnore String emailKey
+) {}
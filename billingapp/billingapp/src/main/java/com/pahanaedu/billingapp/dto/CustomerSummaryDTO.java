@@ -0,0 +1,14 @@
+package com.pahanaedu.billingapp.dto;
+
+import java.time.LocalDateTime;
+
+/** Customer list row: contact details and lifetime totals, never the bill history. */
+public record CustomerSummaryDTO(
+        Long id,
+        String name,
+        String email,
+        String phone,
+        long billCount,
+        double totalSpent,
+        LocalDateTime lastBillDate
+) {}
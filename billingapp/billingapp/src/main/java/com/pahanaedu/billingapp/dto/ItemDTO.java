@@ -2,9 +2,11 @@ package com.pahanaedu.billingapp.dto;
 
 import com.fasterxml.jackson.annotation.JsonAlias;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.pahanaedu.billingapp.model.Item;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class ItemDTO {
@@ -28,6 +30,23 @@ public class ItemDTO {
     @JsonAlias({"image","imageUrl","imageURL","img","cover"})
     private String imageUrl;
 
+    @Size(max = 32)
+    @JsonAlias({"barcode","isbn","ean"})
+    private String barcode;
+
+    /** Current values of an item, as the starting point for a merge patch. */
+    public static ItemDTO from(Item item) {
+        ItemDTO dto = new ItemDTO();
+        dto.name = item.getName();
+        dto.description = item.getDescription();
+        dto.price = item.getPrice();
+        dto.stock = item.getStock();
+        dto.category = item.getCategory();
+        dto.imageUrl = item.getImageUrl();
+        dto.barcode = item.getBarcode();
+        return dto;
+    }
+
     // getters/setters
     public String getName() { return name; }
     public void setName(String name) { this.name = name; }
@@ -46,4 +65,7 @@ public class ItemDTO {
 
     public String getImageUrl() { return imageUrl; }
     public void setImageUrl(String imageUrl) { this.imageUrl = imageUrl; }
+
+    public String getBarcode() { return barcode; }
+    public void setBarcode(String barcode) { this.barcode = barcode; }
 }
@@ -0,0 +1,12 @@
+package com.pahanaedu.billingapp.dto;
+
+import java.util.List;
+
+/** Catalog filter; null/empty fields are not applied. */
+public record ItemFilter(
+        String q,
+        List<String> categories,   // matches any of these
+        Double minPrice,
+        Double maxPrice,
+        boolean inStockOnly
+) {}
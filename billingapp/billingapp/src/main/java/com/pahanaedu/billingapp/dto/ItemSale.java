@@ -0,0 +1,6 @@
+package com.pahanaedu.billingapp.dto;
+
+import java.time.LocalDateTime;
+
+/** One bill line reduced to what the sales counters need (query projection). */
+public record ItemSale(Long itemId, LocalDateTime billDate, Integer quantity) {}
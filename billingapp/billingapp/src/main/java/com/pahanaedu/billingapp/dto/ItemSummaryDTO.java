@@ -0,0 +1,10 @@
+package com.pahanaedu.billingapp.dto;
+
+/** Image-free item fields for ranking rails (best sellers): what a product card shows. */
+public record ItemSummaryDTO(
+        Long id,
+        String name,
+        double price,
+        int stock,
+        String category
+) {}
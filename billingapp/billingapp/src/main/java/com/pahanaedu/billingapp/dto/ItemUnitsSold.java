@@ -0,0 +1,4 @@
+package com.pahanaedu.billingapp.dto;
+
+/** Aggregated units sold for one item (query projection). */
+public record ItemUnitsSold(Long itemId, Long units) {}
@@ -0,0 +1,13 @@
+package com.pahanaedu.billingapp.dto;
+
+import java.util.Map;
+
+/**
+ * One meter for the admin metrics view. Timer values (mean, max, pNN) are
+ * milliseconds; everything else is in the meter's base unit.
+ */
+public record MeterSummaryDTO(
+        String name,
+        Map<String, String> tags,
+        Map<String, Double> values
+) {}
@@ -0,0 +1,15 @@
+package com.pahanaedu.billingapp.dto;
+
+import java.time.LocalDateTime;
+
+/** Progress of a customer purge; totalBills is the customer's bill count when the purge started. */
+public record PurgeStatusDTO(
+        long jobId,
+        Long customerId,
+        String state,          // RUNNING, DONE or FAILED
+        long totalBills,
+        long deletedBills,
+        LocalDateTime startedAt,
+        LocalDateTime finishedAt,
+        String error
+) {}
@@ -0,0 +1,7 @@
+package com.pahanaedu.billingapp.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+public record RefreshTokenRequest(
+        @NotBlank String refreshToken
+) {}
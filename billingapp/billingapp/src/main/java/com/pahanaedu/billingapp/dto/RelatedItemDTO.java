@@ -0,0 +1,10 @@
+package com.pahanaedu.billingapp.dto;
+
+import com.pahanaedu.billingapp.model.Item;
+
+/** "Frequently bought together" entry; item is only filled when details are requested. */
+public record RelatedItemDTO(
+        Long itemId,
+        int timesBoughtTogether,
+        Item item
+) {}
@@ -0,0 +1,18 @@
+package com.pahanaedu.billingapp.dto;
+
+/**
+ * Read-replica routing state. lagMillis is -1 when unknown (heartbeat off or
+ * replica down); counters are connections handed out since startup.
+ */
+public record ReplicaStatusDTO(
+        boolean up,
+        boolean inUse,
+        long lagMillis,
+        long maxStalenessMillis,
+        boolean heartbeat,
+        long checkedAtEpochMillis,
+        String lastError,
+        long routedPrimary,
+        long routedReplica,
+        long fallbacks
+) {}
@@ -0,0 +1,11 @@
+package com.pahanaedu.billingapp.dto;
+
+/** What the till needs for a scanned barcode: no description or image. */
+public record ScannedItemDTO(
+        Long id,
+        String barcode,
+        String name,
+        double price,
+        int stock,
+        String category
+) {}
@@ -0,0 +1,19 @@
+package com.pahanaedu.billingapp.dto;
+
+import java.util.List;
+
+/**
+ * One statement shape from the slow-query journal, aggregated over the
+ * executions still in the ring buffer. Times are milliseconds.
+ */
+public record SlowQueryDTO(
+        String sql,
+        long count,
+        double totalMillis,
+        double p99Millis,
+        double maxMillis,
+        double avgRows,
+        List<String> parameters,     // bind types of the latest execution, e.g. "Long", "String", "Null"
+        List<String> endpoints,      // distinct callers, most recent first
+        long lastSeenEpochMillis
+) {}
@@ -0,0 +1,20 @@
+package com.pahanaedu.billingapp.dto;
+
+import java.util.List;
+
+/**
+ * Time-to-ready breakdown. All "at" values are milliseconds since JVM start;
+ * bean times include the beans they depend on.
+ */
+public record StartupReportDTO(
+        long readyAtMillis,
+        List<Phase> phases,
+        List<Timing> slowestBeans,
+        List<Warmup> warmups
+) {
+    public record Phase(String name, long atMillis, long tookMillis) {}
+
+    public record Timing(String name, long millis) {}
+
+    public record Warmup(String name, int entries, long tookMillis, long doneAtMillis) {}
+}
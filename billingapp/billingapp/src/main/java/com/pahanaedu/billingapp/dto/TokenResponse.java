@@ -0,0 +1,11 @@
+package com.pahanaedu.billingapp.dto;
+
+/** Login / register / refresh result: the user plus a bearer token pair. */
+public record TokenResponse(
+        UserDto user,
+        String accessToken,
+        String refreshToken,
+        String tokenType,        // always "Bearer"
+        long expiresIn,          // access token lifetime, seconds
+        long refreshExpiresIn    // refresh token lifetime, seconds
+) {}
@@ -0,0 +1,12 @@
+package com.pahanaedu.billingapp.dto;
+
+/**
+ * User directory filter; null/blank fields are not applied. Text fields are
+ * prefixes: q matches the start of username, email or full name.
+ */
+public record UserFilter(
+        String q,
+        String username,
+        String email,
+        String role          // stored role name, e.g. "ROLE_STAFF"; "STAFF" is accepted too
+) {}
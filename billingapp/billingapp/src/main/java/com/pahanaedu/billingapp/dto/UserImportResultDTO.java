@@ -0,0 +1,13 @@
+package com.pahanaedu.billingapp.dto;
+
+import java.util.List;
+
+/** Outcome of POST /api/admin/users/import; errors name the CSV line and are capped. */
+public record UserImportResultDTO(
+        long rows,
+        long created,
+        long skipped,
+        long millis,
+        List<String> errors,
+        boolean errorsTruncated
+) {}
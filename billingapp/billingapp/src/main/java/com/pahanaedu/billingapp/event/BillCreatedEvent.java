@@ -0,0 +1,25 @@
+package com.pahanaedu.billingapp.event;
+
+import com.pahanaedu.billingapp.model.Bill;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published by BillService inside the createBill transaction.
+ * Listeners use @TransactionalEventListener so they only see committed bills.
+ * Lines are flattened into parallel arrays (itemIds[i] sold quantities[i]).
+ */
+public record BillCreatedEvent(
+        long billId,
+        Long customerId,
+        LocalDateTime billDate,
+        double totalAmount,
+        long[] itemIds,
+        int[] quantities
+) {
+    public static BillCreatedEvent of(Bill bill) {
+        BillLines lines = BillLines.of(bill);
+        return new BillCreatedEvent(bill.getId(), lines.customerId(), bill.getBillDate(),
+                bill.getTotalAmount(), lines.itemIds(), lines.quantities());
+    }
+}
@@ -0,0 +1,21 @@
+package com.pahanaedu.billingapp.event;
+
+import com.pahanaedu.billingapp.model.Bill;
+
+import java.time.LocalDateTime;
+
+/** Published by BillService inside the deleteBill transaction; carries the lines being removed. */
+public record BillDeletedEvent(
+        long billId,
+        Long customerId,
+        LocalDateTime billDate,
+        double totalAmount,
+        long[] itemIds,
+        int[] quantities
+) {
+    public static BillDeletedEvent of(Bill bill) {
+        BillLines lines = BillLines.of(bill);
+        return new BillDeletedEvent(bill.getId(), lines.customerId(), bill.getBillDate(),
+                bill.getTotalAmount(), lines.itemIds(), lines.quantities());
+    }
+}
@@ -0,0 +1,23 @@
+package com.pahanaedu.billingapp.event;
+
+import com.pahanaedu.billingapp.model.Bill;
+import com.pahanaedu.billingapp.model.BillItem;
+
+import java.util.List;
+
+/** Flattened view of a bill's lines shared by the bill events. */
+record BillLines(Long customerId, long[] itemIds, int[] quantities) {
+
+    static BillLines of(Bill bill) {
+        List<BillItem> items = bill.getItems() == null ? List.of() : bill.getItems();
+        long[] itemIds = new long[items.size()];
+        int[] quantities = new int[items.size()];
+        for (int i = 0; i < items.size(); i++) {
+            BillItem line = items.get(i);
+            itemIds[i] = line.getItem() != null ? line.getItem().getId() : 0L;
+            quantities[i] = line.getQuantity();
+        }
+        Long customerId = bill.getCustomer() != null ? bill.getCustomer().getId() : null;
+        return new BillLines(customerId, itemIds, quantities);
+    }
+}
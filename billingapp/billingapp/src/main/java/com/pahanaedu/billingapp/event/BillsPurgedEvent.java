@@ -0,0 +1,10 @@
+package com.pahanaedu.billingapp.event;
+
+import java.util.List;
+
+/**
+ * Published once per purge chunk, inside the chunk's transaction, for bills
+ * removed with bulk deletes (no BillDeletedEvent per bill, so the customer
+ * row is not updated bill by bill while it is being deleted anyway).
+ */
+public record BillsPurgedEvent(Long customerId, List<BillDeletedEvent> bills) {}
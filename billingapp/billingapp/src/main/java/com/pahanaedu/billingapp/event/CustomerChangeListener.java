@@ -0,0 +1,30 @@
+package com.pahanaedu.billingapp.event;
+
+import com.pahanaedu.billingapp.model.Customer;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/** JPA entity listener on Customer; same arrangement as ItemChangeListener. */
+@Component
+public class CustomerChangeListener {
+
+    private final ApplicationEventPublisher events;
+
+    public CustomerChangeListener(ApplicationEventPublisher events) {
+        this.events = events;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSaved(Customer customer) {
+        events.publishEvent(CustomerChangedEvent.saved(customer));
+    }
+
+    @PostRemove
+    public void onRemoved(Customer customer) {
+        events.publishEvent(CustomerChangedEvent.removed(customer.getId()));
+    }
+}
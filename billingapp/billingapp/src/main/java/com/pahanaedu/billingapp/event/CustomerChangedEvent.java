@@ -0,0 +1,26 @@
+package com.pahanaedu.billingapp.event;
+
+import com.pahanaedu.billingapp.model.Customer;
+
+/**
+ * Published for every insert/update/delete of a Customer row (see CustomerChangeListener),
+ * and by CustomerPurgeService for its bulk delete. Carries the contact fields and lookup keys.
+ */
+public record CustomerChangedEvent(
+        long customerId,
+        boolean deleted,
+        String name,
+        String email,
+        String phone,
+        String phoneKey,
+        String emailKey
+) {
+    public static CustomerChangedEvent saved(Customer customer) {
+        return new CustomerChangedEvent(customer.getId(), false, customer.getName(), customer.getEmail(),
+                customer.getPhone(), customer.getPhoneKey(), customer.getEmailKey());
+    }
+
+    public static CustomerChangedEvent removed(long customerId) {
+        return new CustomerChangedEvent(customerId, true, null, null, null, null, null);
+    }
+}
@@ -0,0 +1,34 @@
+package com.pahanaedu.billingapp.event;
+
+import com.pahanaedu.billingapp.model.Item;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA entity listener on Item. Every write path (REST, MVC forms, checkout stock
+ * deductions) goes through Hibernate, so this is the one place that sees them all.
+ * Hibernate obtains this bean from Spring, hence the constructor injection.
+ */
+@Component
+public class ItemChangeListener {
+
+    private final ApplicationEventPublisher events;
+
+    public ItemChangeListener(ApplicationEventPublisher events) {
+        this.events = events;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSaved(Item item) {
+        events.publishEvent(ItemChangedEvent.saved(item));
+    }
+
+    @PostRemove
+    public void onRemoved(Item item) {
+        events.publishEvent(ItemChangedEvent.removed(item));
+    }
+}
@@ -0,0 +1,27 @@
+package com.pahanaedu.billingapp.event;
+
+import com.pahanaedu.billingapp.model.Item;
+
+/**
+ * Published for every insert/update/delete of an Item row (see ItemChangeListener).
+ * Carries the small, image-free part of the row that in-memory indexes need.
+ */
+public record ItemChangedEvent(
+        long itemId,
+        boolean deleted,
+        String barcode,
+        String name,
+        double price,
+        int stock,
+        String category
+) {
+    public static ItemChangedEvent saved(Item item) {
+        return new ItemChangedEvent(item.getId(), false, item.getBarcode(), item.getName(),
+                item.getPrice(), item.getStock(), item.getCategory());
+    }
+
+    public static ItemChangedEvent removed(Item item) {
+        return new ItemChangedEvent(item.getId(), true, item.getBarcode(), item.getName(),
+                item.getPrice(), item.getStock(), item.getCategory());
+    }
+}
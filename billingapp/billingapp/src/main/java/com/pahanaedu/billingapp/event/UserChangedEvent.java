@@ -0,0 +1,21 @@
+package com.pahanaedu.billingapp.event;
+
+/**
+ * Published by the user write paths (admin and self-service) after a user row changes.
+ * {@code username} is the name the user had before the change.
+ */
+public record UserChangedEvent(String username, Change change) {
+
+    public enum Change {
+        PROFILE,    // name, email, phone
+        RENAMED,    // username changed; the old name no longer exists
+        ROLES,
+        PASSWORD,
+        DELETED;
+
+        /** Changes after which tokens issued earlier must stop working. */
+        public boolean revokesTokens() {
+            return this != PROFILE;
+        }
+    }
+}
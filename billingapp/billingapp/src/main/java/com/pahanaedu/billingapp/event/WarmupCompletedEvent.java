@@ -0,0 +1,7 @@
+package com.pahanaedu.billingapp.event;
+
+/**
+ * Published when a startup warm-up (an in-memory index load) finishes off the
+ * main thread, so the startup timeline can report when the app is fully warm.
+ */
+public record WarmupCompletedEvent(String name, int entries, long millis) {}
@@ -0,0 +1,290 @@
+package com.pahanaedu.billingapp.jdbc;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Wraps the pool so every statement reports to the request's {@link QueryStats}
+ * and, when it ran over the threshold, to the {@link SlowQueryJournal}.
+ *
+ * Connections, statements and result sets are JDK proxies; the only extra work
+ * per call is a ThreadLocal read (plus, with the journal on, remembering the
+ * bind type of each parameter), and on execute a nanoTime pair. unwrap() and
+ * isWrapperFor() reach the pool through DelegatingDataSource, so Hikari
+ * metrics and health checks still find it. Like Spring's own connection
+ * proxies, each proxy answers equals/hashCode by identity, and
+ * Statement.getConnection() / ResultSet.getStatement() hand back the proxies,
+ * so statements created through them are counted too.
+ *
+ * A slow SELECT is journalled once its row count is known: when the result
+ * set is closed, or when whatever closes it implicitly is (its statement
+ * closed or executed again, or the connection closed).
+ */
+public class CountingDataSource extends DelegatingDataSource {
+
+    private final SlowQueryJournal journal;     // null = no slow-query journal
+
+    public CountingDataSource(DataSource target, SlowQueryJournal journal) {
+        super(target);
+        this.journal = journal;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    private Connection wrap(Connection target) {
+        return (Connection) Proxy.newProxyInstance(CountingDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new ConnectionHandler(target, journal));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException ex) {
+            throw ex.getTargetException();
+        }
+    }
+
+    /** equals/hashCode on the proxy itself (forwarded, a proxy would not equal itself); null for other methods. */
+    private static Object identity(Object proxy, Method method, Object[] args) {
+        return switch (method.getName()) {
+            case "equals" -> args != null && args.length == 1 ? proxy == args[0] : null;
+            case "hashCode" -> args == null || args.length == 0 ? System.identityHashCode(proxy) : null;
+            default -> null;
+        };
+    }
+
+    private static String endpoint(QueryStats stats) {
+        return stats != null ? stats.endpoint() : "(no request) " + Thread.currentThread().getName();
+    }
+
+    private static final class ConnectionHandler implements InvocationHandler {
+
+        private final Connection target;
+        private final SlowQueryJournal journal;
+        private final List<Slow> pending = new ArrayList<>();   // slow SELECTs whose result set is still open
+
+        ConnectionHandler(Connection target, SlowQueryJournal journal) {
+            this.target = target;
+            this.journal = journal;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object same = identity(proxy, method, args);
+            if (same != null) return same;
+            String name = method.getName();
+            if (name.equals("close")) finishPending();
+            Object result = CountingDataSource.invoke(target, method, args);
+            if (name.equals("prepareStatement") || name.equals("prepareCall") || name.equals("createStatement")) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : null;
+                // return type is Statement, PreparedStatement or CallableStatement, matching the target
+                return Proxy.newProxyInstance(CountingDataSource.class.getClassLoader(),
+                        new Class<?>[]{method.getReturnType()},
+                        new StatementHandler(result, (Connection) proxy, this, sql, journal));
+            }
+            return result;
+        }
+
+        void pending(Slow slow) {
+            pending.removeIf(Slow::recorded);
+            pending.add(slow);
+        }
+
+        private void finishPending() {
+            for (Slow slow : pending) slow.record();
+            pending.clear();
+        }
+    }
+
+    private static final class StatementHandler implements InvocationHandler {
+
+        private final Object target;
+        private final Connection connection;    // the proxy that created this statement
+        private final ConnectionHandler owner;
+        private final String preparedSql;
+        private final SlowQueryJournal journal;
+        private String[] binds;             // setter name per parameter index, only kept for the journal
+        private Slow pending;               // slow SELECT whose result set is still open
+
+        StatementHandler(Object target, Connection connection, ConnectionHandler owner, String preparedSql,
+                         SlowQueryJournal journal) {
+            this.target = target;
+            this.connection = connection;
+            this.owner = owner;
+            this.preparedSql = preparedSql;
+            this.journal = journal;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object same = identity(proxy, method, args);
+            if (same != null) return same;
+            String name = method.getName();
+            // both close the open result set without going through its proxy
+            if (name.startsWith("execute") || name.equals("close")) finishPending();
+            if (name.startsWith("execute")) return execute(proxy, method, args);
+
+            if (journal != null && args != null && args.length >= 2 && args[0] instanceof Integer index
+                    && name.startsWith("set")) {
+                bind(index, name);
+            } else if (name.equals("clearParameters")) {
+                binds = null;
+            } else if (name.equals("getConnection")) {
+                return connection;
+            } else if (name.equals("getResultSet")) {
+                return rows(proxy, CountingDataSource.invoke(target, method, args), QueryStats.current(), null);
+            } else if (name.equals("getGeneratedKeys")) {
+                return rows(proxy, CountingDataSource.invoke(target, method, args), null, null);
+            }
+            return CountingDataSource.invoke(target, method, args);
+        }
+
+        private Object execute(Object proxy, Method method, Object[] args) throws Throwable {
+            QueryStats stats = QueryStats.current();
+            if (stats == null && journal == null) {
+                return rows(proxy, CountingDataSource.invoke(target, method, args), null, null);
+            }
+
+            String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : preparedSql;
+            long started = System.nanoTime();
+            Object result;
+            long elapsed;
+            try {
+                result = CountingDataSource.invoke(target, method, args);
+            } finally {
+                elapsed = System.nanoTime() - started;
+                if (stats != null) stats.recordStatement(sql, elapsed);
+            }
+
+            if (journal == null || !journal.isSlow(elapsed)) return rows(proxy, result, stats, null);
+            Slow slow = new Slow(journal, sql, parameters(), elapsed, endpoint(stats));
+            if (result instanceof ResultSet) {
+                // recorded with its rows when the result set, this statement or the connection is closed
+                pending = slow;
+                owner.pending(slow);
+                return rows(proxy, result, stats, slow);
+            }
+            slow.rows = updateCount(result);
+            slow.record();
+            return result;
+        }
+
+        private void finishPending() {
+            if (pending == null) return;
+            pending.record();
+            pending = null;
+        }
+
+        private void bind(int index, String setter) {
+            if (binds == null) binds = new String[Math.max(8, index + 1)];
+            else if (index >= binds.length) binds = Arrays.copyOf(binds, Math.max(index + 1, binds.length * 2));
+            binds[index] = setter;
+        }
+
+        private List<String> parameters() {
+            if (binds == null) return List.of();
+            List<String> out = new ArrayList<>();
+            for (int i = 1; i < binds.length; i++) {
+                if (binds[i] != null) out.add(binds[i].substring(3));    // "setLong" -> "Long"
+            }
+            return out;
+        }
+
+        private static long updateCount(Object result) {
+            if (result instanceof Number n) return n.longValue();
+            long sum = 0;
+            if (result instanceof int[] counts) for (int c : counts) sum += Math.max(c, 0);
+            else if (result instanceof long[] counts) for (long c : counts) sum += Math.max(c, 0);
+            return sum;
+        }
+
+        // always a proxy, even with nothing to count, so getStatement() leads back to this statement
+        private static Object rows(Object statement, Object result, QueryStats stats, Slow slow) {
+            if (!(result instanceof ResultSet rs)) return result;
+            return Proxy.newProxyInstance(CountingDataSource.class.getClassLoader(),
+                    new Class<?>[]{ResultSet.class}, new ResultSetHandler(rs, statement, stats, slow));
+        }
+    }
+
+    /** A slow execution waiting for its row count; journalled once, by whichever close comes first. */
+    private static final class Slow {
+
+        private final SlowQueryJournal journal;
+        private final String sql;
+        private final List<String> parameters;
+        private final long nanos;
+        private final String endpoint;
+        long rows;
+        private boolean recorded;
+
+        Slow(SlowQueryJournal journal, String sql, List<String> parameters, long nanos, String endpoint) {
+            this.journal = journal;
+            this.sql = sql;
+            this.parameters = parameters;
+            this.nanos = nanos;
+            this.endpoint = endpoint;
+        }
+
+        boolean recorded() {
+            return recorded;
+        }
+
+        void record() {
+            if (recorded) return;
+            recorded = true;
+            journal.record(sql, parameters, nanos, rows, endpoint);
+        }
+    }
+
+    private static final class ResultSetHandler implements InvocationHandler {
+
+        private final ResultSet target;
+        private final Object statement;     // the proxy that produced this result set
+        private final QueryStats stats;
+        private final Slow slow;
+
+        ResultSetHandler(ResultSet target, Object statement, QueryStats stats, Slow slow) {
+            this.target = target;
+            this.statement = statement;
+            this.stats = stats;
+            this.slow = slow;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object same = identity(proxy, method, args);
+            if (same != null) return same;
+            if (method.getName().equals("getStatement")) return statement;
+            Object result = CountingDataSource.invoke(target, method, args);
+            String name = method.getName();
+            if (name.equals("next")) {
+                if (Boolean.TRUE.equals(result)) {
+                    if (slow != null) slow.rows++;
+                    if (stats != null) stats.recordRow();
+                }
+            } else if (name.equals("close") && slow != null) {
+                slow.record();
+            }
+            return result;
+        }
+    }
+}
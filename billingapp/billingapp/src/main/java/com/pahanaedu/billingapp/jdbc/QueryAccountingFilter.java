@@ -0,0 +1,111 @@
+package com.pahanaedu.billingapp.jdbc;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Binds a {@link QueryStats} to each request and reports it:
+ * - "X-Query-Count" and "Server-Timing: db;dur=..;desc=.., app;dur=.." headers,
+ *   written just before the response commits, so statements run while the
+ *   body is serialised (lazy loading) are included;
+ * - a warning with the statement shape when one statement repeats more than
+ *   the threshold (the N+1 signature);
+ * - a per-endpoint statement budget, keyed by the mapped pattern
+ *   (e.g. /api/bills/{id}), logged or, when enforced, thrown.
+ */
+@Slf4j
+public class QueryAccountingFilter extends OncePerRequestFilter {
+
+    private static final int MAX_SQL_IN_LOG = 300;
+
+    private final int repeatThreshold;
+    private final int defaultBudget;
+    private final Map<String, Integer> budgets;
+    private final boolean enforceBudgets;
+
+    public QueryAccountingFilter(int repeatThreshold, int defaultBudget, Map<String, Integer> budgets,
+                                 boolean enforceBudgets) {
+        this.repeatThreshold = repeatThreshold;
+        this.defaultBudget = defaultBudget;
+        this.budgets = Map.copyOf(budgets);
+        this.enforceBudgets = enforceBudgets;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        QueryStats stats = QueryStats.begin(request);
+        TimingResponse timed = new TimingResponse(response, stats, System.nanoTime());
+        try {
+            chain.doFilter(request, timed);
+        } finally {
+            QueryStats.end();
+            timed.writeHeaders();   // nothing flushed yet (small or empty body)
+        }
+        check(request, stats);
+    }
+
+    private void check(HttpServletRequest request, QueryStats stats) {
+        if (stats.statements() == 0) return;
+        Object mapped = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String endpoint = mapped != null ? mapped.toString() : request.getRequestURI();
+
+        Map.Entry<String, Integer> top = stats.mostRepeated();
+        if (top != null && top.getValue() > repeatThreshold) {
+            log.warn("Possible N+1 on {} {}: {} statements, {}x {}", request.getMethod(), endpoint,
+                    stats.statements(), top.getValue(), shorten(top.getKey()));
+        }
+
+        int budget = budgets.getOrDefault(endpoint, defaultBudget);
+        if (budget > 0 && stats.statements() > budget) {
+            String message = String.format(Locale.ROOT, "%s %s ran %d statements, budget is %d",
+                    request.getMethod(), endpoint, stats.statements(), budget);
+            if (enforceBudgets) throw new QueryBudgetExceededException(message);
+            log.warn(message);
+        }
+    }
+
+    private static String shorten(String sql) {
+        String flat = sql.replaceAll("\\s+", " ").trim();
+        return flat.length() <= MAX_SQL_IN_LOG ? flat : flat.substring(0, MAX_SQL_IN_LOG) + "...";
+    }
+
+    /** Adds the headers once, right before the first byte goes out (or at the end if none did). */
+    private static final class TimingResponse extends OnCommittedResponseWrapper {
+
+        private final QueryStats stats;
+        private final long started;
+        private boolean written;
+
+        TimingResponse(HttpServletResponse response, QueryStats stats, long started) {
+            super(response);
+            this.stats = stats;
+            this.started = started;
+        }
+
+        @Override
+        protected void onResponseCommitted() {
+            writeHeaders();
+        }
+
+        void writeHeaders() {
+            if (written || isCommitted()) return;
+            written = true;
+            double appMillis = (System.nanoTime() - started) / 1_000_000.0;
+            setHeader("X-Query-Count", Integer.toString(stats.statements()));
+            setHeader("Server-Timing", String.format(Locale.ROOT,
+                    "db;dur=%.1f;desc=\"%d statements, %d rows\", app;dur=%.1f",
+                    stats.millis(), stats.statements(), stats.rows(), appMillis));
+        }
+    }
+}
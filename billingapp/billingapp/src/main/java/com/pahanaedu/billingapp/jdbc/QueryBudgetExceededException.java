@@ -0,0 +1,13 @@
+package com.pahanaedu.billingapp.jdbc;
+
+/**
+ * A request ran more statements than its endpoint's budget allows. Only thrown
+ * when app.sql-accounting.enforce-budgets is on, so integration tests fail on
+ * an N+1 regression instead of it reaching production.
+ */
+public class QueryBudgetExceededException extends IllegalStateException {
+
+    public QueryBudgetExceededException(String message) {
+        super(message);
+    }
+}
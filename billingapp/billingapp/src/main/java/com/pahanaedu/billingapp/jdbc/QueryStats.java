@@ -0,0 +1,76 @@
+package com.pahanaedu.billingapp.jdbc;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * JDBC work done on the current thread during one HTTP request: statements,
+ * rows read and time spent executing, plus a count per statement shape
+ * (the SQL text; Hibernate already binds every value as a "?" parameter).
+ *
+ * Bound by QueryAccountingFilter and fed by CountingDataSource. Threads
+ * with nothing bound (background jobs) are not accounted.
+ */
+public final class QueryStats {
+
+    private static final ThreadLocal<QueryStats> CURRENT = new ThreadLocal<>();
+    private static final int MAX_SHAPES = 256;
+
+    private int statements;
+    private long rows;
+    private long nanos;
+    private final Map<String, Integer> shapes = new HashMap<>();
+    private final HttpServletRequest request;
+
+    private QueryStats(HttpServletRequest request) {
+        this.request = request;
+    }
+
+    static QueryStats begin(HttpServletRequest request) {
+        QueryStats stats = new QueryStats(request);
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    static QueryStats current() {
+        return CURRENT.get();
+    }
+
+    void recordStatement(String sql, long elapsedNanos) {
+        statements++;
+        nanos += elapsedNanos;
+        if (sql != null && (shapes.size() < MAX_SHAPES || shapes.containsKey(sql))) shapes.merge(sql, 1, Integer::sum);
+    }
+
+    void recordRow() {
+        rows++;
+    }
+
+    /** "GET /api/bills/{id}" once the handler is mapped, the raw URI before that (security filters). */
+    public String endpoint() {
+        Object mapped = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (mapped != null ? mapped : request.getRequestURI());
+    }
+
+    public int statements() { return statements; }
+
+    public long rows() { return rows; }
+
+    public double millis() { return nanos / 1_000_000.0; }
+
+    /** The statement shape executed most often, or null when nothing ran. */
+    public Map.Entry<String, Integer> mostRepeated() {
+        Map.Entry<String, Integer> top = null;
+        for (Map.Entry<String, Integer> e : shapes.entrySet()) {
+            if (top == null || e.getValue() > top.getValue()) top = e;
+        }
+        return top;
+    }
+}
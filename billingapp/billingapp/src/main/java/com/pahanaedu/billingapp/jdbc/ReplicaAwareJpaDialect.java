@@ -0,0 +1,57 @@
+package com.pahanaedu.billingapp.jdbc;
+
+import jakarta.persistence.CacheStoreMode;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionException;
+
+import java.sql.SQLException;
+
+/**
+ * Read-only transactions may be served by the read replica, which can lag the
+ * primary. Their sessions still read the second-level cache but do not add to
+ * it (store mode BYPASS), so a lagging row is never cached and then handed to a
+ * reader on the primary. Decided when the transaction begins, before any query
+ * has fixed its cache mode. Installed by ReadReplicaConfig.
+ *
+ * Hibernate still stores query-cache results in GET mode, so cacheable queries
+ * (role by name, category facets) are kept out of read-only transactions.
+ */
+public class ReplicaAwareJpaDialect extends HibernateJpaDialect {
+
+    private static final String STORE_MODE = "jakarta.persistence.cache.storeMode";
+
+    private record ReadOnlyTransaction(Object hibernateData, Session session,
+                                       Object previousStoreMode, CacheMode previousCacheMode) {}
+
+    @Override
+    public Object beginTransaction(EntityManager entityManager, TransactionDefinition definition)
+            throws PersistenceException, SQLException, TransactionException {
+        Object data = super.beginTransaction(entityManager, definition);
+        if (!definition.isReadOnly()) return data;
+        // both: find() re-derives its cache mode from the property, queries use the session's
+        Session session = entityManager.unwrap(Session.class);
+        ReadOnlyTransaction tx = new ReadOnlyTransaction(data, session,
+                session.getProperties().getOrDefault(STORE_MODE, CacheStoreMode.USE), session.getCacheMode());
+        session.setProperty(STORE_MODE, CacheStoreMode.BYPASS);
+        session.setCacheMode(CacheMode.GET);
+        return tx;
+    }
+
+    @Override
+    public void cleanupTransaction(Object transactionData) {
+        if (transactionData instanceof ReadOnlyTransaction tx) {
+            if (tx.session().isOpen()) {
+                tx.session().setProperty(STORE_MODE, tx.previousStoreMode());
+                tx.session().setCacheMode(tx.previousCacheMode());
+            }
+            super.cleanupTransaction(tx.hibernateData());
+        } else {
+            super.cleanupTransaction(transactionData);
+        }
+    }
+}
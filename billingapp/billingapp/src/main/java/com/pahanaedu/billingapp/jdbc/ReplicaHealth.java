@@ -0,0 +1,169 @@
+package com.pahanaedu.billingapp.jdbc;
+
+import com.pahanaedu.billingapp.dto.ReplicaStatusDTO;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replica up/down and replication lag, refreshed every check interval on one
+ * daemon thread. Each check stamps replica_heartbeat on the primary and reads
+ * the stamp back from the replica: lag = now - replicated stamp, all on the
+ * app's clock. With the heartbeat off (a replica the app cannot stamp through,
+ * or two unrelated local databases) only reachability is checked.
+ *
+ * {@link #usable()} is a volatile read, so routing never waits on a check.
+ */
+@Slf4j
+public class ReplicaHealth {
+
+    private static final int QUERY_TIMEOUT_SECONDS = 2;
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final long maxStalenessMillis;
+    private final boolean heartbeat;
+    private final long intervalMillis;
+    private ScheduledExecutorService scheduler;
+    private ReplicaRoutingDataSource routing;
+
+    private volatile boolean up;
+    private volatile boolean usable;
+    private volatile long lagMillis = -1;
+    private volatile long checkedAt;
+    private volatile String lastError;
+
+    public ReplicaHealth(DataSource primary, DataSource replica, long maxStalenessMillis, boolean heartbeat,
+                         long intervalMillis) {
+        this.primary = primary;
+        this.replica = replica;
+        this.maxStalenessMillis = maxStalenessMillis;
+        this.heartbeat = heartbeat;
+        this.intervalMillis = intervalMillis;
+    }
+
+    public DataSource primary() { return primary; }
+
+    public DataSource replica() { return replica; }
+
+    /** The routing data source whose counters and read-your-writes entries this reports on and expires. */
+    public void attach(ReplicaRoutingDataSource routing) {
+        this.routing = routing;
+    }
+
+    /** Runs a first check now, then every check interval. Until then the replica is not used. */
+    public void start() {
+        check();
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "replica-health");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::check, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /** Stops the checks and closes both pools. */
+    public void close() {
+        if (scheduler != null) scheduler.shutdownNow();
+        closeQuietly(replica);
+        closeQuietly(primary);
+    }
+
+    public ReplicaStatusDTO status() {
+        ReplicaRoutingDataSource r = routing;
+        return new ReplicaStatusDTO(up, usable, lagMillis, maxStalenessMillis, heartbeat, checkedAt, lastError,
+                r == null ? 0 : r.routedPrimary(), r == null ? 0 : r.routedReplica(), r == null ? 0 : r.fallbacks());
+    }
+
+    public boolean usable() { return usable; }
+
+    public boolean up() { return up; }
+
+    /** Last measured lag in ms; -1 when unknown (heartbeat off or replica down). */
+    public long lagMillis() { return lagMillis; }
+
+    public long checkedAt() { return checkedAt; }
+
+    public String lastError() { return lastError; }
+
+    public boolean heartbeat() { return heartbeat; }
+
+    public long maxStalenessMillis() { return maxStalenessMillis; }
+
+    /** A failed replica connection: stop routing to it until the next check says otherwise. */
+    void markDown(SQLException ex) {
+        if (up) log.warn("Read replica unavailable, reads go to the primary: {}", ex.getMessage());
+        up = false;
+        usable = false;
+        lastError = ex.getMessage();
+    }
+
+    // --------- internals
+
+    void check() {
+        long now = System.currentTimeMillis();
+        try {
+            if (heartbeat) stamp(now);
+            long stamp = readReplica();
+            boolean wasUp = up;
+            lagMillis = heartbeat ? Math.max(0, now - stamp) : -1;
+            up = true;
+            lastError = null;
+            boolean fresh = !heartbeat || lagMillis <= maxStalenessMillis;
+            if (fresh && !usable) {
+                log.info("Read replica in use{}", heartbeat ? " (lag " + lagMillis + " ms)" : "");
+            } else if (!fresh && (usable || !wasUp)) {
+                log.warn("Read replica {} ms behind (tolerance {} ms), reads go to the primary",
+                        lagMillis, maxStalenessMillis);
+            }
+            usable = fresh;
+        } catch (SQLException | RuntimeException ex) {
+            if (up || checkedAt == 0) log.warn("Read replica check failed, reads go to the primary: {}", ex.getMessage());
+            up = false;
+            usable = false;
+            lagMillis = -1;
+            lastError = ex.getMessage();
+        } finally {
+            checkedAt = now;
+            if (routing != null) routing.expireWrites(now);
+        }
+    }
+
+    private void stamp(long now) throws SQLException {
+        try (Connection con = primary.getConnection();
+             PreparedStatement ps = con.prepareStatement("UPDATE replica_heartbeat SET beat_at = ? WHERE id = 1")) {
+            ps.setQueryTimeout(QUERY_TIMEOUT_SECONDS);
+            ps.setLong(1, now);
+            ps.executeUpdate();
+            if (!con.getAutoCommit()) con.commit();
+        }
+    }
+
+    private static void closeQuietly(DataSource ds) {
+        if (ds instanceof AutoCloseable c) {
+            try {
+                c.close();
+            } catch (Exception ex) {
+                log.debug("Closing pool failed", ex);
+            }
+        }
+    }
+
+    private long readReplica() throws SQLException {
+        try (Connection con = replica.getConnection();
+             PreparedStatement ps = con.prepareStatement(heartbeat
+                     ? "SELECT beat_at FROM replica_heartbeat WHERE id = 1" : "SELECT 1")) {
+            ps.setQueryTimeout(QUERY_TIMEOUT_SECONDS);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0;
+            }
+        }
+    }
+}
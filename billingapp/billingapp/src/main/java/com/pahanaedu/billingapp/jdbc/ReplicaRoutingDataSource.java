@@ -0,0 +1,116 @@
+package com.pahanaedu.billingapp.jdbc;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Sends connections for {@code @Transactional(readOnly = true)} work to the
+ * read replica and everything else (writes, non-transactional access, Flyway)
+ * to the primary.
+ *
+ * The replica is used only while {@link ReplicaHealth} reports it up and no
+ * staler than the tolerance, and never for a user who committed a write within
+ * that tolerance (read-your-writes). If it refuses a connection, that call
+ * falls back to the primary and the replica is marked down until the next check.
+ *
+ * The read-only flag is set after the transaction manager asks for a
+ * connection, so this must sit behind a LazyConnectionDataSourceProxy, and
+ * Hibernate must release connections after each transaction (see
+ * ReadReplicaConfig) so a session never carries a replica connection into a write.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route { PRIMARY, REPLICA }
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final ReplicaHealth health;
+    private final Supplier<String> currentUser;     // null when anonymous or not in a request
+    private final long readYourWritesMillis;
+
+    private final Map<String, Long> lastWriteByUser = new ConcurrentHashMap<>();
+    private final LongAdder routedPrimary = new LongAdder();
+    private final LongAdder routedReplica = new LongAdder();
+    private final LongAdder fallbacks = new LongAdder();
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicaHealth health,
+                                    Supplier<String> currentUser, long readYourWritesMillis) {
+        this.primary = primary;
+        this.replica = replica;
+        this.health = health;
+        this.currentUser = currentUser;
+        this.readYourWritesMillis = readYourWritesMillis;
+        setTargetDataSources(Map.<Object, Object>of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+        health.attach(this);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return route();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (route() == Route.REPLICA) {
+            try {
+                Connection con = replica.getConnection();
+                routedReplica.increment();
+                return con;
+            } catch (SQLException ex) {
+                fallbacks.increment();
+                health.markDown(ex);
+            }
+        }
+        routedPrimary.increment();
+        return primary.getConnection();
+    }
+
+    public long routedPrimary() { return routedPrimary.sum(); }
+
+    public long routedReplica() { return routedReplica.sum(); }
+
+    public long fallbacks() { return fallbacks.sum(); }
+
+    /** Drops read-your-writes entries older than the window; called after each health check. */
+    void expireWrites(long now) {
+        lastWriteByUser.values().removeIf(at -> now - at > readYourWritesMillis);
+    }
+
+    // --------- internals
+
+    private Route route() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) return Route.PRIMARY;
+        String user = currentUser.get();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (user != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        lastWriteByUser.put(user, System.currentTimeMillis());
+                    }
+                });
+            }
+            return Route.PRIMARY;
+        }
+        if (!health.usable()) return Route.PRIMARY;
+        if (user != null) {
+            Long wroteAt = lastWriteByUser.get(user);
+            if (wroteAt != null && System.currentTimeMillis() - wroteAt <= readYourWritesMillis) return Route.PRIMARY;
+        }
+        return Route.REPLICA;
+    }
+}
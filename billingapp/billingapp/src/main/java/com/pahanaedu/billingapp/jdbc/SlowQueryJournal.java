@@ -0,0 +1,105 @@
+package com.pahanaedu.billingapp.jdbc;
+
+import com.pahanaedu.billingapp.dto.SlowQueryDTO;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.regex.Pattern;
+
+/**
+ * The last N statements that took longer than the threshold, kept in a
+ * lock-free ring: a writer claims a slot with one getAndIncrement and
+ * overwrites whatever was there. Readers copy the ring and aggregate by
+ * normalised SQL, so recording never waits for a report.
+ */
+public class SlowQueryJournal {
+
+    public enum Sort { TOTAL, P99 }
+
+    public record Entry(String sql, List<String> parameters, long nanos, long rows,
+                        String endpoint, long epochMillis) {}
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern PARAMETER_LIST = Pattern.compile("\\?(?:\\s*,\\s*\\?)+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final int MAX_ENDPOINTS = 5;
+
+    private final long thresholdNanos;
+    private final AtomicReferenceArray<Entry> ring;
+    private final int mask;
+    private final AtomicLong cursor = new AtomicLong();
+
+    public SlowQueryJournal(long thresholdNanos, int capacity) {
+        this.thresholdNanos = thresholdNanos;
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;   // next power of two
+        this.ring = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    public boolean isSlow(long nanos) {
+        return nanos >= thresholdNanos;
+    }
+
+    public void record(String sql, List<String> parameters, long nanos, long rows, String endpoint) {
+        Entry entry = new Entry(normalize(sql), parameters, nanos, rows, endpoint, System.currentTimeMillis());
+        ring.set((int) (cursor.getAndIncrement() & mask), entry);
+    }
+
+    /** Literals and IN-list lengths folded away, so one shape is one row in the report. */
+    static String normalize(String sql) {
+        if (sql == null) return "(batch)";
+        String s = STRING_LITERAL.matcher(sql).replaceAll("?");
+        s = NUMBER_LITERAL.matcher(s).replaceAll("?");
+        s = PARAMETER_LIST.matcher(s).replaceAll("?, ...");
+        return WHITESPACE.matcher(s).replaceAll(" ").trim();
+    }
+
+    public List<SlowQueryDTO> worst(Sort sort, int limit) {
+        Map<String, List<Entry>> byShape = new HashMap<>();
+        for (int i = 0; i < ring.length(); i++) {
+            Entry e = ring.get(i);
+            if (e != null) byShape.computeIfAbsent(e.sql(), k -> new ArrayList<>()).add(e);
+        }
+
+        List<SlowQueryDTO> out = new ArrayList<>(byShape.size());
+        for (Map.Entry<String, List<Entry>> shape : byShape.entrySet()) {
+            List<Entry> entries = shape.getValue();
+            entries.sort(Comparator.comparingLong(Entry::epochMillis).reversed());
+            long[] nanos = new long[entries.size()];
+            long total = 0, rows = 0;
+            LinkedHashSet<String> endpoints = new LinkedHashSet<>();
+            for (int i = 0; i < nanos.length; i++) {
+                Entry e = entries.get(i);
+                nanos[i] = e.nanos();
+                total += e.nanos();
+                rows += e.rows();
+                if (endpoints.size() < MAX_ENDPOINTS) endpoints.add(e.endpoint());
+            }
+            Arrays.sort(nanos);
+            long p99 = nanos[Math.min(nanos.length - 1, (int) Math.ceil(nanos.length * 0.99) - 1)];
+            Entry latest = entries.get(0);
+            out.add(new SlowQueryDTO(shape.getKey(), nanos.length, millis(total), millis(p99),
+                    millis(nanos[nanos.length - 1]), (double) rows / nanos.length,
+                    latest.parameters(), List.copyOf(endpoints), latest.epochMillis()));
+        }
+        out.sort(Comparator.comparingDouble(sort == Sort.P99 ? SlowQueryDTO::p99Millis : SlowQueryDTO::totalMillis)
+                .reversed());
+        return out.size() > limit ? out.subList(0, limit) : out;
+    }
+
+    public void clear() {
+        for (int i = 0; i < ring.length(); i++) ring.set(i, null);
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,68 @@
+package com.pahanaedu.billingapp.migration;
+
+import com.pahanaedu.billingapp.util.ContactKeys;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Recomputes customer.phone_key / email_key with {@link ContactKeys} itself.
+ * V7 derived them in SQL, stripping only " -+()./" and cutting at 32
+ * characters, so a phone written with any other separator got a key the API
+ * never produces and the lookup missed it. SQL Server has no portable
+ * "digits only", hence a Java migration (registered as a bean; Spring Boot
+ * hands it to Flyway).
+ *
+ * Same tie rule as V7: where customers share a key the oldest keeps it and
+ * the newer ones get none, and a phone with more than MAX_PHONE_KEY digits
+ * gets none. Such customers are not found by the till lookup until their
+ * contact is corrected; editing their other fields works (Customer keeps the
+ * key of an unchanged phone/email as it is).
+ */
+@Component
+public class V13__customer_contact_keys_recompute extends BaseJavaMigration {
+
+    private record Row(long id, String phone, String email, String phoneKey, String emailKey) {}
+
+    @Override
+    public void migrate(Context context) {
+        JdbcTemplate jdbc = new JdbcTemplate(new SingleConnectionDataSource(context.getConnection(), true));
+        List<Row> rows = jdbc.query("SELECT id, phone, email, phone_key, email_key FROM customer ORDER BY id",
+                (rs, i) -> new Row(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4), rs.getString(5)));
+
+        Set<String> phones = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        List<Object[]> changed = new ArrayList<>();
+        for (Row row : rows) {
+            String phoneKey = phoneKey(row.phone());
+            if (phoneKey != null && !phones.add(phoneKey)) phoneKey = null;
+            String emailKey = ContactKeys.email(row.email());
+            if (emailKey != null && !emails.add(emailKey)) emailKey = null;
+            if (!Objects.equals(phoneKey, row.phoneKey()) || !Objects.equals(emailKey, row.emailKey())) {
+                changed.add(new Object[]{phoneKey, emailKey, row.id()});
+            }
+        }
+        if (changed.isEmpty()) return;
+
+        // clear first, so a key moving from one row to another never trips the unique indexes half-way
+        List<Object[]> ids = changed.stream().map(c -> new Object[]{c[2]}).toList();
+        jdbc.batchUpdate("UPDATE customer SET phone_key = NULL, email_key = NULL WHERE id = ?", ids);
+        jdbc.batchUpdate("UPDATE customer SET phone_key = ?, email_key = ? WHERE id = ?", changed);
+    }
+
+    private static String phoneKey(String phone) {
+        try {
+            return ContactKeys.phone(phone);
+        } catch (IllegalArgumentException tooManyDigits) {
+            return null;
+        }
+    }
+}
@@ -6,6 +6,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
+@Table(indexes = @Index(name = "ix_bill_customer_date", columnList = "customer_id, bill_date"))
 public class Bill {
 
     @Id
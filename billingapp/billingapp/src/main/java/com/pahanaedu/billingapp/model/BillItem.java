@@ -4,6 +4,10 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "ix_bill_item_bill", columnList = "bill_id"),
+        @Index(name = "ix_bill_item_item_qty", columnList = "item_id, quantity")
+})
 public class BillItem {
 
     @Id
@@ -1,10 +1,25 @@
 package com.pahanaedu.billingapp.model;
 
-import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.pahanaedu.billingapp.event.CustomerChangeListener;
+import com.pahanaedu.billingapp.util.ContactKeys;
 import jakarta.persistence.*;
+import org.hibernate.annotations.DynamicUpdate;
+import java.time.LocalDateTime;
 import java.util.List; // ✅ Add this import
+import java.util.Objects;
 
 @Entity
+@DynamicUpdate   // UPDATE only the changed columns
+@EntityListeners(CustomerChangeListener.class)
+@Table(indexes = {
+        @Index(name = "ix_customer_name", columnList = "name"),
+        @Index(name = "ix_customer_email", columnList = "email"),
+        @Index(name = "ix_customer_phone", columnList = "phone"),
+        @Index(name = "ux_customer_phone_key", columnList = "phone_key", unique = true),
+        @Index(name = "ux_customer_email_key", columnList = "email_key", unique = true)
+})
 public class Customer {
 
     @Id
@@ -15,18 +30,40 @@ public class Customer {
     private String email;
     private String phone;
 
+    // Lookup keys (ContactKeys); derived in setEmail/setPhone, unique when present
+    @Column(name = "phone_key", length = ContactKeys.MAX_PHONE_KEY)
+    @JsonIgnore
+    private String phoneKey;
+
+    @Column(name = "email_key")
+    @JsonIgnore
+    private String emailKey;
+
     @OneToMany(mappedBy = "customer", cascade = CascadeType.ALL, orphanRemoval = true)
-    @JsonIgnoreProperties("customer") // ✅ Prevent recursion in JSON
+    @JsonIgnore // history can be huge; use GET /api/v1/customers/{id}/bills (paged)
     private List<Bill> bills;
 
+    // Lifetime aggregates; written only by CustomerStatsService's bulk updates, never by save()
+    @Column(name = "bill_count", insertable = false, updatable = false)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private long billCount;
+
+    @Column(name = "total_spent", insertable = false, updatable = false)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private double totalSpent;
+
+    @Column(name = "last_bill_date", insertable = false, updatable = false)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private LocalDateTime lastBillDate;
+
     // Default constructor
     public Customer() {}
 
     // Constructor with fields
     public Customer(String name, String email, String phone) {
         this.name = name;
-        this.email = email;
-        this.phone = phone;
+        setEmail(email);
+        setPhone(phone);
     }
 
     // Getters and Setters
@@ -50,8 +87,15 @@ public class Customer {
         return email;
     }
 
+    // Keys are derived only when the value changes, so an unchanged email/phone keeps the key it has.
+    // That includes no key at all: where customers shared a phone or email, V7/V13 gave the key to the
+    // oldest and left the newer ones' email_key/phone_key null (ux_customer_*_key is unique). Re-deriving
+    // it on every save would make any edit of such a customer fail with "already belongs to another
+    // customer"; a customer who really changes the contact gets a key, and the clash is reported then.
     public void setEmail(String email) {
+        if (Objects.equals(this.email, email)) return;
         this.email = email;
+        this.emailKey = ContactKeys.email(email);
     }
 
     public String getPhone() {
@@ -59,7 +103,17 @@ public class Customer {
     }
 
     public void setPhone(String phone) {
+        if (Objects.equals(this.phone, phone)) return;
         this.phone = phone;
+        this.phoneKey = ContactKeys.phone(phone);
+    }
+
+    public String getPhoneKey() {
+        return phoneKey;
+    }
+
+    public String getEmailKey() {
+        return emailKey;
     }
 
     public List<Bill> getBills() {
@@ -69,4 +123,16 @@ public class Customer {
     public void setBills(List<Bill> bills) {
         this.bills = bills;
     }
+
+    public long getBillCount() {
+        return billCount;
+    }
+
+    public double getTotalSpent() {
+        return totalSpent;
+    }
+
+    public LocalDateTime getLastBillDate() {
+        return lastBillDate;
+    }
 }
@@ -1,9 +1,24 @@
 package com.pahanaedu.billingapp.model;
 
+import com.pahanaedu.billingapp.config.SecondLevelCacheConfig;
+import com.pahanaedu.billingapp.event.ItemChangeListener;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 
 @Entity
-@Table(name = "item") // optional but nice
+@Cacheable       // second-level cache; checkout reads stock past it (ItemRepository.findForCheckoutById)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.ITEM_REGION)
+@DynamicUpdate   // UPDATE only the changed columns; a price edit leaves image_url alone
+@EntityListeners(ItemChangeListener.class)
+@Table(name = "item", indexes = {
+        @Index(name = "ix_item_category_name", columnList = "category, name"),
+        @Index(name = "ix_item_category_price", columnList = "category, price"),
+        @Index(name = "ix_item_price", columnList = "price"),
+        @Index(name = "ix_item_name", columnList = "name"),
+        @Index(name = "ux_item_barcode", columnList = "barcode", unique = true)
+})
 public class Item {
 
     @Id
@@ -30,6 +45,10 @@ public class Item {
     @Column(name = "image_url", length = -1)
     private String imageUrl;
 
+    // ISBN / EAN as scanned at the counter, normalised (see BarcodeIndex.normalize)
+    @Column(length = 32)
+    private String barcode;
+
     public Item() {}
 
     public Item(String name, String description, double price, int stock) {
@@ -60,4 +79,7 @@ public class Item {
 
     public String getImageUrl() { return imageUrl; }
     public void setImageUrl(String imageUrl) { this.imageUrl = imageUrl; }
+
+    public String getBarcode() { return barcode; }
+    public void setBarcode(String barcode) { this.barcode = barcode; }
 }
@@ -0,0 +1,51 @@
+package com.pahanaedu.billingapp.model;
+
+import jakarta.persistence.*;
+
+/**
+ * One revoked token (jti) or a per-user cut-off (jti null). revokedAt and expiresAt
+ * are epoch seconds; revokedAtMillis is the exact cut-off (null on rows before V14).
+ */
+@Entity
+@Table(name = "token_revocation", indexes = {
+        @Index(name = "ix_token_revocation_expires", columnList = "expires_at"),
+        @Index(name = "ix_token_revocation_revoked", columnList = "revoked_at"),
+        @Index(name = "ux_token_revocation_jti", columnList = "jti", unique = true)
+})
+public class TokenRevocation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(length = 64)
+    private String jti;
+
+    private String username;
+
+    @Column(name = "revoked_at", nullable = false)
+    private long revokedAt;
+
+    @Column(name = "revoked_at_ms")
+    private Long revokedAtMillis;
+
+    @Column(name = "expires_at", nullable = false)
+    private long expiresAt;
+
+    public TokenRevocation() {}
+
+    public TokenRevocation(String jti, String username, long revokedAtMillis, long expiresAt) {
+        this.jti = jti;
+        this.username = username;
+        this.revokedAt = revokedAtMillis / 1000;
+        this.revokedAtMillis = revokedAtMillis;
+        this.expiresAt = expiresAt;
+    }
+
+    public Long getId() { return id; }
+    public String getJti() { return jti; }
+    public String getUsername() { return username; }
+    public long getRevokedAt() { return revokedAt; }
+    public Long getRevokedAtMillis() { return revokedAtMillis; }
+    public long getExpiresAt() { return expiresAt; }
+}
@@ -1,10 +1,17 @@
 package com.pahanaedu.billingapp.model;
 
+import com.pahanaedu.billingapp.util.ContactKeys;
 import jakarta.persistence.*;
 import java.util.Set;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+        @Index(name = "ux_users_username", columnList = "username", unique = true),
+        @Index(name = "ix_users_username_key", columnList = "username_key"),
+        @Index(name = "ix_users_email_key", columnList = "email_key"),
+        @Index(name = "ix_users_full_name", columnList = "full_name"),
+        @Index(name = "ix_users_full_name_key", columnList = "full_name_key")
+})
 public class User {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -16,24 +23,30 @@ public class User {
     private String email;
     private String phone;
 
+    // directory search keys (ContactKeys), kept in step by the setters
+    private String usernameKey;
+    private String emailKey;
+    private String fullNameKey;
+
     @ManyToMany(fetch = FetchType.EAGER)
     @JoinTable(
             name = "user_roles",
             joinColumns = @JoinColumn(name = "user_id"),
-            inverseJoinColumns = @JoinColumn(name = "role_id")
+            inverseJoinColumns = @JoinColumn(name = "role_id"),
+            indexes = @Index(name = "ix_user_roles_role", columnList = "role_id, user_id")
     )
     private Set<Role> roles;
 
     // Getters and setters
     public Long getId() { return id; }
     public String getUsername() { return username; }
-    public void setUsername(String username) { this.username = username; }
+    public void setUsername(String username) { this.username = username; this.usernameKey = ContactKeys.username(username); }
     public String getPassword() { return password; }
     public void setPassword(String password) { this.password = password; }
     public String getFullName() { return fullName; }
-    public void setFullName(String fullName) { this.fullName = fullName; }
+    public void setFullName(String fullName) { this.fullName = fullName; this.fullNameKey = ContactKeys.fullName(fullName); }
     public String getEmail() { return email; }
-    public void setEmail(String email) { this.email = email; }
+    public void setEmail(String email) { this.email = email; this.emailKey = ContactKeys.email(email); }
     public String getPhone() { return phone; }
     public void setPhone(String phone) { this.phone = phone; }
     public Set<Role> getRoles() { return roles; }
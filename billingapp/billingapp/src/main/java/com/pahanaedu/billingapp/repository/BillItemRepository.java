@@ -1,7 +1,61 @@
 package com.pahanaedu.billingapp.repository;
 
+import com.pahanaedu.billingapp.dto.BillLineDetail;
+import com.pahanaedu.billingapp.dto.BillLineRef;
+import com.pahanaedu.billingapp.dto.ItemSale;
+import com.pahanaedu.billingapp.dto.ItemUnitsSold;
 import com.pahanaedu.billingapp.model.BillItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-public interface BillItemRepository extends JpaRepository<BillItem, Long> {}
+import java.time.LocalDateTime;
+import java.util.List;
 
+public interface BillItemRepository extends JpaRepository<BillItem, Long> {
+
+    // Units sold per item for bills in [fromBillId, toBillId] (history rebuild chunk)
+    @Query("""
+           SELECT new com.pahanaedu.billingapp.dto.ItemUnitsSold(bi.item.id, SUM(bi.quantity))
+           FROM BillItem bi
+           WHERE bi.bill.id BETWEEN :fromBillId AND :toBillId AND bi.item IS NOT NULL
+           GROUP BY bi.item.id
+           """)
+    List<ItemUnitsSold> sumUnitsByItem(@Param("fromBillId") long fromBillId,
+                                       @Param("toBillId") long toBillId);
+
+    // Individual lines of bills in [fromBillId, toBillId] dated on/after :since
+    @Query("""
+           SELECT new com.pahanaedu.billingapp.dto.ItemSale(bi.item.id, b.billDate, bi.quantity)
+           FROM BillItem bi JOIN bi.bill b
+           WHERE b.id BETWEEN :fromBillId AND :toBillId AND b.billDate >= :since AND bi.item IS NOT NULL
+           """)
+    List<ItemSale> findSalesSince(@Param("fromBillId") long fromBillId,
+                                  @Param("toBillId") long toBillId,
+                                  @Param("since") LocalDateTime since);
+
+    // (bill, item) pairs of bills in [fromBillId, toBillId], grouped by bill
+    @Query("""
+           SELECT new com.pahanaedu.billingapp.dto.BillLineRef(bi.bill.id, bi.item.id)
+           FROM BillItem bi
+           WHERE bi.bill.id BETWEEN :fromBillId AND :toBillId AND bi.item IS NOT NULL
+           ORDER BY bi.bill.id
+           """)
+    List<BillLineRef> findLineRefs(@Param("fromBillId") long fromBillId,
+                                   @Param("toBillId") long toBillId);
+
+    // Lines of the given bills with their headers, grouped by bill (purge chunk)
+    @Query("""
+           SELECT new com.pahanaedu.billingapp.dto.BillLineDetail(b.id, b.billDate, b.totalAmount, bi.item.id, bi.quantity)
+           FROM BillItem bi JOIN bi.bill b
+           WHERE b.id IN :billIds
+           ORDER BY b.id
+           """)
+    List<BillLineDetail> findLineDetails(@Param("billIds") List<Long> billIds);
+
+    // Set-based delete of the given bills' lines; seeks on ix_bill_item_bill
+    @Modifying
+    @Query("DELETE FROM BillItem bi WHERE bi.bill.id IN :billIds")
+    int deleteByBillIds(@Param("billIds") List<Long> billIds);
+}
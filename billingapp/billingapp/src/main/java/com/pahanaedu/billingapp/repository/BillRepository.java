@@ -1,8 +1,48 @@
 package com.pahanaedu.billingapp.repository;
 
+import com.pahanaedu.billingapp.dto.BillSummaryDTO;
 import com.pahanaedu.billingapp.model.Bill;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
 
 public interface BillRepository extends JpaRepository<Bill, Long> {
-}
 
+    // Id bounds used to split history scans into chunks
+    @Query("SELECT COALESCE(MIN(b.id), 0) FROM Bill b")
+    long findMinId();
+
+    @Query("SELECT COALESCE(MAX(b.id), 0) FROM Bill b")
+    long findMaxId();
+
+    // Bills with customer and lines in one query: nothing is left to lazy-load after a
+    // read-only (replica) transaction, and no N+1 while the list is serialised
+    @EntityGraph(attributePaths = {"customer", "items", "items.item"})
+    @Query("SELECT b FROM Bill b")
+    List<Bill> findAllWithLines();
+
+    @EntityGraph(attributePaths = {"customer", "items", "items.item"})
+    Optional<Bill> findWithLinesById(Long id);
+
+    // One customer's history, newest first; served by ix_bill_customer_date
+    @Query(value = """
+                   SELECT new com.pahanaedu.billingapp.dto.BillSummaryDTO(b.id, b.billDate, b.totalAmount)
+                   FROM Bill b WHERE b.customer.id = :customerId
+                   ORDER BY b.billDate DESC, b.id DESC
+                   """,
+           countQuery = "SELECT COUNT(b) FROM Bill b WHERE b.customer.id = :customerId")
+    Page<BillSummaryDTO> findSummariesByCustomerId(@Param("customerId") Long customerId, Pageable pageable);
+
+    boolean existsByCustomerId(Long customerId);
+
+    // Next purge chunk for a customer (ix_bill_customer_date covers customer_id)
+    @Query("SELECT b.id FROM Bill b WHERE b.customer.id = :customerId ORDER BY b.id")
+    List<Long> findIdsByCustomerId(@Param("customerId") Long customerId, Limit limit);
+}
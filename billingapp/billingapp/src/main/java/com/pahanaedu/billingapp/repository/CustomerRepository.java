@@ -1,10 +1,128 @@
 package com.pahanaedu.billingapp.repository;
 
+import com.pahanaedu.billingapp.dto.CustomerLookupDTO;
+import com.pahanaedu.billingapp.dto.CustomerSummaryDTO;
 import com.pahanaedu.billingapp.model.Customer;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface CustomerRepository extends JpaRepository<Customer, Long> {
-    // No need to write any code. Spring JPA will handle CRUD automatically.
+
+    @Query(value = """
+                   SELECT new com.pahanaedu.billingapp.dto.CustomerSummaryDTO(c.id, c.name, c.email, c.phone,
+                                                                   c.billCount, c.totalSpent, c.lastBillDate)
+                   FROM Customer c
+                   """,
+           countQuery = "SELECT COUNT(c) FROM Customer c")
+    Page<CustomerSummaryDTO> findAllSummaries(Pageable pageable);
+
+    // :prefix is an already-escaped 'abc%' pattern; prefix LIKEs can seek on the name/email/phone indexes
+    @Query(value = """
+                   SELECT new com.pahanaedu.billingapp.dto.CustomerSummaryDTO(c.id, c.name, c.email, c.phone,
+                                                                   c.billCount, c.totalSpent, c.lastBillDate)
+                   FROM Customer c
+                   WHERE c.name LIKE :prefix ESCAPE '\\'
+                      OR c.email LIKE :prefix ESCAPE '\\'
+                      OR c.phone LIKE :prefix ESCAPE '\\'
+                   """,
+           countQuery = """
+                   SELECT COUNT(c) FROM Customer c
+                   WHERE c.name LIKE :prefix ESCAPE '\\'
+                      OR c.email LIKE :prefix ESCAPE '\\'
+                      OR c.phone LIKE :prefix ESCAPE '\\'
+                   """)
+    Page<CustomerSummaryDTO> searchSummaries(@Param("prefix") String prefix, Pageable pageable);
+
+    // --------- Till lookup on the unique phone_key / email_key indexes
+
+    @Query("""
+           SELECT new com.pahanaedu.billingapp.dto.CustomerLookupDTO(c.id, c.name, c.email, c.phone,
+                                                                  c.phoneKey, c.emailKey)
+           FROM Customer c WHERE c.phoneKey = :phoneKey
+           """)
+    Optional<CustomerLookupDTO> findLookupByPhoneKey(@Param("phoneKey") String phoneKey);
+
+    @Query("""
+           SELECT new com.pahanaedu.billingapp.dto.CustomerLookupDTO(c.id, c.name, c.email, c.phone,
+                                                                  c.phoneKey, c.emailKey)
+           FROM Customer c WHERE c.emailKey = :emailKey
+           """)
+    Optional<CustomerLookupDTO> findLookupByEmailKey(@Param("emailKey") String emailKey);
+
+    // Index warm-up: most recently active customers first
+    @Query("""
+           SELECT new com.pahanaedu.billingapp.dto.CustomerLookupDTO(c.id, c.name, c.email, c.phone,
+                                                                  c.phoneKey, c.emailKey)
+           FROM Customer c
+           WHERE c.phoneKey IS NOT NULL OR c.emailKey IS NOT NULL
+           ORDER BY c.lastBillDate DESC NULLS LAST, c.id DESC
+           """)
+    List<CustomerLookupDTO> findLookupsByRecentActivity(Limit limit);
+
+    boolean existsByPhoneKey(String phoneKey);
+
+    boolean existsByPhoneKeyAndIdNot(String phoneKey, Long id);
+
+    boolean existsByEmailKey(String emailKey);
+
+    boolean existsByEmailKeyAndIdNot(String emailKey, Long id);
+
+    // --------- Lifetime aggregates (CustomerStatsService); single-row atomic updates
+
+    @Modifying
+    @Query("""
+           UPDATE Customer c
+           SET c.billCount = c.billCount + 1,
+               c.totalSpent = c.totalSpent + :amount,
+               c.lastBillDate = CASE WHEN c.lastBillDate IS NULL OR c.lastBillDate < :billDate
+                                     THEN :billDate ELSE c.lastBillDate END
+           WHERE c.id = :customerId
+           """)
+    int addBill(@Param("customerId") Long customerId,
+                @Param("amount") double amount,
+                @Param("billDate") LocalDateTime billDate);
+
+    // Runs before the bill row is deleted, so the latest-date seek skips it explicitly
+    @Modifying
+    @Query("""
+           UPDATE Customer c
+           SET c.billCount = c.billCount - 1,
+               c.totalSpent = c.totalSpent - :amount,
+               c.lastBillDate = (SELECT MAX(b.billDate) FROM Bill b
+                                 WHERE b.customer.id = :customerId AND b.id <> :billId)
+           WHERE c.id = :customerId
+           """)
+    int removeBill(@Param("customerId") Long customerId,
+                   @Param("billId") Long billId,
+                   @Param("amount") double amount);
+
+    // Backfill: recompute one id range from bill in a single set-based statement
+    @Transactional
+    @Modifying
+    @Query("""
+           UPDATE Customer c
+           SET c.billCount = (SELECT COUNT(b) FROM Bill b WHERE b.customer.id = c.id),
+               c.totalSpent = (SELECT COALESCE(SUM(b.totalAmount), 0) FROM Bill b WHERE b.customer.id = c.id),
+               c.lastBillDate = (SELECT MAX(b.billDate) FROM Bill b WHERE b.customer.id = c.id)
+           WHERE c.id BETWEEN :fromId AND :toId
+           """)
+    int recomputeStats(@Param("fromId") long fromId, @Param("toId") long toId);
+
+    @Query("SELECT COALESCE(MIN(c.id), 0) FROM Customer c")
+    long findMinId();
+
+    @Query("SELECT COALESCE(MAX(c.id), 0) FROM Customer c")
+    long findMaxId();
 }
@@ -1,31 +1,79 @@
 package com.pahanaedu.billingapp.repository;
 
+import com.pahanaedu.billingapp.dto.CategoryFacetDTO;
+import com.pahanaedu.billingapp.dto.ItemFilter;
+import com.pahanaedu.billingapp.dto.ItemSummaryDTO;
+import com.pahanaedu.billingapp.dto.ScannedItemDTO;
 import com.pahanaedu.billingapp.model.Item;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
-public interface ItemRepository extends JpaRepository<Item, Long> {
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface ItemRepository extends JpaRepository<Item, Long>, JpaSpecificationExecutor<Item> {
 
     Page<Item> findByNameContainingIgnoreCaseOrDescriptionContainingIgnoreCase(
             String name, String description, Pageable pageable);
 
-    // NEW: single method that supports optional category + q
+    // Catalog search: filter + allow-listed sort (any sort on the pageable is replaced)
+    default Page<Item> search(ItemFilter filter, ItemSort sort, int page, int size) {
+        Specification<Item> spec = ItemSpecifications.matching(filter);
+        if (sort == ItemSort.BESTSELLING) {
+            spec = spec.and(ItemSpecifications.orderByUnitsSold());
+        }
+        return findAll(spec, PageRequest.of(page, size, sort.getSort()));
+    }
+
+    // Checkout: stock straight from the database, never from the second-level cache, which is refreshed
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_SPEC_CACHE_RETRIEVE_MODE, value = "BYPASS"),
+            @QueryHint(name = AvailableHints.HINT_SPEC_CACHE_STORE_MODE, value = "REFRESH")
+    })
+    @Query("SELECT i FROM Item i WHERE i.id = :id")
+    Optional<Item> findForCheckoutById(@Param("id") Long id);
+
+    // Category facets for the catalog filter (query cache; dropped on any item write, checkout included)
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     @Query("""
-           SELECT i FROM Item i
-           WHERE (:category IS NULL OR :category = '' OR LOWER(i.category) = LOWER(:category))
-             AND (
-                   :q IS NULL OR :q = ''
-                   OR LOWER(i.name)        LIKE LOWER(CONCAT('%', :q, '%'))
-                   OR LOWER(i.description) LIKE LOWER(CONCAT('%', :q, '%'))
-                 )
+           SELECT new com.pahanaedu.billingapp.dto.CategoryFacetDTO(i.category, COUNT(i),
+                  SUM(CASE WHEN i.stock > 0 THEN 1 ELSE 0 END))
+           FROM Item i WHERE i.category IS NOT NULL
+           GROUP BY i.category ORDER BY i.category
            """)
-    Page<Item> search(@Param("category") String category,
-                      @Param("q") String q,
-                      Pageable pageable);
-}
+    List<CategoryFacetDTO> findCategoryFacets();
+
+    // Best-seller rail: card fields for ranked items not yet held in memory
+    @Query("""
+           SELECT new com.pahanaedu.billingapp.dto.ItemSummaryDTO(i.id, i.name, i.price, i.stock, i.category)
+           FROM Item i WHERE i.id IN :ids
+           """)
+    List<ItemSummaryDTO> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
 
+    boolean existsByBarcodeAndIdNot(String barcode, Long id);
 
+    boolean existsByBarcode(String barcode);
 
+    // Barcode index load / fallback: only the till columns, never the image
+    @Query("""
+           SELECT new com.pahanaedu.billingapp.dto.ScannedItemDTO(i.id, i.barcode, i.name, i.price, i.stock, i.category)
+           FROM Item i WHERE i.barcode IS NOT NULL
+           """)
+    List<ScannedItemDTO> findAllScannable();
+
+    @Query("""
+           SELECT new com.pahanaedu.billingapp.dto.ScannedItemDTO(i.id, i.barcode, i.name, i.price, i.stock, i.category)
+           FROM Item i WHERE i.barcode = :barcode
+           """)
+    Optional<ScannedItemDTO> findScannableByBarcode(@Param("barcode") String barcode);
+}
@@ -0,0 +1,38 @@
+package com.pahanaedu.billingapp.repository;
+
+import org.springframework.data.domain.Sort;
+
+/**
+ * Allow-listed catalog sort orders. Each one is backed by an index
+ * (PK, item(name), item(price), bill_item(item_id, quantity)), so callers
+ * can't ask for a sort that turns into a table scan.
+ */
+public enum ItemSort {
+    NEWEST("newest", Sort.by(Sort.Direction.DESC, "id")),
+    NAME("name", Sort.by(Sort.Direction.ASC, "name", "id")),
+    NAME_DESC("name_desc", Sort.by(Sort.Direction.DESC, "name", "id")),
+    PRICE("price", Sort.by(Sort.Direction.ASC, "price", "id")),
+    PRICE_DESC("price_desc", Sort.by(Sort.Direction.DESC, "price", "id")),
+    // ordered by ItemSpecifications.orderByUnitsSold, not by a column
+    BESTSELLING("bestselling", Sort.unsorted());
+
+    private final String param;
+    private final Sort sort;
+
+    ItemSort(String param, Sort sort) {
+        this.param = param;
+        this.sort = sort;
+    }
+
+    public String getParam() { return param; }
+    public Sort getSort() { return sort; }
+
+    /** Blank means NEWEST; anything not on the list is rejected (400 via GlobalExceptionHandler). */
+    public static ItemSort fromParam(String value) {
+        if (value == null || value.isBlank()) return NEWEST;
+        for (ItemSort s : values()) {
+            if (s.param.equalsIgnoreCase(value.trim())) return s;
+        }
+        throw new IllegalArgumentException("Unsupported sort: " + value);
+    }
+}
@@ -0,0 +1,67 @@
+package com.pahanaedu.billingapp.repository;
+
+import com.pahanaedu.billingapp.dto.ItemFilter;
+import com.pahanaedu.billingapp.model.BillItem;
+import com.pahanaedu.billingapp.model.Item;
+import com.pahanaedu.billingapp.util.LikePatterns;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Criteria building blocks for the catalog search.
+ * Predicates compare raw columns (no LOWER()) so SQL Server can seek on
+ * item(category, name) / item(category, price); the default SQL Server
+ * collation is already case-insensitive.
+ */
+public final class ItemSpecifications {
+
+    private ItemSpecifications() {}
+
+    public static Specification<Item> matching(ItemFilter filter) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+
+            List<String> categories = filter.categories() == null ? List.of()
+                    : filter.categories().stream().filter(c -> c != null && !c.isBlank()).map(String::trim).toList();
+            if (!categories.isEmpty()) {
+                predicates.add(root.get("category").in(categories));
+            }
+            if (filter.minPrice() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("price"), filter.minPrice()));
+            }
+            if (filter.maxPrice() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("price"), filter.maxPrice()));
+            }
+            if (filter.inStockOnly()) {
+                predicates.add(cb.greaterThan(root.get("stock"), 0));
+            }
+            if (filter.q() != null && !filter.q().isBlank()) {
+                String like = LikePatterns.contains(filter.q().trim().toLowerCase(Locale.ROOT));
+                predicates.add(cb.or(
+                        cb.like(cb.lower(root.get("name")), like, LikePatterns.ESCAPE),
+                        cb.like(cb.lower(root.get("description")), like, LikePatterns.ESCAPE)));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    /** Orders by total units sold (correlated SUM over bill_item(item_id, quantity)), then newest. */
+    public static Specification<Item> orderByUnitsSold() {
+        return (root, query, cb) -> {
+            // count queries for paging must not carry an ORDER BY
+            if (query.getResultType() != Long.class && query.getResultType() != long.class) {
+                Subquery<Long> sold = query.subquery(Long.class);
+                var bi = sold.from(BillItem.class);
+                sold.select(cb.coalesce(cb.sumAsLong(bi.get("quantity")), 0L))
+                        .where(cb.equal(bi.get("item"), root));
+                query.orderBy(cb.desc(sold), cb.desc(root.get("id")));
+            }
+            return null;
+        };
+    }
+}
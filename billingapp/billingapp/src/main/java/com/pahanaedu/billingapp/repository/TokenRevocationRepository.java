@@ -0,0 +1,24 @@
+package com.pahanaedu.billingapp.repository;
+
+import com.pahanaedu.billingapp.model.TokenRevocation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+public interface TokenRevocationRepository extends JpaRepository<TokenRevocation, Long> {
+
+    List<TokenRevocation> findByExpiresAtGreaterThan(long now);
+
+    /** Rows written since (epoch seconds), by any instance; read-write so it never goes to a lagging replica. */
+    @Transactional
+    List<TokenRevocation> findByRevokedAtGreaterThanEqual(long since);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM TokenRevocation r WHERE r.expiresAt <= :now")
+    int deleteExpired(@Param("now") long now);
+}
@@ -0,0 +1,11 @@
+package com.pahanaedu.billingapp.repository;
+
+import com.pahanaedu.billingapp.dto.UserDto;
+import com.pahanaedu.billingapp.dto.UserFilter;
+import org.springframework.data.domain.Page;
+
+/** Custom fragment of UserRepository: the admin user directory. */
+public interface UserDirectoryRepository {
+
+    Page<UserDto> searchDirectory(UserFilter filter, UserSort sort, boolean descending, int page, int size);
+}
@@ -0,0 +1,117 @@
+package com.pahanaedu.billingapp.repository;
+
+import com.pahanaedu.billingapp.dto.UserDto;
+import com.pahanaedu.billingapp.dto.UserFilter;
+import com.pahanaedu.billingapp.model.Role;
+import com.pahanaedu.billingapp.model.User;
+import com.pahanaedu.billingapp.util.ContactKeys;
+import com.pahanaedu.billingapp.util.LikePatterns;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Builds the directory query from only the filters present, so every
+ * predicate is a sargable prefix LIKE on an indexed column (or the role join
+ * on user_roles(role_id, user_id)) and SQL Server gets one plan per shape.
+ *
+ * The page itself is a column projection (no password hash, no EAGER role
+ * fetch per row); role names for the page are then read in one IN query.
+ */
+class UserDirectoryRepositoryImpl implements UserDirectoryRepository {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    public Page<UserDto> searchDirectory(UserFilter filter, UserSort sort, boolean descending, int page, int size) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+
+        CriteriaQuery<Tuple> rows = cb.createTupleQuery();
+        Root<User> u = rows.from(User.class);
+        rows.multiselect(u.get("id"), u.get("fullName"), u.get("username"), u.get("email"), u.get("phone"))
+                .where(predicates(cb, u, filter))
+                .orderBy(orders(cb, u, sort, descending));
+        List<Tuple> content = em.createQuery(rows)
+                .setFirstResult(page * size)
+                .setMaxResults(size)
+                .getResultList();
+
+        long total;
+        if (page == 0 && content.size() < size) {
+            total = content.size();     // first page not full: no need to count
+        } else {
+            CriteriaQuery<Long> count = cb.createQuery(Long.class);
+            Root<User> c = count.from(User.class);
+            count.select(cb.count(c)).where(predicates(cb, c, filter));
+            total = em.createQuery(count).getSingleResult();
+        }
+
+        Map<Long, String> roles = roleNames(content.stream().map(t -> t.get(0, Long.class)).toList());
+        List<UserDto> dtos = new ArrayList<>(content.size());
+        for (Tuple t : content) {
+            Long id = t.get(0, Long.class);
+            dtos.add(new UserDto(id, t.get(1, String.class), t.get(2, String.class),
+                    t.get(3, String.class), t.get(4, String.class), roles.getOrDefault(id, "USER")));
+        }
+        return new PageImpl<>(dtos, PageRequest.of(page, size, sort.toSort(descending)), total);
+    }
+
+    private static Predicate[] predicates(CriteriaBuilder cb, Root<User> u, UserFilter f) {
+        List<Predicate> p = new ArrayList<>();
+        String q = ContactKeys.username(f.q());
+        if (q != null) {
+            String like = LikePatterns.prefix(q);
+            p.add(cb.or(
+                    cb.like(u.get("usernameKey"), like, LikePatterns.ESCAPE),
+                    cb.like(u.get("emailKey"), like, LikePatterns.ESCAPE),
+                    cb.like(u.get("fullNameKey"), like, LikePatterns.ESCAPE)));
+        }
+        String username = ContactKeys.username(f.username());
+        if (username != null) p.add(cb.like(u.get("usernameKey"), LikePatterns.prefix(username), LikePatterns.ESCAPE));
+        String email = ContactKeys.email(f.email());
+        if (email != null) p.add(cb.like(u.get("emailKey"), LikePatterns.prefix(email), LikePatterns.ESCAPE));
+        if (f.role() != null && !f.role().isBlank()) {
+            String role = f.role().trim().toUpperCase(Locale.ROOT);
+            Join<User, Role> r = u.join("roles");
+            p.add(r.get("name").in(role, role.startsWith("ROLE_") ? role.substring(5) : "ROLE_" + role));
+        }
+        return p.toArray(new Predicate[0]);
+    }
+
+    private static List<Order> orders(CriteriaBuilder cb, Root<User> u, UserSort sort, boolean descending) {
+        List<Order> orders = new ArrayList<>();
+        for (Sort.Order o : sort.toSort(descending)) {
+            orders.add(o.isDescending() ? cb.desc(u.get(o.getProperty())) : cb.asc(u.get(o.getProperty())));
+        }
+        return orders;
+    }
+
+    /** user id -> first role name (alphabetical), one query for the whole page; users with no role are absent. */
+    private Map<Long, String> roleNames(List<Long> userIds) {
+        Map<Long, String> names = new HashMap<>();
+        if (userIds.isEmpty()) return names;
+        List<Object[]> rows = em.createQuery(
+                        "SELECT u.id, r.name FROM User u JOIN u.roles r WHERE u.id IN :ids ORDER BY r.name", Object[].class)
+                .setParameter("ids", userIds)
+                .getResultList();
+        for (Object[] row : rows) names.putIfAbsent((Long) row[0], (String) row[1]);
+        return names;
+    }
+}
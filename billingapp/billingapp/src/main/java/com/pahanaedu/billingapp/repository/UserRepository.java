@@ -2,22 +2,25 @@ package com.pahanaedu.billingapp.repository;
 
 import com.pahanaedu.billingapp.model.User;
 import jakarta.validation.constraints.NotBlank;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserDirectoryRepository {
     Optional<User> findByUsername(String username);
 
-    Page<User> findByUsernameContainingIgnoreCaseOrFullNameContainingIgnoreCaseOrEmailContainingIgnoreCase(
-            String u, String n, String e, Pageable pageable
-    );
+    boolean existsByUsername(@NotBlank String username);
 
-    Page<User> findByUsernameContainingIgnoreCase(String username, Pageable pageable);
+    /** Which of these usernames are taken, in their stored spelling (one query per import chunk). */
+    @Query("select u.username from User u where u.username in :usernames")
+    List<String> findExistingUsernames(Collection<String> usernames);
 
-    boolean existsByUsername(@NotBlank String username);
+    /** Which of these username keys (ContactKeys.username) are taken: case-insensitive on any collation. */
+    @Query("select u.usernameKey from User u where u.usernameKey in :keys")
+    List<String> findExistingUsernameKeys(Collection<String> keys);
 }
 
 
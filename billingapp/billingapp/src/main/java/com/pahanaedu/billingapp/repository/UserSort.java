@@ -0,0 +1,40 @@
+package com.pahanaedu.billingapp.repository;
+
+import org.springframework.data.domain.Sort;
+
+/**
+ * Allow-listed user directory sort columns. Each is backed by an index
+ * (PK, users(username_key), users(email_key), users(full_name)), so the
+ * directory never sorts 100k rows by an arbitrary column.
+ */
+public enum UserSort {
+    ID("id", "id"),
+    USERNAME("username", "usernameKey"),
+    EMAIL("email", "emailKey"),
+    NAME("fullName", "fullName");
+
+    private final String param;
+    private final String attribute;
+
+    UserSort(String param, String attribute) {
+        this.param = param;
+        this.attribute = attribute;
+    }
+
+    public String getAttribute() { return attribute; }
+
+    /** id as the tie-breaker keeps paging stable. */
+    public Sort toSort(boolean descending) {
+        Sort.Direction dir = descending ? Sort.Direction.DESC : Sort.Direction.ASC;
+        return this == ID ? Sort.by(dir, "id") : Sort.by(dir, attribute).and(Sort.by(dir, "id"));
+    }
+
+    /** Blank means ID; anything not on the list is rejected (400). */
+    public static UserSort fromParam(String value) {
+        if (value == null || value.isBlank()) return ID;
+        for (UserSort s : values()) {
+            if (s.param.equalsIgnoreCase(value.trim())) return s;
+        }
+        throw new IllegalArgumentException("Unsupported sort: " + value);
+    }
+}
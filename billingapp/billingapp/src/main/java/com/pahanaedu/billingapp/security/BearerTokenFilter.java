@@ -0,0 +1,55 @@
+package com.pahanaedu.billingapp.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Authenticates "Authorization: Bearer &lt;access token&gt;" requests from the
+ * token alone: signature, expiry and the in-memory revocation list. Invalid
+ * tokens are simply ignored, so protected endpoints answer 401 as usual.
+ * Created by SecurityConfig, not a bean, so it only runs inside the security chain.
+ */
+public class BearerTokenFilter extends OncePerRequestFilter {
+
+    private static final String PREFIX = "Bearer ";
+
+    private final TokenService tokens;
+    private final TokenRevocationList revocations;
+
+    public BearerTokenFilter(TokenService tokens, TokenRevocationList revocations) {
+        this.tokens = tokens;
+        this.revocations = revocations;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String header = request.getHeader("Authorization");
+        if (header != null && header.regionMatches(true, 0, PREFIX, 0, PREFIX.length())) {
+            tokens.verify(header.substring(PREFIX.length()).trim(), TokenService.Type.ACCESS)
+                    .filter(t -> !revocations.isRevoked(t))
+                    .ifPresent(t -> {
+                        List<SimpleGrantedAuthority> authorities = t.authorities().stream()
+                                .map(SimpleGrantedAuthority::new)
+                                .toList();
+                        // same principal type as form/basic login, so @AuthenticationPrincipal UserDetails keeps working
+                        User principal = new User(t.username(), "", authorities);
+                        SecurityContext context = SecurityContextHolder.createEmptyContext();
+                        context.setAuthentication(new UsernamePasswordAuthenticationToken(principal, t, authorities));
+                        SecurityContextHolder.setContext(context);
+                    });
+        }
+        chain.doFilter(request, response);
+    }
+}
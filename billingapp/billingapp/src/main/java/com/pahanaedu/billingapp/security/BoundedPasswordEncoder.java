@@ -0,0 +1,73 @@
+package com.pahanaedu.billingapp.security;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs the delegate's hashing on the small passwordHashingExecutor instead of
+ * the calling Tomcat thread, so BCrypt can use at most that pool's share of
+ * the CPU. When the pool's queue is full, or a hash waits longer than
+ * {@code maxWait}, the caller gets a TooManyAttemptsException (429) at once.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final ExecutorService executor;
+    private final long maxWaitMillis;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, ExecutorService executor, Duration maxWait) {
+        this.delegate = delegate;
+        this.executor = executor;
+        this.maxWaitMillis = maxWait.toMillis();
+    }
+
+    /** The wrapped encoder, for callers that bound their own parallelism (bulk user import). */
+    public PasswordEncoder unbounded() {
+        return delegate;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T run(Callable<T> hashing) {
+        Future<T> future;
+        try {
+            future = executor.submit(hashing);
+        } catch (RejectedExecutionException ex) {
+            throw new TooManyAttemptsException("Server busy, try again shortly", 1);
+        }
+        try {
+            return future.get(maxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            future.cancel(true);
+            throw new TooManyAttemptsException("Server busy, try again shortly", 1);
+        } catch (InterruptedException ex) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing password", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException re) throw re;
+            throw new IllegalStateException("Password hashing failed", ex.getCause());
+        }
+    }
+}
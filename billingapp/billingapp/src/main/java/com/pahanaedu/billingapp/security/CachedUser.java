@@ -0,0 +1,51 @@
+package com.pahanaedu.billingapp.security;
+
+import com.pahanaedu.billingapp.model.Role;
+import com.pahanaedu.billingapp.model.User;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.List;
+
+/**
+ * Immutable copy of a user row as UserCache holds it: enough to build the
+ * security principal and the profile DTOs without touching the entity.
+ * {@code roles} are the stored role names, in the entity's iteration order.
+ */
+public record CachedUser(
+        Long id,
+        String username,
+        String passwordHash,
+        String fullName,
+        String email,
+        String phone,
+        List<String> roles,
+        List<SimpleGrantedAuthority> authorities
+) {
+
+    static CachedUser of(User u) {
+        List<String> roles = u.getRoles() == null ? List.of()
+                : u.getRoles().stream().map(Role::getName).toList();
+        List<SimpleGrantedAuthority> authorities = roles.stream()
+                .map(name -> {
+                    if (name != null && !name.startsWith("ROLE_")) name = "ROLE_" + name;
+                    return new SimpleGrantedAuthority(name);
+                })
+                .toList();
+        return new CachedUser(u.getId(), u.getUsername(), u.getPassword(), u.getFullName(),
+                u.getEmail(), u.getPhone(), roles, authorities);
+    }
+
+    /**
+     * A fresh principal per call: the authentication manager erases the
+     * credentials of the UserDetails it is given, which must not reach the cache.
+     */
+    public UserDetails toUserDetails() {
+        return new org.springframework.security.core.userdetails.User(username, passwordHash, authorities);
+    }
+
+    /** First stored role name, or null. */
+    public String firstRole() {
+        return roles.isEmpty() ? null : roles.get(0);
+    }
+}
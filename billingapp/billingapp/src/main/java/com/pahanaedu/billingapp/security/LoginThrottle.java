@@ -0,0 +1,147 @@
+package com.pahanaedu.billingapp.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Token-bucket throttle for /auth/login, one bucket per client IP and one per
+ * username, checked before any password is hashed.
+ *
+ * Buckets live in lock-striped tables so concurrent logins for different keys
+ * rarely contend. Each stripe has a small time wheel: a bucket is filed under
+ * the tick it was last used and dropped when the wheel comes round to that
+ * slot again, by which time it would have refilled anyway. Expiry therefore
+ * costs O(1) per access, with no sweeper thread.
+ */
+@Component
+public class LoginThrottle {
+
+    private final BucketTable perIp;
+    private final BucketTable perUser;
+
+    public LoginThrottle(@Value("${app.login-throttle.per-ip.burst:30}") int ipBurst,
+                         @Value("${app.login-throttle.per-ip.per-minute:30}") double ipPerMinute,
+                         @Value("${app.login-throttle.per-user.burst:5}") int userBurst,
+                         @Value("${app.login-throttle.per-user.per-minute:5}") double userPerMinute,
+                         @Value("${app.login-throttle.max-keys:100000}") int maxKeys) {
+        this.perIp = new BucketTable(ipBurst, ipPerMinute, maxKeys);
+        this.perUser = new BucketTable(userBurst, userPerMinute, maxKeys);
+    }
+
+    /** Takes one token from the IP's and the username's bucket, or throws with the wait until the next one. */
+    public void check(String username, String ip) {
+        check(username, ip, System.nanoTime());
+    }
+
+    void check(String username, String ip, long now) {
+        long waitNanos = ip == null ? 0 : perIp.tryTake(ip, now);
+        if (waitNanos == 0 && username != null && !username.isBlank()) {
+            waitNanos = perUser.tryTake(username.trim().toLowerCase(Locale.ROOT), now);
+        }
+        if (waitNanos > 0) {
+            throw new TooManyAttemptsException("Too many login attempts, try again later",
+                    TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1);
+        }
+    }
+
+    // --------- internals
+
+    private static final class Bucket {
+        double tokens;
+        long refilledAt;
+        long tick;          // wheel tick of the last use
+    }
+
+    private static final class BucketTable {
+
+        private static final int STRIPES = 64;
+        private static final int WHEEL_SLOTS = 16;
+
+        private final double capacity;
+        private final double tokensPerNano;
+        private final long tickNanos;
+        private final int maxKeysPerStripe;
+        private final long origin = System.nanoTime();
+        private final Stripe[] stripes = new Stripe[STRIPES];
+
+        BucketTable(int burst, double perMinute, int maxKeys) {
+            this.capacity = Math.max(1, burst);
+            this.tokensPerNano = Math.max(perMinute, 0.001) / TimeUnit.MINUTES.toNanos(1);
+            // an idle bucket is full again after capacity / rate; it must survive at least that long
+            long refillNanos = (long) Math.ceil(capacity / tokensPerNano);
+            this.tickNanos = Math.max(1, refillNanos / (WHEEL_SLOTS - 1) + 1);
+            this.maxKeysPerStripe = Math.max(1, maxKeys / STRIPES);
+            for (int i = 0; i < STRIPES; i++) stripes[i] = new Stripe();
+        }
+
+        long tryTake(String key, long now) {
+            int h = key.hashCode();
+            Stripe s = stripes[(h ^ (h >>> 16)) & (STRIPES - 1)];
+            long tick = (now - origin) / tickNanos;
+            s.lock.lock();
+            try {
+                s.advance(tick);
+                Bucket b = s.buckets.get(key);
+                if (b == null) {
+                    // table full: let the attempt through untracked; the hashing pool still bounds the cost
+                    if (s.buckets.size() >= maxKeysPerStripe) return 0;
+                    b = new Bucket();
+                    b.tokens = capacity;
+                    b.refilledAt = now;
+                    b.tick = tick;
+                    s.buckets.put(key, b);
+                    s.wheel[(int) (tick % WHEEL_SLOTS)].add(key);
+                } else {
+                    b.tokens = Math.min(capacity, b.tokens + (now - b.refilledAt) * tokensPerNano);
+                    b.refilledAt = now;
+                    s.touch(key, b, tick);
+                }
+                if (b.tokens >= 1) {
+                    b.tokens -= 1;
+                    return 0;
+                }
+                return (long) Math.ceil((1 - b.tokens) / tokensPerNano);
+            } finally {
+                s.lock.unlock();
+            }
+        }
+
+        private static final class Stripe {
+            final ReentrantLock lock = new ReentrantLock();
+            final Map<String, Bucket> buckets = new HashMap<>();
+            @SuppressWarnings("unchecked")
+            final Set<String>[] wheel = new Set[WHEEL_SLOTS];
+            long currentTick;
+
+            Stripe() {
+                for (int i = 0; i < WHEEL_SLOTS; i++) wheel[i] = new HashSet<>();
+            }
+
+            /** Moves the wheel up to {@code tick}, dropping every bucket whose slot comes round unused. */
+            void advance(long tick) {
+                long steps = Math.min(tick - currentTick, WHEEL_SLOTS);
+                for (long i = 1; i <= steps; i++) {
+                    Set<String> slot = wheel[(int) ((currentTick + i) % WHEEL_SLOTS)];
+                    for (String key : slot) buckets.remove(key);
+                    slot.clear();
+                }
+                if (tick > currentTick) currentTick = tick;
+            }
+
+            void touch(String key, Bucket b, long tick) {
+                if (b.tick == tick) return;
+                wheel[(int) (b.tick % WHEEL_SLOTS)].remove(key);
+                wheel[(int) (tick % WHEEL_SLOTS)].add(key);
+                b.tick = tick;
+            }
+        }
+    }
+}
@@ -1,10 +1,12 @@
 package com.pahanaedu.billingapp.security;
 
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -13,11 +15,17 @@ import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.AuthenticationEntryPoint;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.security.web.authentication.www.BasicAuthenticationEntryPoint;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
 
 @Configuration
 @EnableMethodSecurity
@@ -26,7 +34,15 @@ public class SecurityConfig {
     private static final String FRONTEND = "http://localhost:5173";
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http,
+                                                   TokenService tokenService,
+                                                   TokenRevocationList revocations,
+                                                   @Value("${app.auth.http-basic:true}") boolean httpBasic) throws Exception {
+        // Bearer tokens are verified from the token itself; Basic (one BCrypt per request) stays for Swagger/scripts
+        if (httpBasic) http.httpBasic(basic -> basic.authenticationEntryPoint(basicEntryPoint()));
+        else http.httpBasic(AbstractHttpConfigurer::disable)
+                .exceptionHandling(e -> e.authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)));
+
         return http
                 .cors(c -> c.configurationSource(corsConfigurationSource()))
                 .csrf(AbstractHttpConfigurer::disable)
@@ -43,6 +59,9 @@ public class SecurityConfig {
                         // Public endpoints
                         .requestMatchers(HttpMethod.GET, "/api/v1/items/**").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/v1/users/public/**").permitAll()
+                        // Actuator: health for load balancers, the rest (metrics, prometheus) admin only
+                        .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         // Admin endpoints - require ADMIN role
                         .requestMatchers("/api/admin/**").hasRole("ADMIN")
                         // Customer endpoints - require authentication  
@@ -52,7 +71,7 @@ public class SecurityConfig {
                         // All other requests need authentication
                         .anyRequest().authenticated()
                 )
-                .httpBasic(Customizer.withDefaults()) // Enable HTTP Basic for Swagger testing
+                .addFilterBefore(new BearerTokenFilter(tokenService, revocations), BasicAuthenticationFilter.class)
                 .formLogin(AbstractHttpConfigurer::disable)
                 .build();
     }
@@ -64,14 +83,34 @@ public class SecurityConfig {
         cfg.setAllowedMethods(List.of("GET","POST","PUT","PATCH","DELETE","OPTIONS"));
         cfg.setAllowedHeaders(List.of("*"));
         cfg.setAllowCredentials(true);
-        cfg.setExposedHeaders(List.of("Authorization", "Content-Type"));
+        cfg.setExposedHeaders(List.of("Authorization", "Content-Type", "X-Query-Count", "Server-Timing"));
         UrlBasedCorsConfigurationSource src = new UrlBasedCorsConfigurationSource();
         src.registerCorsConfiguration("/**", cfg);
         return src;
     }
 
+    // Basic challenge as before, but a saturated hashing pool answers 429 rather than 401
+    private static AuthenticationEntryPoint basicEntryPoint() {
+        BasicAuthenticationEntryPoint basic = new BasicAuthenticationEntryPoint();
+        basic.setRealmName("Realm");
+        return (request, response, ex) -> {
+            if (ex instanceof TooManyAttemptsException busy) {
+                // not sendError: the /error dispatch is itself unauthenticated and would turn into a 401
+                response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+                response.setHeader("Retry-After", String.valueOf(busy.getRetryAfterSeconds()));
+                response.setContentType("application/json");
+                response.getWriter().write("{\"message\":\"" + busy.getMessage() + "\"}");
+            } else {
+                basic.commence(request, response, ex);
+            }
+        };
+    }
+
     @Bean
-    public PasswordEncoder passwordEncoder() { return new BCryptPasswordEncoder(); }
+    public PasswordEncoder passwordEncoder(@Qualifier("passwordHashingExecutor") ExecutorService hashingExecutor,
+                                           @Value("${app.password-hashing.max-wait:PT5S}") Duration maxWait) {
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(), hashingExecutor, maxWait);
+    }
 
     @Bean
     public AuthenticationManager authenticationManager(AuthenticationConfiguration configuration) throws Exception {
@@ -0,0 +1,163 @@
+package com.pahanaedu.billingapp.security;
+
+import com.pahanaedu.billingapp.event.UserChangedEvent;
+import com.pahanaedu.billingapp.model.TokenRevocation;
+import com.pahanaedu.billingapp.repository.TokenRevocationRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Revoked bearer tokens, checked by BearerTokenFilter on every request.
+ *
+ * Two kinds of entry: a single token by jti (logout, refresh rotation) and a
+ * per-user cut-off that kills every token issued at or before it, to the
+ * millisecond (password, role or username change, delete). Both live in memory
+ * for the filter and are written to token_revocation, which every instance
+ * polls each sync interval on one daemon thread, so a revocation made on one
+ * instance holds on all of them within about that interval (and survives a
+ * restart). Entries are dropped once no token they could match is still unexpired.
+ *
+ * {@link #revoke} is the single point that spends a token: of two concurrent
+ * revocations of one jti, on this instance or another, only one wins (the
+ * unique jti index settles it across instances).
+ */
+@Component
+@Slf4j
+public class TokenRevocationList {
+
+    private static final long PURGE_INTERVAL_SECONDS = 600;
+    // rows are stamped with the writer's clock and may commit a little after it: re-read that much
+    private static final long SYNC_OVERLAP_SECONDS = 30;
+
+    private final TokenRevocationRepository repository;
+    private final TokenService tokens;
+    private final long syncMillis;
+    private ScheduledExecutorService scheduler;
+
+    private final Map<String, Long> revokedJtis = new ConcurrentHashMap<>();       // jti -> expires
+    private final Map<String, long[]> userCutoffs = new ConcurrentHashMap<>();     // username -> {cutoff ms, expires}
+    private volatile long lastSync;
+    private volatile long lastPurge;
+    private volatile boolean syncFailing;
+
+    public TokenRevocationList(TokenRevocationRepository repository, TokenService tokens,
+                               @Value("${app.auth.revocation-sync:PT2S}") Duration sync) {
+        this.repository = repository;
+        this.tokens = tokens;
+        this.syncMillis = Math.max(100, sync.toMillis());
+    }
+
+    /** Loads every live entry, then picks up other instances' revocations every sync interval. */
+    @PostConstruct
+    void start() {
+        load();
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "token-revocation-sync");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::sync, syncMillis, syncMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (scheduler != null) scheduler.shutdownNow();
+    }
+
+    void load() {
+        long started = System.currentTimeMillis();
+        for (TokenRevocation r : repository.findByExpiresAtGreaterThan(started / 1000)) apply(r, started / 1000);
+        lastSync = started;
+        lastPurge = started / 1000;
+        log.info("Token revocation list loaded: {} tokens, {} user cut-offs", revokedJtis.size(), userCutoffs.size());
+    }
+
+    /** Merges the rows written since the last sync (by any instance); entries are only ever added. */
+    void sync() {
+        long started = System.currentTimeMillis();
+        try {
+            long now = started / 1000;
+            for (TokenRevocation r : repository.findByRevokedAtGreaterThanEqual(lastSync / 1000 - SYNC_OVERLAP_SECONDS)) {
+                apply(r, now);
+            }
+            lastSync = started;
+            if (syncFailing) log.info("Token revocation sync recovered");
+            syncFailing = false;
+            purgeIfDue();
+        } catch (RuntimeException ex) {
+            if (!syncFailing) log.warn("Token revocation sync failed, retrying: {}", ex.getMessage());
+            syncFailing = true;
+        }
+    }
+
+    public boolean isRevoked(TokenService.Verified token) {
+        if (revokedJtis.containsKey(token.jti())) return true;
+        long[] cutoff = userCutoffs.get(token.username());
+        return cutoff != null && token.issuedAtMillis() <= cutoff[0];
+    }
+
+    /**
+     * Revokes one token until it would have expired anyway. False when it was
+     * already revoked, here or on another instance: refresh rotation rejects the loser.
+     */
+    public boolean revoke(TokenService.Verified token) {
+        if (revokedJtis.putIfAbsent(token.jti(), token.expiresAt()) != null) return false;
+        try {
+            repository.save(new TokenRevocation(token.jti(), token.username(), System.currentTimeMillis(),
+                    token.expiresAt()));
+            return true;
+        } catch (DataIntegrityViolationException ex) {
+            return false;       // unique jti: another instance got there first
+        }
+    }
+
+    /** Revokes every token the user holds right now; tokens issued afterwards are unaffected. */
+    public void revokeAll(String username) {
+        long nowMillis = System.currentTimeMillis();
+        long expires = nowMillis / 1000 + Math.max(tokens.accessTtlSeconds(), tokens.refreshTtlSeconds());
+        mergeCutoff(username, nowMillis, expires);
+        repository.save(new TokenRevocation(null, username, nowMillis, expires));
+    }
+
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.change().revokesTokens() && event.username() != null) revokeAll(event.username());
+    }
+
+    private void apply(TokenRevocation r, long now) {
+        if (r.getExpiresAt() <= now) return;
+        if (r.getJti() != null) {
+            revokedJtis.putIfAbsent(r.getJti(), r.getExpiresAt());
+        } else if (r.getUsername() != null) {
+            // rows from before V14 only know the second: cover all of it
+            long cutoff = r.getRevokedAtMillis() != null ? r.getRevokedAtMillis() : r.getRevokedAt() * 1000 + 999;
+            mergeCutoff(r.getUsername(), cutoff, r.getExpiresAt());
+        }
+    }
+
+    private void mergeCutoff(String username, long cutoff, long expires) {
+        userCutoffs.merge(username, new long[]{cutoff, expires},
+                (a, b) -> new long[]{Math.max(a[0], b[0]), Math.max(a[1], b[1])});
+    }
+
+    private void purgeIfDue() {
+        long now = System.currentTimeMillis() / 1000;
+        if (now - lastPurge < PURGE_INTERVAL_SECONDS) return;
+        lastPurge = now;
+        revokedJtis.values().removeIf(exp -> exp <= now);
+        userCutoffs.values().removeIf(c -> c[1] <= now);
+        repository.deleteExpired(now);
+    }
+}
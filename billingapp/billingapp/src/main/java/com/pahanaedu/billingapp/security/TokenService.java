@@ -0,0 +1,137 @@
+package com.pahanaedu.billingapp.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Issues and verifies HMAC-SHA256 signed bearer tokens (compact JWT layout:
+ * header.payload.signature, base64url).
+ *
+ * Access tokens carry the username and granted authorities, so verifying one
+ * is a MAC over a few hundred bytes plus a small JSON parse: no DB, no BCrypt.
+ * Refresh tokens carry only the username and are exchanged at /auth/refresh,
+ * which reloads the user. Revocation is checked separately (TokenRevocationList).
+ */
+@Service
+@Slf4j
+public class TokenService {
+
+    public enum Type { ACCESS, REFRESH }
+
+    public record Token(String value, String jti, long issuedAtMillis, long expiresAt) {}
+
+    public record Verified(String username, List<String> authorities, Type type,
+                           String jti, long issuedAtMillis, long expiresAt) {}
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder B64 = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder B64D = Base64.getUrlDecoder();
+    private static final String HEADER = B64.encodeToString(
+            "{\"alg\":\"HS256\",\"typ\":\"JWT\"}".getBytes(StandardCharsets.UTF_8));
+
+    private final ObjectMapper objectMapper;
+    private final Mac prototype;
+    private final long accessTtl;
+    private final long refreshTtl;
+
+    public TokenService(ObjectMapper objectMapper,
+                        @Value("${app.auth.token-secret:}") String secret,
+                        @Value("${app.auth.access-ttl:PT15M}") Duration accessTtl,
+                        @Value("${app.auth.refresh-ttl:P7D}") Duration refreshTtl) throws GeneralSecurityException {
+        this.objectMapper = objectMapper;
+        this.accessTtl = accessTtl.toSeconds();
+        this.refreshTtl = refreshTtl.toSeconds();
+
+        byte[] key;
+        if (secret == null || secret.isBlank()) {
+            key = new byte[32];
+            new SecureRandom().nextBytes(key);
+            log.warn("app.auth.token-secret not set: using a random key, tokens will not survive a restart");
+        } else {
+            key = Base64.getDecoder().decode(secret.trim());
+            if (key.length < 32) throw new IllegalStateException("app.auth.token-secret must be at least 256 bits (base64)");
+        }
+        this.prototype = Mac.getInstance(ALGORITHM);
+        this.prototype.init(new SecretKeySpec(key, ALGORITHM));
+    }
+
+    public long accessTtlSeconds() { return accessTtl; }
+
+    public long refreshTtlSeconds() { return refreshTtl; }
+
+    public Token issue(String username, Collection<String> authorities, Type type) {
+        long nowMillis = System.currentTimeMillis();
+        long now = nowMillis / 1000;
+        long exp = now + (type == Type.ACCESS ? accessTtl : refreshTtl);
+        String jti = UUID.randomUUID().toString();
+
+        Map<String, Object> claims = new LinkedHashMap<>();
+        claims.put("sub", username);
+        claims.put("typ", type.name().toLowerCase());
+        if (type == Type.ACCESS) claims.put("roles", authorities);
+        // NumericDate may be fractional: the revocation cut-off needs the millisecond
+        claims.put("iat", BigDecimal.valueOf(nowMillis, 3));
+        claims.put("exp", exp);
+        claims.put("jti", jti);
+
+        try {
+            String signingInput = HEADER + "." + B64.encodeToString(objectMapper.writeValueAsBytes(claims));
+            return new Token(signingInput + "." + B64.encodeToString(sign(signingInput)), jti, nowMillis, exp);
+        } catch (Exception ex) {
+            throw new IllegalStateException("Could not issue token", ex);
+        }
+    }
+
+    /** Signature, expiry and type checks only; empty for anything malformed. */
+    public Optional<Verified> verify(String token, Type expected) {
+        if (token == null) return Optional.empty();
+        int dot1 = token.indexOf('.');
+        int dot2 = token.lastIndexOf('.');
+        if (dot1 <= 0 || dot2 <= dot1 || !token.regionMatches(0, HEADER, 0, dot1) || dot1 != HEADER.length()) {
+            return Optional.empty();
+        }
+        try {
+            byte[] expectedSig = sign(token.substring(0, dot2));
+            if (!MessageDigest.isEqual(expectedSig, B64D.decode(token.substring(dot2 + 1)))) return Optional.empty();
+
+            JsonNode claims = objectMapper.readTree(B64D.decode(token.substring(dot1 + 1, dot2)));
+            long now = System.currentTimeMillis() / 1000;
+            long exp = claims.path("exp").asLong(0);
+            Type type = "refresh".equals(claims.path("typ").asText()) ? Type.REFRESH : Type.ACCESS;
+            if (exp <= now || type != expected) return Optional.empty();
+
+            List<String> authorities = new ArrayList<>();
+            claims.path("roles").forEach(r -> authorities.add(r.asText()));
+            return Optional.of(new Verified(claims.path("sub").asText(), authorities, type,
+                    claims.path("jti").asText(), Math.round(claims.path("iat").asDouble(0) * 1000), exp));
+        } catch (Exception ex) {
+            return Optional.empty();
+        }
+    }
+
+    // Mac is not thread-safe; a clone of the initialised prototype skips key setup
+    private byte[] sign(String signingInput) throws CloneNotSupportedException {
+        Mac mac = (Mac) prototype.clone();
+        return mac.doFinal(signingInput.getBytes(StandardCharsets.US_ASCII));
+    }
+}
@@ -0,0 +1,23 @@
+package com.pahanaedu.billingapp.security;
+
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
+
+/**
+ * Thrown instead of authenticating when the login throttle or the password
+ * hashing pool is saturated. Answered with 429 and Retry-After. Extends the
+ * "internal" type so ProviderManager rethrows it instead of retrying the parent
+ * manager, which would hash the password a second time.
+ */
+public class TooManyAttemptsException extends InternalAuthenticationServiceException {
+
+    private final long retryAfterSeconds;
+
+    public TooManyAttemptsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = Math.max(1, retryAfterSeconds);
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,142 @@
+package com.pahanaedu.billingapp.security;
+
+import com.pahanaedu.billingapp.dto.CacheStatsDTO;
+import com.pahanaedu.billingapp.event.UserChangedEvent;
+import com.pahanaedu.billingapp.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Username -> CachedUser, shared by CustomUserDetailsService (Basic auth,
+ * login, refresh) and the /auth/me and /users/profile endpoints.
+ *
+ * Bounded LRU with a TTL as a backstop; the real invalidation is the
+ * UserChangedEvent each user write path publishes. Unknown usernames are
+ * not cached, so creating a user needs no event. A load that overlaps an
+ * invalidation is returned but not stored, so a stale row cannot outlive
+ * the event that should have evicted it.
+ */
+@Component
+@Slf4j
+public class UserCache {
+
+    private record Entry(CachedUser user, long loadedAt) {}
+
+    private final UserRepository userRepository;
+    private final int maxEntries;
+    private final long ttlMillis;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<String, Entry> entries;
+    private long version;              // bumped on every invalidation
+    private volatile int size;         // entries.size(), for readers that must not take the lock
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public UserCache(UserRepository userRepository,
+                     @Value("${app.user-cache.max-entries:10000}") int maxEntries,
+                     @Value("${app.user-cache.ttl:PT10M}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.maxEntries = Math.max(1, maxEntries);
+        this.ttlMillis = ttl.toMillis();
+        // access order: get() moves the entry to the tail, the head is the eviction candidate
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() <= UserCache.this.maxEntries) return false;
+                evictions.increment();
+                return true;
+            }
+        };
+    }
+
+    public Optional<CachedUser> get(String username) {
+        if (username == null) return Optional.empty();
+        long now = System.currentTimeMillis();
+        long seen;
+        lock.lock();
+        try {
+            Entry e = entries.get(username);
+            if (e != null && now - e.loadedAt() < ttlMillis) {
+                hits.increment();
+                return Optional.of(e.user());
+            }
+            if (e != null) {
+                entries.remove(username);
+                size = entries.size();
+                evictions.increment();
+            }
+            seen = version;
+        } finally {
+            lock.unlock();
+        }
+
+        misses.increment();
+        Optional<CachedUser> loaded = userRepository.findByUsername(username).map(CachedUser::of);
+        loaded.ifPresent(u -> {
+            lock.lock();
+            try {
+                // only under the stored spelling, the key eviction events use
+                if (version == seen && username.equals(u.username())) {
+                    entries.put(username, new Entry(u, now));
+                    size = entries.size();
+                }
+            } finally {
+                lock.unlock();
+            }
+        });
+        return loaded;
+    }
+
+    public void evict(String username) {
+        lock.lock();
+        try {
+            version++;
+            entries.remove(username);
+            size = entries.size();
+        } finally {
+            lock.unlock();
+        }
+        invalidations.increment();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.username() != null) evict(event.username());
+    }
+
+    // Lock-free reads for the meters (MetricsConfig), which are polled on every scrape
+
+    public int size() { return size; }
+    public long hits() { return hits.sum(); }
+    public long misses() { return misses.sum(); }
+    /** Entries dropped because the user changed. */
+    public long invalidations() { return invalidations.sum(); }
+    /** Entries dropped by the size bound (LRU) or the TTL. */
+    public long evictions() { return evictions.sum(); }
+
+    public CacheStatsDTO stats() {
+        int size;
+        lock.lock();
+        try {
+            size = entries.size();
+        } finally {
+            lock.unlock();
+        }
+        long h = hits.sum(), m = misses.sum();
+        return new CacheStatsDTO("users", size, maxEntries, h, m,
+                h + m == 0 ? 0 : (double) h / (h + m), invalidations.sum(), evictions.sum());
+    }
+}
@@ -0,0 +1,180 @@
+package com.pahanaedu.billingapp.service;
+
+import com.pahanaedu.billingapp.dto.BarcodeBatchResponse;
+import com.pahanaedu.billingapp.dto.ScannedItemDTO;
+import com.pahanaedu.billingapp.event.ItemChangedEvent;
+import com.pahanaedu.billingapp.event.WarmupCompletedEvent;
+import com.pahanaedu.billingapp.repository.ItemRepository;
+import com.pahanaedu.billingapp.util.LongObjectHashMap;
+import com.pahanaedu.billingapp.util.StringObjectHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory barcode -> item index for the till scanner.
+ *
+ * Open-addressing table ({@link StringObjectHashMap}) keyed by the normalised barcode string, holding the
+ * image-free {@link ScannedItemDTO}. Loaded once at startup and kept in sync
+ * by committed {@link ItemChangedEvent}s (including checkout stock changes).
+ * The load runs on a background thread so it does not hold up readiness;
+ * until it finishes, lookups fall back to the indexed barcode column.
+ */
+@Service
+@Slf4j
+public class BarcodeIndex {
+
+    public static final int MAX_BATCH = 500;
+
+    private final ItemRepository itemRepository;
+    private final ApplicationEventPublisher events;
+    private final ExecutorService executor;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final StringObjectHashMap<ScannedItemDTO> byBarcode = new StringObjectHashMap<>(64);
+    private final LongObjectHashMap<String> barcodeByItemId = new LongObjectHashMap<>();
+    private volatile boolean loaded;
+    private boolean loading;
+    private final List<ItemChangedEvent> eventsDuringLoad = new ArrayList<>();
+
+    public BarcodeIndex(ItemRepository itemRepository, ApplicationEventPublisher events,
+                        @Qualifier("backgroundExecutor") ExecutorService executor) {
+        this.itemRepository = itemRepository;
+        this.events = events;
+        this.executor = executor;
+    }
+
+    /** Keeps digits and letters (the ISBN-10 check digit X, other symbologies), upper-cased; drops separators; null/blank -> null. */
+    public static String normalize(String code) {
+        if (code == null) return null;
+        StringBuilder sb = new StringBuilder(code.length());
+        for (int i = 0; i < code.length(); i++) {
+            char c = code.charAt(i);
+            if (c >= '0' && c <= '9') sb.append(c);
+            else if (Character.isLetter(c)) sb.append(Character.toUpperCase(c));
+        }
+        return sb.isEmpty() ? null : sb.toString();
+    }
+
+    // --------- Lookups
+
+    public Optional<ScannedItemDTO> find(String code) {
+        String key = normalize(code);
+        if (key == null) return Optional.empty();
+        if (!loaded) return itemRepository.findScannableByBarcode(key);
+
+        lock.readLock().lock();
+        try {
+            return Optional.ofNullable(byBarcode.get(key));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Prices a whole stack in one pass; unknown codes are reported, not fatal. */
+    public BarcodeBatchResponse findAll(List<String> codes) {
+        if (codes.size() > MAX_BATCH) {
+            throw new IllegalArgumentException("At most " + MAX_BATCH + " barcodes per request");
+        }
+        List<ScannedItemDTO> items = new ArrayList<>(codes.size());
+        List<String> unknown = new ArrayList<>();
+        double total = 0;
+        for (String code : codes) {
+            Optional<ScannedItemDTO> hit = find(code);
+            if (hit.isPresent()) {
+                items.add(hit.get());
+                total += hit.get().price();
+            } else {
+                unknown.add(code);
+            }
+        }
+        return new BarcodeBatchResponse(items, unknown, total);
+    }
+
+    // --------- Sync
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        executor.execute(this::load);
+    }
+
+    public void load() {
+        long started = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            loading = true;
+            eventsDuringLoad.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        List<ScannedItemDTO> rows;
+        try {
+            rows = itemRepository.findAllScannable();
+        } catch (RuntimeException ex) {
+            lock.writeLock().lock();
+            try {
+                loading = false;
+                eventsDuringLoad.clear();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.warn("Barcode index load failed; lookups stay on the database", ex);
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            for (ScannedItemDTO row : rows) upsert(row);
+            // changes committed while the query ran may be missing from (or older than) its rows
+            for (ItemChangedEvent e : eventsDuringLoad) apply(e);
+            eventsDuringLoad.clear();
+            loading = false;
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        long millis = System.currentTimeMillis() - started;
+        log.info("Barcode index loaded: {} items in {} ms", rows.size(), millis);
+        events.publishEvent(new WarmupCompletedEvent("barcode-index", rows.size(), millis));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemChanged(ItemChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (loading) eventsDuringLoad.add(event);
+            apply(event);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // --------- Table maintenance (caller holds the write lock)
+
+    private void apply(ItemChangedEvent event) {
+        String key = normalize(event.barcode());
+        if (event.deleted() || key == null) {
+            String previous = barcodeByItemId.remove(event.itemId());
+            if (previous != null) byBarcode.remove(previous);
+        } else {
+            upsert(new ScannedItemDTO(event.itemId(), key, event.name(),
+                    event.price(), event.stock(), event.category()));
+        }
+    }
+
+    private void upsert(ScannedItemDTO row) {
+        String previous = barcodeByItemId.put(row.id(), row.barcode());
+        if (previous != null && !previous.equals(row.barcode())) byBarcode.remove(previous);
+        byBarcode.put(row.barcode(), row);
+    }
+}
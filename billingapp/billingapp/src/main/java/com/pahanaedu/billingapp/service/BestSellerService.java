@@ -0,0 +1,431 @@
+package com.pahanaedu.billingapp.service;
+
+import com.pahanaedu.billingapp.dto.BestSellerDTO;
+import com.pahanaedu.billingapp.dto.ItemSale;
+import com.pahanaedu.billingapp.dto.ItemSummaryDTO;
+import com.pahanaedu.billingapp.dto.ItemUnitsSold;
+import com.pahanaedu.billingapp.event.BillCreatedEvent;
+import com.pahanaedu.billingapp.event.BillDeletedEvent;
+import com.pahanaedu.billingapp.event.BillsPurgedEvent;
+import com.pahanaedu.billingapp.event.ItemChangedEvent;
+import com.pahanaedu.billingapp.repository.BillItemRepository;
+import com.pahanaedu.billingapp.repository.ItemRepository;
+import com.pahanaedu.billingapp.util.LongObjectHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory best-seller ranking.
+ *
+ * Each item has a {@link SalesCounter}: an all-time total plus a ring of
+ * daily buckets covering the longest window. Counters are updated from
+ * committed bills (BillCreatedEvent / BillDeletedEvent) and rebuilt from
+ * bill_item in parallel chunks at startup, so serving a ranking never
+ * touches bill_item.
+ *
+ * The card fields of ranked items (name, price, stock, category; never the
+ * image) are held next to the counters and kept current by committed
+ * {@link ItemChangedEvent}s. Only an item that enters the ranking before its
+ * card is known costs one projection query.
+ */
+@Service
+@Slf4j
+public class BestSellerService {
+
+    public enum Window {
+        DAYS_7("7d", 7), DAYS_30("30d", 30), ALL_TIME("all", 0);
+
+        private final String param;
+        private final int days;   // 0 = all-time
+
+        Window(String param, int days) {
+            this.param = param;
+            this.days = days;
+        }
+
+        public static Window fromParam(String value) {
+            if (value == null || value.isBlank()) return DAYS_30;
+            for (Window w : values()) {
+                if (w.param.equalsIgnoreCase(value.trim())) return w;
+            }
+            throw new IllegalArgumentException("Unsupported window: " + value + " (use 7d, 30d or all)");
+        }
+    }
+
+    static final int RING_DAYS = 30;   // longest rolling window
+    public static final int MAX_LIMIT = 50;
+
+    private final BillItemRepository billItemRepository;
+    private final ItemRepository itemRepository;
+    private final BillHistoryScanner historyScanner;
+    private final ExecutorService executor;
+    private final long refreshMillis;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private LongObjectHashMap<SalesCounter> counters = new LongObjectHashMap<>();
+    private long version;
+    private boolean rebuilding;
+    private final List<Object> eventsDuringRebuild = new ArrayList<>();
+
+    // card fields of ranked items; summaryVersion drops a loaded card that raced an item change
+    private final LongObjectHashMap<ItemSummaryDTO> summaries = new LongObjectHashMap<>();
+    private long summaryVersion;
+
+    // last computed top-N per window; reused while fresh (concurrent map, not synchronized: no carrier pinning)
+    private final Map<Window, Ranking> rankings = new ConcurrentHashMap<>();
+
+    public BestSellerService(BillItemRepository billItemRepository,
+                             ItemRepository itemRepository,
+                             BillHistoryScanner historyScanner,
+                             @Qualifier("backgroundExecutor") ExecutorService executor,
+                             @Value("${app.bestsellers.refresh-ms:1000}") long refreshMillis) {
+        this.billItemRepository = billItemRepository;
+        this.itemRepository = itemRepository;
+        this.historyScanner = historyScanner;
+        this.executor = executor;
+        this.refreshMillis = refreshMillis;
+    }
+
+    // --------- Queries
+
+    /** Top {@code limit} items by units sold in the window, highest first. */
+    public List<BestSellerDTO> top(Window window, int limit) {
+        Ranking ranking = ranking(window);
+        int n = Math.min(Math.max(limit, 1), ranking.itemIds.length);
+        if (n == 0) return List.of();
+
+        ItemSummaryDTO[] cards = new ItemSummaryDTO[n];
+        List<Long> missing = new ArrayList<>();
+        long seenVersion;
+        lock.readLock().lock();
+        try {
+            seenVersion = summaryVersion;
+            for (int i = 0; i < n; i++) {
+                cards[i] = summaries.get(ranking.itemIds[i]);
+                if (cards[i] == null) missing.add(ranking.itemIds[i]);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (!missing.isEmpty()) loadSummaries(missing, seenVersion, ranking, cards);
+
+        List<BestSellerDTO> result = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            if (cards[i] != null) result.add(new BestSellerDTO(ranking.itemIds[i], ranking.units[i], cards[i]));
+        }
+        return result;
+    }
+
+    private void loadSummaries(List<Long> ids, long seenVersion, Ranking ranking, ItemSummaryDTO[] cards) {
+        LongObjectHashMap<ItemSummaryDTO> loaded = new LongObjectHashMap<>(ids.size());
+        for (ItemSummaryDTO card : itemRepository.findSummariesByIdIn(ids)) loaded.put(card.id(), card);
+        for (int i = 0; i < cards.length; i++) {
+            if (cards[i] == null) cards[i] = loaded.get(ranking.itemIds[i]);
+        }
+        lock.writeLock().lock();
+        try {
+            // an item change after the read above may be newer than these rows: serve them, do not keep them
+            if (summaryVersion == seenVersion) {
+                loaded.forEach((id, card) -> {
+                    if (counters.containsKey(id)) summaries.put(id, card);
+                });
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Units sold for one item in the window (0 if never sold). */
+    public long unitsSold(long itemId, Window window) {
+        long today = LocalDate.now().toEpochDay();
+        lock.readLock().lock();
+        try {
+            SalesCounter c = counters.get(itemId);
+            return c == null ? 0 : c.units(window, today);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Ranking ranking(Window window) {
+        long now = System.currentTimeMillis();
+        long today = LocalDate.now().toEpochDay();
+        lock.readLock().lock();
+        try {
+            Ranking cached = rankings.get(window);
+            if (cached != null && cached.day == today
+                    && (cached.version == version || now - cached.builtAt < refreshMillis)) {
+                return cached;
+            }
+            Ranking fresh = computeTop(window, today, now);
+            rankings.put(window, fresh);
+            return fresh;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // caller holds the read lock; bounded min-heap keeps this O(items * log MAX_LIMIT)
+    private Ranking computeTop(Window window, long today, long now) {
+        long[] heapIds = new long[MAX_LIMIT];
+        long[] heapUnits = new long[MAX_LIMIT];
+        int[] size = {0};
+
+        counters.forEach((itemId, counter) -> {
+            long units = counter.units(window, today);
+            if (units <= 0) return;
+            int n = size[0];
+            if (n < MAX_LIMIT) {
+                heapIds[n] = itemId;
+                heapUnits[n] = units;
+                siftUp(heapIds, heapUnits, n);
+                size[0] = n + 1;
+            } else if (units > heapUnits[0]) {
+                heapIds[0] = itemId;
+                heapUnits[0] = units;
+                siftDown(heapIds, heapUnits, n);
+            }
+        });
+
+        // drain the min-heap back to front => descending order
+        int n = size[0];
+        long[] ids = new long[n];
+        long[] units = new long[n];
+        for (int i = n - 1; i >= 0; i--) {
+            ids[i] = heapIds[0];
+            units[i] = heapUnits[0];
+            heapIds[0] = heapIds[i];
+            heapUnits[0] = heapUnits[i];
+            siftDown(heapIds, heapUnits, i);
+        }
+        return new Ranking(version, today, now, ids, units);
+    }
+
+    private static void siftUp(long[] ids, long[] units, int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (units[parent] <= units[i]) break;
+            swap(ids, units, i, parent);
+            i = parent;
+        }
+    }
+
+    private static void siftDown(long[] ids, long[] units, int size) {
+        int i = 0;
+        while (true) {
+            int l = 2 * i + 1, r = l + 1, min = i;
+            if (l < size && units[l] < units[min]) min = l;
+            if (r < size && units[r] < units[min]) min = r;
+            if (min == i) return;
+            swap(ids, units, i, min);
+            i = min;
+        }
+    }
+
+    private static void swap(long[] ids, long[] units, int a, int b) {
+        long t = ids[a]; ids[a] = ids[b]; ids[b] = t;
+        t = units[a]; units[a] = units[b]; units[b] = t;
+    }
+
+    // --------- Updates from committed bills
+
+    @TransactionalEventListener
+    public void onBillCreated(BillCreatedEvent event) {
+        apply(event, event.billDate(), event.itemIds(), event.quantities(), 1);
+    }
+
+    @TransactionalEventListener
+    public void onBillDeleted(BillDeletedEvent event) {
+        apply(event, event.billDate(), event.itemIds(), event.quantities(), -1);
+    }
+
+    @TransactionalEventListener
+    public void onBillsPurged(BillsPurgedEvent event) {
+        event.bills().forEach(this::onBillDeleted);
+    }
+
+    /** Keeps held cards current, checkout stock changes included. */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemChanged(ItemChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            summaryVersion++;
+            if (event.deleted()) {
+                summaries.remove(event.itemId());
+            } else if (summaries.containsKey(event.itemId())) {
+                summaries.put(event.itemId(), new ItemSummaryDTO(event.itemId(), event.name(),
+                        event.price(), event.stock(), event.category()));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void apply(Object event, LocalDateTime billDate, long[] itemIds, int[] quantities, int sign) {
+        long day = (billDate != null ? billDate.toLocalDate() : LocalDate.now()).toEpochDay();
+        long today = LocalDate.now().toEpochDay();
+        lock.writeLock().lock();
+        try {
+            if (rebuilding) eventsDuringRebuild.add(event);
+            addLines(counters, day, today, itemIds, quantities, sign);
+            version++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void addLines(LongObjectHashMap<SalesCounter> target, long day, long today,
+                                 long[] itemIds, int[] quantities, int sign) {
+        for (int i = 0; i < itemIds.length; i++) {
+            if (itemIds[i] == 0) continue;
+            target.computeIfAbsent(itemIds[i], id -> new SalesCounter())
+                    .add(day, today, (long) sign * quantities[i]);
+        }
+    }
+
+    // --------- Rebuild from history
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        executor.execute(this::rebuild);
+    }
+
+    /** Recomputes all counters from bill_item; live events keep flowing while it runs. */
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            rebuilding = true;
+            eventsDuringRebuild.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        try {
+            long maxBillId = historyScanner.currentMaxBillId();
+            LocalDate todayDate = LocalDate.now();
+            long today = todayDate.toEpochDay();
+            LocalDateTime since = todayDate.minusDays(RING_DAYS - 1).atStartOfDay();
+
+            List<LongObjectHashMap<SalesCounter>> partials = historyScanner.scan(maxBillId, (from, to) -> {
+                LongObjectHashMap<SalesCounter> part = new LongObjectHashMap<>();
+                for (ItemUnitsSold row : billItemRepository.sumUnitsByItem(from, to)) {
+                    part.computeIfAbsent(row.itemId(), id -> new SalesCounter()).total += row.units();
+                }
+                for (ItemSale sale : billItemRepository.findSalesSince(from, to, since)) {
+                    part.computeIfAbsent(sale.itemId(), id -> new SalesCounter())
+                            .addToDay(sale.billDate().toLocalDate().toEpochDay(), today, sale.quantity());
+                }
+                return part;
+            });
+
+            LongObjectHashMap<SalesCounter> fresh = new LongObjectHashMap<>();
+            for (LongObjectHashMap<SalesCounter> part : partials) {
+                part.forEach((itemId, c) -> fresh.computeIfAbsent(itemId, id -> new SalesCounter()).merge(c));
+            }
+
+            lock.writeLock().lock();
+            try {
+                // bills committed after the scan snapshot are not in `fresh` yet; a delete that
+                // raced its chunk's scan can leave an item briefly under-counted until the next rebuild
+                for (Object e : eventsDuringRebuild) {
+                    if (e instanceof BillCreatedEvent c && c.billId() > maxBillId) {
+                        addLines(fresh, dayOf(c.billDate()), today, c.itemIds(), c.quantities(), 1);
+                    } else if (e instanceof BillDeletedEvent d) {
+                        addLines(fresh, dayOf(d.billDate()), today, d.itemIds(), d.quantities(), -1);
+                    }
+                }
+                counters = fresh;
+                version++;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("Best-seller ranking rebuilt: {} items, bills up to #{} in {} ms",
+                    fresh.size(), maxBillId, System.currentTimeMillis() - started);
+        } catch (RuntimeException ex) {
+            log.warn("Best-seller ranking rebuild failed; serving live counters only", ex);
+        } finally {
+            lock.writeLock().lock();
+            try {
+                rebuilding = false;
+                eventsDuringRebuild.clear();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    private static long dayOf(LocalDateTime billDate) {
+        return (billDate != null ? billDate.toLocalDate() : LocalDate.now()).toEpochDay();
+    }
+
+    // --------- Counters
+
+    private record Ranking(long version, long day, long builtAt, long[] itemIds, long[] units) {}
+
+    /** All-time total plus a ring of daily buckets; bucket i holds epochDay stamps[i]. */
+    static final class SalesCounter {
+        long total;
+        final long[] dayUnits = new long[RING_DAYS];
+        final long[] dayStamps = new long[RING_DAYS];
+
+        SalesCounter() {
+            Arrays.fill(dayStamps, Long.MIN_VALUE);
+        }
+
+        void add(long day, long today, long delta) {
+            total += delta;
+            addToDay(day, today, delta);
+        }
+
+        /** Adds to the bucket for {@code day}; days that already fell out of the ring are ignored. */
+        void addToDay(long day, long today, long delta) {
+            if (day <= today - RING_DAYS || day > today) return;
+            int slot = (int) Math.floorMod(day, (long) RING_DAYS);
+            if (dayStamps[slot] != day) {
+                if (dayStamps[slot] > day || delta < 0) return;   // stale day, bucket already reused
+                dayStamps[slot] = day;
+                dayUnits[slot] = 0;
+            }
+            dayUnits[slot] += delta;
+        }
+
+        long units(Window window, long today) {
+            if (window.days == 0) return total;
+            long sum = 0;
+            long oldest = today - window.days;
+            for (int i = 0; i < RING_DAYS; i++) {
+                if (dayStamps[i] > oldest && dayStamps[i] <= today) sum += dayUnits[i];
+            }
+            return sum;
+        }
+
+        void merge(SalesCounter other) {
+            total += other.total;
+            for (int i = 0; i < RING_DAYS; i++) {
+                if (other.dayStamps[i] == Long.MIN_VALUE) continue;
+                if (dayStamps[i] == other.dayStamps[i]) {
+                    dayUnits[i] += other.dayUnits[i];
+                } else if (dayStamps[i] < other.dayStamps[i]) {
+                    dayStamps[i] = other.dayStamps[i];
+                    dayUnits[i] = other.dayUnits[i];
+                }
+            }
+        }
+    }
+}
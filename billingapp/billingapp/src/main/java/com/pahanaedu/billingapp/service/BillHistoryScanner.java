@@ -0,0 +1,62 @@
+package com.pahanaedu.billingapp.service;
+
+import com.pahanaedu.billingapp.repository.BillRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Splits bill history into bill-id ranges and loads them in parallel on the
+ * background pool. Used by the in-memory read models to rebuild at startup.
+ */
+@Component
+@Slf4j
+public class BillHistoryScanner {
+
+    @FunctionalInterface
+    public interface ChunkLoader<T> {
+        T load(long fromBillId, long toBillId);
+    }
+
+    private final BillRepository billRepository;
+    private final ExecutorService executor;
+    private final long chunkSize;
+
+    public BillHistoryScanner(BillRepository billRepository,
+                              @Qualifier("backgroundExecutor") ExecutorService executor,
+                              @Value("${app.history-scan.chunk-size:50000}") long chunkSize) {
+        this.billRepository = billRepository;
+        this.executor = executor;
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    /** Highest bill id right now; a scan up to this id plus later events covers everything exactly once. */
+    public long currentMaxBillId() {
+        return billRepository.findMaxId();
+    }
+
+    /**
+     * Runs {@code loader} for every chunk of bill ids up to {@code maxBillId} and
+     * returns the results in chunk order. The caller runs chunks no worker has
+     * picked up yet (see ChunkTasks), so it may itself be a background-pool task.
+     */
+    public <T> List<T> scan(long maxBillId, ChunkLoader<T> loader) {
+        long minBillId = billRepository.findMinId();
+        if (maxBillId <= 0 || minBillId <= 0 || minBillId > maxBillId) return List.of();
+
+        List<Callable<T>> chunks = new ArrayList<>();
+        for (long from = minBillId; from <= maxBillId; from += chunkSize) {
+            long lo = from;
+            long hi = Math.min(maxBillId, from + chunkSize - 1);
+            chunks.add(() -> loader.load(lo, hi));
+        }
+        log.debug("Scanning bills {}..{} in {} chunks", minBillId, maxBillId, chunks.size());
+        return ChunkTasks.runAll(executor, chunks);
+    }
+}
@@ -3,6 +3,8 @@ package com.pahanaedu.billingapp.service;
 import com.pahanaedu.billingapp.model.Bill;
 import com.pahanaedu.billingapp.repository.BillRepository;
 import com.pahanaedu.billingapp.util.PdfGeneratorUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.stereotype.Service;
 import org.thymeleaf.TemplateEngine;
 import org.thymeleaf.context.Context;
@@ -12,13 +14,21 @@ public class BillPDFService {
 
     private final BillRepository billRepository;
     private final TemplateEngine templateEngine;
+    private final Timer generateTimer;
 
-    public BillPDFService(BillRepository billRepository, TemplateEngine templateEngine) {
+    public BillPDFService(BillRepository billRepository, TemplateEngine templateEngine, MeterRegistry meterRegistry) {
         this.billRepository = billRepository;
         this.templateEngine = templateEngine;
+        this.generateTimer = Timer.builder("billing.pdf.generate")
+                .description("Bill load, template render and PDF layout")
+                .register(meterRegistry);
     }
 
     public byte[] generateBillPdf(Long billId) {
+        return generateTimer.record(() -> render(billId));
+    }
+
+    private byte[] render(Long billId) {
         Bill bill = billRepository.findById(billId)
                 .orElseThrow(() -> new IllegalArgumentException("Bill not found"));
 
@@ -28,4 +38,4 @@ public class BillPDFService {
         String html = templateEngine.process("bill-pdf", context);
         return PdfGeneratorUtil.generatePdfFromHtml(html);
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
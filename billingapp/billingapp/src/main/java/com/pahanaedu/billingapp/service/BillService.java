@@ -2,6 +2,8 @@ package com.pahanaedu.billingapp.service;
 
 import com.pahanaedu.billingapp.dto.BillDTO;
 import com.pahanaedu.billingapp.dto.BillItemDTO;
+import com.pahanaedu.billingapp.event.BillCreatedEvent;
+import com.pahanaedu.billingapp.event.BillDeletedEvent;
 import com.pahanaedu.billingapp.model.Bill;
 import com.pahanaedu.billingapp.model.BillItem;
 import com.pahanaedu.billingapp.model.Customer;
@@ -9,7 +11,14 @@ import com.pahanaedu.billingapp.model.Item;
 import com.pahanaedu.billingapp.repository.BillRepository;
 import com.pahanaedu.billingapp.repository.CustomerRepository;
 import com.pahanaedu.billingapp.repository.ItemRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -21,23 +30,44 @@ public class BillService {
     private final BillRepository billRepository;
     private final CustomerRepository customerRepository;
     private final ItemRepository itemRepository;
+    private final ApplicationEventPublisher events;
+    private final Timer createCommitted;
+    private final Timer createRolledBack;
+    private final Counter stockFailures;
 
     public BillService(BillRepository billRepository,
                        CustomerRepository customerRepository,
-                       ItemRepository itemRepository) {
+                       ItemRepository itemRepository,
+                       ApplicationEventPublisher events,
+                       MeterRegistry meterRegistry) {
         this.billRepository = billRepository;
         this.customerRepository = customerRepository;
         this.itemRepository = itemRepository;
+        this.events = events;
+        this.createCommitted = createTimer(meterRegistry, "committed");
+        this.createRolledBack = createTimer(meterRegistry, "rolled-back");
+        this.stockFailures = Counter.builder("billing.stock.reservation.failures")
+                .description("Bills refused because an item had too little stock")
+                .register(meterRegistry);
     }
 
-    // 🔹 Fetch all bills
+    private static Timer createTimer(MeterRegistry registry, String outcome) {
+        return Timer.builder("billing.bill.create")
+                .description("createBill from entry to commit or rollback")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    // 🔹 Fetch all bills (read-only: served by the read replica when one is configured)
+    @Transactional(readOnly = true)
     public List<Bill> getAllBills() {
-        return billRepository.findAll();
+        return billRepository.findAllWithLines();
     }
 
     // 🔹 Fetch bill by ID
+    @Transactional(readOnly = true)
     public Bill getBillById(Long id) {
-        return billRepository.findById(id)
+        return billRepository.findWithLinesById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Bill with ID " + id + " not found"));
     }
 
@@ -46,15 +76,30 @@ public class BillService {
         return billRepository.save(bill);
     }
 
-    // 🔹 Delete a bill by ID
+    // 🔹 Delete a bill by ID (listeners see the removed lines after commit)
+    @Transactional
     public void deleteBill(Long id) {
-        billRepository.deleteById(id);
+        billRepository.findById(id).ifPresent(bill -> {
+            events.publishEvent(BillDeletedEvent.of(bill));
+            billRepository.delete(bill);
+        });
     }
 
 
 
     // 🔹 Swagger-compatible: Create a bill with items and customer
+    // One transaction: stock deductions and the bill commit (or roll back) together
+    @Transactional
     public Bill createBill(BillDTO billDTO) {
+        // stopped after completion, so the timing includes the flush and commit
+        Timer.Sample sample = Timer.start();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                sample.stop(status == STATUS_COMMITTED ? createCommitted : createRolledBack);
+            }
+        });
+
         // ✅ Validate Customer
         Customer customer = customerRepository.findById(billDTO.getCustomerId())
                 .orElseThrow(() ->
@@ -70,11 +115,12 @@ public class BillService {
 
         // ✅ Process each item
         for (BillItemDTO itemDTO : billDTO.getItems()) {
-            Item item = itemRepository.findById(itemDTO.getItemId())
+            Item item = itemRepository.findForCheckoutById(itemDTO.getItemId())
                     .orElseThrow(() ->
                             new IllegalArgumentException("Item with ID " + itemDTO.getItemId() + " not found"));
 
             if (item.getStock() < itemDTO.getQuantity()) {
+                stockFailures.increment();
                 throw new IllegalArgumentException("Insufficient stock for item: " + item.getName());
             }
 
@@ -99,6 +145,8 @@ public class BillService {
         bill.setTotalAmount(totalAmount);
 
         // ✅ Save bill and return full object
-        return billRepository.save(bill);
+        Bill saved = billRepository.save(bill);
+        events.publishEvent(BillCreatedEvent.of(saved));
+        return saved;
     }
 }
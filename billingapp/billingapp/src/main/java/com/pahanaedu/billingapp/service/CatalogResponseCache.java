@@ -0,0 +1,205 @@
+package com.pahanaedu.billingapp.service;
+
+import com.pahanaedu.billingapp.dto.CacheStatsDTO;
+import com.pahanaedu.billingapp.event.BillCreatedEvent;
+import com.pahanaedu.billingapp.event.BillDeletedEvent;
+import com.pahanaedu.billingapp.event.BillsPurgedEvent;
+import com.pahanaedu.billingapp.event.ItemChangedEvent;
+import com.pahanaedu.billingapp.repository.ItemSort;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encoded catalogue responses (item pages, item detail, category facets) kept
+ * as the bytes Jackson produced, a gzip copy and their ETags, so a repeat
+ * request is a map lookup and a buffer write (see CatalogResponseCacheFilter).
+ *
+ * Invalidated by committed {@link ItemChangedEvent}s, checkout stock changes
+ * included: every page and the facets go, plus the changed item's detail.
+ * Pages sorted by sales (sort=bestselling) read bill_item, so committed bill
+ * creates, deletes and purges drop those too. A response built across an
+ * invalidation is not kept. While a read replica is in use, nothing is stored
+ * for settleMillis (its staleness tolerance) after an invalidation, because the
+ * replica may still be serving the old rows.
+ *
+ * The events are local to this JVM, so every entry also expires ttlMillis after
+ * it was stored (0 = never): with several instances, that is how long a write
+ * on another node can go unseen here.
+ */
+public class CatalogResponseCache {
+
+    private static final String DETAIL_PREFIX = "item:";
+
+    /** One response: identity body with its ETag, and the gzip body (null when too small to bother). */
+    public record Entry(String contentType, byte[] body, String etag, byte[] gzip, String gzipEtag) {
+
+        /** If-None-Match against either variant; weak validators compare by value. */
+        public boolean matches(String ifNoneMatch) {
+            if (ifNoneMatch == null) return false;
+            for (String tag : ifNoneMatch.split(",")) {
+                String t = tag.trim();
+                if (t.equals("*")) return true;
+                if (t.startsWith("W/")) t = t.substring(2);
+                if (t.equals(etag) || t.equals(gzipEtag)) return true;
+            }
+            return false;
+        }
+    }
+
+    private final int maxEntries;
+    private final int gzipMinBytes;
+    private final long settleMillis;
+    private final long ttlMillis;
+
+    private final ConcurrentHashMap<String, Stored> entries = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();     // bumped on every invalidation
+    private volatile long invalidatedAt;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public CatalogResponseCache(int maxEntries, int gzipMinBytes, long settleMillis, long ttlMillis) {
+        this.maxEntries = Math.max(1, maxEntries);
+        this.gzipMinBytes = gzipMinBytes;
+        this.settleMillis = settleMillis;
+        this.ttlMillis = Math.max(0, ttlMillis);
+    }
+
+    public static String detailKey(long itemId) {
+        return DETAIL_PREFIX + itemId;
+    }
+
+    public Entry get(String key) {
+        Stored s = entries.get(key);
+        if (s != null && s.expired(System.currentTimeMillis())) {
+            if (entries.remove(key, s)) evictions.increment();
+            s = null;
+        }
+        if (s != null) hits.increment();
+        else misses.increment();
+        return s == null ? null : s.entry();
+    }
+
+    /** Read before building a response; pass it to {@link #put} so a build that overlapped a write is dropped. */
+    public long generation() {
+        return generation.get();
+    }
+
+    /** Encodes the body (ETag, gzip) and keeps it unless an invalidation overlapped; returns it either way. */
+    public Entry put(String key, long seenGeneration, String contentType, byte[] body) {
+        Entry e = encode(contentType, body);
+        long now = System.currentTimeMillis();
+        if (generation.get() != seenGeneration || now - invalidatedAt < settleMillis) return e;
+        if (entries.size() >= maxEntries && !entries.containsKey(key)) evictOne();
+        Stored s = new Stored(e, ttlMillis == 0 ? Long.MAX_VALUE : now + ttlMillis);
+        entries.put(key, s);
+        // an invalidation between the check and the put has already cleared: undo ours
+        if (generation.get() != seenGeneration) entries.remove(key, s);
+        return e;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemChanged(ItemChangedEvent event) {
+        String detail = detailKey(event.itemId());
+        invalidate(key -> !key.startsWith(DETAIL_PREFIX) || key.equals(detail));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBillCreated(BillCreatedEvent event) {
+        invalidate(CatalogResponseCache::salesOrdered);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBillDeleted(BillDeletedEvent event) {
+        invalidate(CatalogResponseCache::salesOrdered);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBillsPurged(BillsPurgedEvent event) {
+        invalidate(CatalogResponseCache::salesOrdered);
+    }
+
+    public CacheStatsDTO stats() {
+        long h = hits.sum(), m = misses.sum();
+        return new CacheStatsDTO("catalog-responses", entries.size(), maxEntries, h, m,
+                h + m == 0 ? 0 : (double) h / (h + m), invalidations.sum(), evictions.sum());
+    }
+
+    // --------- internals
+
+    private record Stored(Entry entry, long expiresAt) {
+        boolean expired(long now) {
+            return now >= expiresAt;
+        }
+    }
+
+    private void invalidate(Predicate<String> stale) {
+        generation.incrementAndGet();
+        invalidatedAt = System.currentTimeMillis();
+        entries.keySet().removeIf(stale);
+        invalidations.increment();
+    }
+
+    /** A page key (path?param=value&..., values URL-encoded) whose sort parameter orders by units sold. */
+    static boolean salesOrdered(String key) {
+        int q = key.indexOf('?');
+        if (q < 0) return false;
+        for (String param : key.substring(q + 1).split("&")) {
+            if (param.startsWith("sort=") && URLDecoder.decode(param.substring(5), StandardCharsets.UTF_8).trim()
+                    .equalsIgnoreCase(ItemSort.BESTSELLING.getParam())) return true;
+        }
+        return false;
+    }
+
+    private Entry encode(String contentType, byte[] body) {
+        String hash = hash(body);
+        byte[] gzip = body.length >= gzipMinBytes ? gzip(body) : null;
+        return new Entry(contentType, body, '"' + hash + '"', gzip, gzip == null ? null : "\"" + hash + "-gz\"");
+    }
+
+    // any entry will do: the map is only a bound, hot keys come straight back
+    private void evictOne() {
+        Iterator<String> it = entries.keySet().iterator();
+        if (it.hasNext()) {
+            it.next();
+            it.remove();
+            evictions.increment();
+        }
+    }
+
+    private static String hash(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, 16));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+            gz.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
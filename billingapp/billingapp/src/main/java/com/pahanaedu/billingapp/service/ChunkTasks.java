@@ -0,0 +1,48 @@
+package com.pahanaedu.billingapp.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Fan-out for chunked background work (history scans, backfills). The caller
+ * waits by running every chunk no worker has picked up yet itself, so a
+ * coordinator may run on the same pool as its chunks without starving them.
+ */
+final class ChunkTasks {
+
+    private ChunkTasks() {}
+
+    /** Runs the chunks on {@code executor} (and the calling thread); results in chunk order. */
+    static <T> List<T> runAll(ExecutorService executor, List<Callable<T>> chunks) {
+        List<FutureTask<T>> tasks = new ArrayList<>(chunks.size());
+        for (Callable<T> chunk : chunks) {
+            FutureTask<T> task = new FutureTask<>(chunk);
+            tasks.add(task);
+            executor.execute(task);
+        }
+        List<T> results = new ArrayList<>(tasks.size());
+        for (FutureTask<T> task : tasks) {
+            task.run();     // no-op once a worker has started it
+            results.add(join(task));
+        }
+        return results;
+    }
+
+    private static <T> T join(FutureTask<T> task) {
+        try {
+            return task.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw new CompletionException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while waiting for a chunk");
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.pahanaedu.billingapp.service;
+
+import com.pahanaedu.billingapp.dto.CustomerLookupDTO;
+import com.pahanaedu.billingapp.event.CustomerChangedEvent;
+import com.pahanaedu.billingapp.event.WarmupCompletedEvent;
+import com.pahanaedu.billingapp.repository.CustomerRepository;
+import com.pahanaedu.billingapp.util.ContactKeys;
+import com.pahanaedu.billingapp.util.LongObjectHashMap;
+import com.pahanaedu.billingapp.util.StringObjectHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * In-memory phone/email -> customer index for the till.
+ *
+ * Holds at most {@code app.customer-lookup.max-entries} customers, loaded at
+ * startup most-recently-active first and kept in sync by committed
+ * {@link CustomerChangedEvent}s. The load runs on a background thread;
+ * until it finishes every lookup goes to the database. While every customer fits, a miss is final;
+ * once the table outgrows the bound, misses fall through to the unique
+ * phone_key / email_key indexes and hits are added while there is room.
+ */
+@Service
+@Slf4j
+public class CustomerLookupIndex {
+
+    private final CustomerRepository customerRepository;
+    private final ApplicationEventPublisher events;
+    private final ExecutorService executor;
+    private final int maxEntries;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final StringObjectHashMap<CustomerLookupDTO> byPhone = new StringObjectHashMap<>();
+    private final StringObjectHashMap<CustomerLookupDTO> byEmail = new StringObjectHashMap<>();
+    private final LongObjectHashMap<CustomerLookupDTO> byId = new LongObjectHashMap<>();
+    private volatile boolean loaded;
+    private boolean complete;          // every customer with a key is in the index
+    private boolean loading;
+    private long version;              // bumped on every change; guards DB fills against racing updates
+    private final List<CustomerChangedEvent> eventsDuringLoad = new ArrayList<>();
+
+    public CustomerLookupIndex(CustomerRepository customerRepository, ApplicationEventPublisher events,
+                               @Qualifier("backgroundExecutor") ExecutorService executor,
+                               @Value("${app.customer-lookup.max-entries:100000}") int maxEntries) {
+        this.customerRepository = customerRepository;
+        this.events = events;
+        this.executor = executor;
+        this.maxEntries = Math.max(1, maxEntries);
+    }
+
+    // --------- Lookups
+
+    public Optional<CustomerLookupDTO> findByPhone(String phone) {
+        String key = ContactKeys.phone(phone);
+        if (key == null) return Optional.empty();
+        return find(key, byPhone, () -> customerRepository.findLookupByPhoneKey(key));
+    }
+
+    public Optional<CustomerLookupDTO> findByEmail(String email) {
+        String key = ContactKeys.email(email);
+        if (key == null) return Optional.empty();
+        return find(key, byEmail, () -> customerRepository.findLookupByEmailKey(key));
+    }
+
+    private Optional<CustomerLookupDTO> find(String key, StringObjectHashMap<CustomerLookupDTO> table,
+                                             Supplier<Optional<CustomerLookupDTO>> db) {
+        if (!loaded) return db.get();
+
+        long seen;
+        lock.readLock().lock();
+        try {
+            CustomerLookupDTO hit = table.get(key);
+            if (hit != null || complete) return Optional.ofNullable(hit);
+            seen = version;
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        Optional<CustomerLookupDTO> row = db.get();
+        row.ifPresent(r -> {
+            lock.writeLock().lock();
+            try {
+                // skip if a write landed meanwhile; the row read may predate it
+                if (version == seen && byId.size() < maxEntries) add(r);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+        return row;
+    }
+
+    // --------- Sync
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        executor.execute(this::load);
+    }
+
+    public void load() {
+        long started = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            loading = true;
+            eventsDuringLoad.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        // one extra row tells us whether everything fit
+        List<CustomerLookupDTO> rows;
+        try {
+            rows = customerRepository.findLookupsByRecentActivity(Limit.of(maxEntries + 1));
+        } catch (RuntimeException ex) {
+            lock.writeLock().lock();
+            try {
+                loading = false;
+                eventsDuringLoad.clear();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.warn("Customer lookup index load failed; lookups stay on the database", ex);
+            return;
+        }
+        boolean fits = rows.size() <= maxEntries;
+        lock.writeLock().lock();
+        try {
+            for (int i = 0; i < rows.size() && i < maxEntries; i++) add(rows.get(i));
+            complete = fits;
+            for (CustomerChangedEvent e : eventsDuringLoad) apply(e);
+            eventsDuringLoad.clear();
+            loading = false;
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        long millis = System.currentTimeMillis() - started;
+        log.info("Customer lookup index loaded: {} customers ({}) in {} ms", byId.size(),
+                fits ? "complete" : "most recent " + maxEntries, millis);
+        events.publishEvent(new WarmupCompletedEvent("customer-lookup", Math.min(rows.size(), maxEntries), millis));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCustomerChanged(CustomerChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (loading) eventsDuringLoad.add(event);
+            apply(event);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // --------- Table maintenance (caller holds the write lock)
+
+    private void apply(CustomerChangedEvent e) {
+        version++;
+        CustomerLookupDTO previous = byId.remove(e.customerId());
+        if (previous != null) unlink(previous);
+        if (e.deleted() || (e.phoneKey() == null && e.emailKey() == null)) return;
+
+        if (previous == null && byId.size() >= maxEntries) {
+            complete = false;   // no room: this customer is only reachable through the DB
+            return;
+        }
+        add(new CustomerLookupDTO(e.customerId(), e.name(), e.email(), e.phone(), e.phoneKey(), e.emailKey()));
+    }
+
+    private void add(CustomerLookupDTO row) {
+        CustomerLookupDTO previous = byId.put(row.id(), row);
+        if (previous != null) unlink(previous);
+        if (row.phoneKey() != null) byPhone.put(row.phoneKey(), row);
+        if (row.emailKey() != null) byEmail.put(row.emailKey(), row);
+    }
+
+    private void unlink(CustomerLookupDTO row) {
+        if (row.phoneKey() != null && byPhone.get(row.phoneKey()) == row) byPhone.remove(row.phoneKey());
+        if (row.emailKey() != null && byEmail.get(row.emailKey()) == row) byEmail.remove(row.emailKey());
+    }
+}
@@ -0,0 +1,218 @@
+package com.pahanaedu.billingapp.service;
+
+import com.pahanaedu.billingapp.dto.BillLineDetail;
+import com.pahanaedu.billingapp.dto.PurgeStatusDTO;
+import com.pahanaedu.billingapp.event.BillDeletedEvent;
+import com.pahanaedu.billingapp.event.BillsPurgedEvent;
+import com.pahanaedu.billingapp.event.CustomerChangedEvent;
+import com.pahanaedu.billingapp.model.Customer;
+import com.pahanaedu.billingapp.repository.BillItemRepository;
+import com.pahanaedu.billingapp.repository.BillRepository;
+import com.pahanaedu.billingapp.repository.CustomerRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Deletes a customer and its history with bulk deletes in dependency order
+ * (bill_item, then bill, then customer), never loading the entities.
+ *
+ * Bills go in chunks of {@code app.customer-purge.chunk-size}, each chunk in
+ * its own short transaction, so row locks are only held for one chunk and
+ * other requests interleave between chunks. Customers with more than
+ * {@code app.customer-purge.sync-max-bills} bills are purged on the
+ * background pool and report progress through {@link #status(long)}.
+ */
+@Service
+@Slf4j
+public class CustomerPurgeService {
+
+    private static final int MAX_TRACKED_JOBS = 100;
+
+    private final CustomerRepository customerRepository;
+    private final BillRepository billRepository;
+    private final BillItemRepository billItemRepository;
+    private final TransactionTemplate tx;
+    private final ApplicationEventPublisher events;
+    private final ExecutorService executor;
+    private final int chunkSize;
+    private final long syncMaxBills;
+    private final long pauseMillis;
+
+    private final AtomicLong jobSeq = new AtomicLong();
+    private final Map<Long, PurgeJob> jobs = new ConcurrentHashMap<>();
+    private final Map<Long, PurgeJob> runningByCustomer = new ConcurrentHashMap<>();
+
+    public CustomerPurgeService(CustomerRepository customerRepository,
+                                BillRepository billRepository,
+                                BillItemRepository billItemRepository,
+                                TransactionTemplate tx,
+                                ApplicationEventPublisher events,
+                                @Qualifier("backgroundExecutor") ExecutorService executor,
+                                @Value("${app.customer-purge.chunk-size:500}") int chunkSize,
+                                @Value("${app.customer-purge.sync-max-bills:1000}") long syncMaxBills,
+                                @Value("${app.customer-purge.pause-ms:10}") long pauseMillis) {
+        this.customerRepository = customerRepository;
+        this.billRepository = billRepository;
+        this.billItemRepository = billItemRepository;
+        this.tx = tx;
+        this.events = events;
+        this.executor = executor;
+        // stays well under SQL Server's 2100 parameters per statement
+        this.chunkSize = Math.min(Math.max(chunkSize, 1), 2000);
+        this.syncMaxBills = syncMaxBills;
+        this.pauseMillis = Math.max(0, pauseMillis);
+    }
+
+    /** True if the customer's history is small enough to delete within the request. */
+    public boolean canPurgeNow(Customer customer) {
+        return customer.getBillCount() <= syncMaxBills;
+    }
+
+    /** Deletes the customer and all its bills on the calling thread. */
+    public void purgeNow(Long customerId) {
+        Customer customer = customerRepository.findById(customerId)
+                .orElseThrow(() -> new RuntimeException("Customer not found"));
+        run(new PurgeJob(0, customerId, customer.getBillCount()));
+    }
+
+    /**
+     * Starts a background purge, or returns the one already running for this customer.
+     * The customer stays visible (with a shrinking history) until the last chunk commits.
+     */
+    public PurgeStatusDTO startPurge(Customer customer) {
+        PurgeJob job = runningByCustomer.computeIfAbsent(customer.getId(), id -> {
+            PurgeJob created = new PurgeJob(jobSeq.incrementAndGet(), id, customer.getBillCount());
+            jobs.put(created.id, created);
+            executor.execute(() -> {
+                try {
+                    run(created);
+                } finally {
+                    runningByCustomer.remove(id, created);
+                }
+            });
+            return created;
+        });
+        pruneFinishedJobs();
+        return job.toDto();
+    }
+
+    public Optional<PurgeStatusDTO> status(long jobId) {
+        PurgeJob job = jobs.get(jobId);
+        return job == null ? Optional.empty() : Optional.of(job.toDto());
+    }
+
+    private void run(PurgeJob job) {
+        try {
+            while (true) {
+                Integer deleted = tx.execute(status -> deleteNextChunk(job.customerId));
+                if (deleted == null || deleted == 0) break;
+                job.deletedBills.addAndGet(deleted);
+                if (pauseMillis > 0) Thread.sleep(pauseMillis);
+            }
+            job.finish("DONE", null);
+            log.info("Purged customer #{}: {} bills in {} ms", job.customerId, job.deletedBills.get(),
+                    Duration.between(job.startedAt, job.finishedAt).toMillis());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            job.finish("FAILED", "Interrupted");
+        } catch (RuntimeException ex) {
+            job.finish("FAILED", ex.getMessage());
+            if (job.id == 0) throw ex;
+            log.warn("Purge of customer #{} failed after {} bills", job.customerId, job.deletedBills.get(), ex);
+        }
+    }
+
+    // One transaction: next chunk of bills and their lines, or the customer row once no bills are left.
+    private int deleteNextChunk(Long customerId) {
+        List<Long> billIds = billRepository.findIdsByCustomerId(customerId, Limit.of(chunkSize));
+        if (billIds.isEmpty()) {
+            customerRepository.deleteAllByIdInBatch(List.of(customerId));
+            // bulk delete skips the entity listener, so announce it here
+            events.publishEvent(CustomerChangedEvent.removed(customerId));
+            return 0;
+        }
+        List<BillDeletedEvent> removed = describe(customerId, billItemRepository.findLineDetails(billIds));
+        billItemRepository.deleteByBillIds(billIds);
+        billRepository.deleteAllByIdInBatch(billIds);
+        // read models drop these bills once the chunk commits
+        events.publishEvent(new BillsPurgedEvent(customerId, removed));
+        return billIds.size();
+    }
+
+    // Regroups line rows (ordered by bill) into one BillDeletedEvent per bill
+    private static List<BillDeletedEvent> describe(Long customerId, List<BillLineDetail> lines) {
+        List<BillDeletedEvent> bills = new ArrayList<>();
+        int start = 0;
+        while (start < lines.size()) {
+            BillLineDetail head = lines.get(start);
+            int end = start;
+            while (end < lines.size() && lines.get(end).billId().equals(head.billId())) end++;
+            long[] itemIds = new long[end - start];
+            int[] quantities = new int[end - start];
+            for (int i = start; i < end; i++) {
+                BillLineDetail line = lines.get(i);
+                itemIds[i - start] = line.itemId() != null ? line.itemId() : 0L;
+                quantities[i - start] = line.quantity() != null ? line.quantity() : 0;
+            }
+            bills.add(new BillDeletedEvent(head.billId(), customerId, head.billDate(), head.totalAmount(),
+                    itemIds, quantities));
+            start = end;
+        }
+        return bills;
+    }
+
+    private void pruneFinishedJobs() {
+        if (jobs.size() <= MAX_TRACKED_JOBS) return;
+        long[] finished = jobs.values().stream()
+                .filter(j -> j.finishedAt != null)
+                .mapToLong(j -> j.id)
+                .sorted()
+                .toArray();
+        int excess = jobs.size() - MAX_TRACKED_JOBS;
+        Arrays.stream(finished).limit(excess).forEach(jobs::remove);
+    }
+
+    private static final class PurgeJob {
+        final long id;
+        final Long customerId;
+        final long totalBills;
+        final LocalDateTime startedAt = LocalDateTime.now();
+        final AtomicLong deletedBills = new AtomicLong();
+        volatile String state = "RUNNING";
+        volatile LocalDateTime finishedAt;
+        volatile String error;
+
+        PurgeJob(long id, Long customerId, long totalBills) {
+            this.id = id;
+            this.customerId = customerId;
+            this.totalBills = totalBills;
+        }
+
+        void finish(String state, String error) {
+            this.error = error;
+            this.finishedAt = LocalDateTime.now();
+            this.state = state;
+        }
+
+        PurgeStatusDTO toDto() {
+            return new PurgeStatusDTO(id, customerId, state, totalBills, deletedBills.get(),
+                    startedAt, finishedAt, error);
+        }
+    }
+}
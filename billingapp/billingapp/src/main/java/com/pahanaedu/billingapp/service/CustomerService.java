@@ -1,9 +1,15 @@
 package com.pahanaedu.billingapp.service;
 
+import com.pahanaedu.billingapp.dto.BillSummaryDTO;
+import com.pahanaedu.billingapp.dto.CustomerSummaryDTO;
 import com.pahanaedu.billingapp.model.Customer;
 import com.pahanaedu.billingapp.repository.BillRepository;
 import com.pahanaedu.billingapp.repository.CustomerRepository;
+import com.pahanaedu.billingapp.util.LikePatterns;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -18,11 +24,46 @@ public class CustomerService {
     @Autowired
     private BillRepository billRepository;
 
+    @Autowired
+    private CustomerPurgeService customerPurgeService;
+
     public List<Customer> getAllCustomers() {
         return customerRepository.findAll();
     }
 
+    // Paged customer list; q matches the start of name, email or phone
+    @Transactional(readOnly = true)
+    public Page<CustomerSummaryDTO> searchCustomers(String q, int page, int size) {
+        PageRequest pageable = PageRequest.of(page, size, Sort.by("name", "id"));
+        if (q == null || q.isBlank()) {
+            return customerRepository.findAllSummaries(pageable);
+        }
+        return customerRepository.searchSummaries(LikePatterns.prefix(q.trim()), pageable);
+    }
+
+    // Paged bill headers for one customer, newest first
+    @Transactional(readOnly = true)
+    public Page<BillSummaryDTO> getCustomerBills(Long customerId, int page, int size) {
+        return billRepository.findSummariesByCustomerId(customerId, PageRequest.of(page, size));
+    }
+
+    public boolean customerExists(Long id) {
+        return customerRepository.existsById(id);
+    }
+
+    // Phone/email keys are unique (ux_customer_phone_key / ux_customer_email_key); say which one clashed
     public Customer saveCustomer(Customer customer) {
+        Long id = customer.getId();
+        String phoneKey = customer.getPhoneKey();
+        if (phoneKey != null && (id == null ? customerRepository.existsByPhoneKey(phoneKey)
+                                            : customerRepository.existsByPhoneKeyAndIdNot(phoneKey, id))) {
+            throw new IllegalArgumentException("Phone number already belongs to another customer: " + customer.getPhone());
+        }
+        String emailKey = customer.getEmailKey();
+        if (emailKey != null && (id == null ? customerRepository.existsByEmailKey(emailKey)
+                                            : customerRepository.existsByEmailKeyAndIdNot(emailKey, id))) {
+            throw new IllegalArgumentException("Email already belongs to another customer: " + customer.getEmail());
+        }
         return customerRepository.save(customer);
     }
 
@@ -30,22 +71,12 @@ public class CustomerService {
         return customerRepository.findById(id).orElse(null);
     }
 
-    @Transactional
+    // Bulk deletes bill_item -> bill -> customer in short chunks (see CustomerPurgeService)
     public void deleteCustomer(Long id) {
-        Customer customer = customerRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Customer not found"));
-        
-        // Delete all bills associated with this customer first
-        if (customer.getBills() != null && !customer.getBills().isEmpty()) {
-            billRepository.deleteAll(customer.getBills());
-        }
-        
-        // Now delete the customer
-        customerRepository.deleteById(id);
+        customerPurgeService.purgeNow(id);
     }
     
     public boolean hasAssociatedBills(Long customerId) {
-        Customer customer = getCustomerById(customerId);
-        return customer != null && customer.getBills() != null && !customer.getBills().isEmpty();
+        return billRepository.existsByCustomerId(customerId);
     }
 }
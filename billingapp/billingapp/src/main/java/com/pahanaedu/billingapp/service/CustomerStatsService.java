@@ -0,0 +1,106 @@
+package com.pahanaedu.billingapp.service;
+
+import com.pahanaedu.billingapp.event.BillCreatedEvent;
+import com.pahanaedu.billingapp.event.BillDeletedEvent;
+import com.pahanaedu.billingapp.repository.CustomerRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps customer.bill_count / total_spent / last_bill_date in step with bill.
+ *
+ * Unlike the in-memory read models this listens with a plain @EventListener,
+ * so the customer row is updated inside the createBill/deleteBill transaction
+ * and commits (or rolls back) with the bill. The backfill recomputes the
+ * columns from bill in customer-id ranges on the background pool. History from
+ * before V6 was filled in once by V12; the backfill is a repair tool (admin
+ * endpoint) and only runs at startup when backfill-on-startup is set.
+ */
+@Service
+@Slf4j
+public class CustomerStatsService {
+
+    private final CustomerRepository customerRepository;
+    private final ExecutorService executor;
+    private final long chunkSize;
+    private final boolean backfillOnStartup;
+    private final AtomicBoolean backfilling = new AtomicBoolean();
+
+    public CustomerStatsService(CustomerRepository customerRepository,
+                                @Qualifier("backgroundExecutor") ExecutorService executor,
+                                @Value("${app.customer-stats.chunk-size:5000}") long chunkSize,
+                                @Value("${app.customer-stats.backfill-on-startup:false}") boolean backfillOnStartup) {
+        this.customerRepository = customerRepository;
+        this.executor = executor;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.backfillOnStartup = backfillOnStartup;
+    }
+
+    // --------- Same-transaction updates
+
+    @EventListener
+    public void onBillCreated(BillCreatedEvent event) {
+        if (event.customerId() == null) return;
+        customerRepository.addBill(event.customerId(), event.totalAmount(), event.billDate());
+    }
+
+    @EventListener
+    public void onBillDeleted(BillDeletedEvent event) {
+        if (event.customerId() == null) return;
+        customerRepository.removeBill(event.customerId(), event.billId(), event.totalAmount());
+    }
+
+    // --------- Backfill
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        if (!backfillOnStartup) return;
+        executor.execute(this::backfill);
+    }
+
+    /**
+     * Recomputes every customer's aggregates from bill. Each chunk is one
+     * set-based UPDATE in its own short transaction, so row locks are held per
+     * chunk rather than for the whole run. Returns the number of customers
+     * updated, or -1 if a backfill is already running.
+     */
+    public int backfill() {
+        if (!backfilling.compareAndSet(false, true)) return -1;
+        long started = System.currentTimeMillis();
+        try {
+            long minId = customerRepository.findMinId();
+            long maxId = customerRepository.findMaxId();
+            if (minId <= 0 || maxId < minId) return 0;
+
+            List<Callable<Integer>> chunks = new ArrayList<>();
+            for (long from = minId; from <= maxId; from += chunkSize) {
+                long lo = from;
+                long hi = Math.min(maxId, from + chunkSize - 1);
+                chunks.add(() -> customerRepository.recomputeStats(lo, hi));
+            }
+
+            int updated = 0;
+            for (int n : ChunkTasks.runAll(executor, chunks)) {
+                updated += n;
+            }
+            log.info("Customer stats backfilled: {} customers in {} chunks, {} ms",
+                    updated, chunks.size(), System.currentTimeMillis() - started);
+            return updated;
+        } catch (RuntimeException ex) {
+            log.warn("Customer stats backfill failed; live updates continue", ex);
+            return 0;
+        } finally {
+            backfilling.set(false);
+        }
+    }
+}
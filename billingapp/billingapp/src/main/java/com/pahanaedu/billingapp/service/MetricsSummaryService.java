@@ -0,0 +1,76 @@
+package com.pahanaedu.billingapp.service;
+
+import com.pahanaedu.billingapp.dto.MeterSummaryDTO;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Measurement;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compact JSON view of the meters that matter for regressions: the billing,
+ * catalog and auth hot paths, connection pool, Hibernate, caches, pools and
+ * JVM. /actuator/prometheus has everything; this is for a quick look.
+ */
+@Service
+public class MetricsSummaryService {
+
+    private static final List<String> PREFIXES = List.of(
+            "billing.", "catalog.", "spring.security.authentications",
+            "hikaricp.connections", "hibernate.sessions", "hibernate.transactions",
+            "hibernate.query.executions", "hibernate.statements", "hibernate.second.level.cache",
+            "cache.", "executor.", "jvm.memory.used", "jvm.gc.pause", "jvm.threads.live",
+            "process.cpu.usage");
+
+    private final MeterRegistry registry;
+
+    public MetricsSummaryService(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public List<MeterSummaryDTO> summary() {
+        List<MeterSummaryDTO> out = new ArrayList<>();
+        for (Meter meter : registry.getMeters()) {
+            String name = meter.getId().getName();
+            if (PREFIXES.stream().noneMatch(name::startsWith)) continue;
+
+            Map<String, String> tags = new LinkedHashMap<>();
+            for (Tag tag : meter.getId().getTags()) tags.put(tag.getKey(), tag.getValue());
+            out.add(new MeterSummaryDTO(name, tags, meter instanceof Timer t ? timerValues(t) : values(meter)));
+        }
+        out.sort(Comparator.comparing(MeterSummaryDTO::name).thenComparing(m -> m.tags().toString()));
+        return out;
+    }
+
+    private static Map<String, Double> timerValues(Timer timer) {
+        HistogramSnapshot snapshot = timer.takeSnapshot();
+        Map<String, Double> values = new LinkedHashMap<>();
+        values.put("count", (double) snapshot.count());
+        values.put("mean", snapshot.mean(TimeUnit.MILLISECONDS));
+        values.put("max", snapshot.max(TimeUnit.MILLISECONDS));
+        // client-side percentiles configured under management.metrics.distribution.percentiles
+        for (ValueAtPercentile p : snapshot.percentileValues()) {
+            values.put("p" + Math.round(p.percentile() * 100), p.value(TimeUnit.MILLISECONDS));
+        }
+        return values;
+    }
+
+    private static Map<String, Double> values(Meter meter) {
+        Map<String, Double> values = new LinkedHashMap<>();
+        for (Measurement m : meter.measure()) {
+            values.put(m.getStatistic().name().toLowerCase(Locale.ROOT), m.getValue());
+        }
+        return values;
+    }
+}
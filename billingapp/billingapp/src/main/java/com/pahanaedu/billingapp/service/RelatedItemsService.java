@@ -0,0 +1,247 @@
+package com.pahanaedu.billingapp.service;
+
+import com.pahanaedu.billingapp.dto.BillLineRef;
+import com.pahanaedu.billingapp.dto.RelatedItemDTO;
+import com.pahanaedu.billingapp.event.BillCreatedEvent;
+import com.pahanaedu.billingapp.event.BillDeletedEvent;
+import com.pahanaedu.billingapp.event.BillsPurgedEvent;
+import com.pahanaedu.billingapp.model.Item;
+import com.pahanaedu.billingapp.repository.BillItemRepository;
+import com.pahanaedu.billingapp.repository.ItemRepository;
+import com.pahanaedu.billingapp.util.LongIntHashMap;
+import com.pahanaedu.billingapp.util.LongObjectHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * "Frequently bought together" from a sparse item-to-item co-occurrence matrix.
+ *
+ * matrix[a][b] = number of bills containing both a and b (kept symmetric).
+ * Rows are primitive long->int maps, so a lookup is one row probe plus a
+ * top-N pass over that row. Fed by committed bill events and rebuilt in
+ * parallel from bill_item at startup, like {@link BestSellerService}.
+ */
+@Service
+@Slf4j
+public class RelatedItemsService {
+
+    public static final int MAX_LIMIT = 20;
+
+    private final BillItemRepository billItemRepository;
+    private final ItemRepository itemRepository;
+    private final BillHistoryScanner historyScanner;
+    private final ExecutorService executor;
+    private final int maxBillLines;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private LongObjectHashMap<LongIntHashMap> matrix = new LongObjectHashMap<>();
+    private boolean rebuilding;
+    private final List<Object> eventsDuringRebuild = new ArrayList<>();
+
+    public RelatedItemsService(BillItemRepository billItemRepository,
+                               ItemRepository itemRepository,
+                               BillHistoryScanner historyScanner,
+                               @Qualifier("backgroundExecutor") ExecutorService executor,
+                               @Value("${app.related.max-bill-lines:50}") int maxBillLines) {
+        this.billItemRepository = billItemRepository;
+        this.itemRepository = itemRepository;
+        this.historyScanner = historyScanner;
+        this.executor = executor;
+        this.maxBillLines = maxBillLines;
+    }
+
+    // --------- Queries
+
+    /** Items most often bought with {@code itemId}; {@code withItems} also loads the Item rows. */
+    public List<RelatedItemDTO> related(long itemId, int limit, boolean withItems) {
+        int n = Math.min(Math.max(limit, 1), MAX_LIMIT);
+        long[] ids = new long[n];
+        int[] counts = new int[n];
+        int found;
+
+        lock.readLock().lock();
+        try {
+            LongIntHashMap row = matrix.get(itemId);
+            if (row == null) return List.of();
+            found = topN(row, ids, counts);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        Map<Long, Item> items = Map.of();
+        if (withItems && found > 0) {
+            List<Long> idList = new ArrayList<>(found);
+            for (int i = 0; i < found; i++) idList.add(ids[i]);
+            items = itemRepository.findAllById(idList).stream()
+                    .collect(Collectors.toMap(Item::getId, Function.identity()));
+        }
+
+        List<RelatedItemDTO> result = new ArrayList<>(found);
+        for (int i = 0; i < found; i++) {
+            Item item = items.get(ids[i]);
+            if (withItems && item == null) continue;   // item deleted since it was sold
+            result.add(new RelatedItemDTO(ids[i], counts[i], item));
+        }
+        return result;
+    }
+
+    // insertion into a small sorted buffer; rows are short, n <= MAX_LIMIT
+    private static int topN(LongIntHashMap row, long[] ids, int[] counts) {
+        int[] size = {0};
+        int cap = ids.length;
+        row.forEach((other, count) -> {
+            if (count <= 0) return;
+            int n = size[0];
+            if (n == cap && count <= counts[n - 1]) return;
+            int pos = n == cap ? n - 1 : n;
+            while (pos > 0 && counts[pos - 1] < count) {
+                ids[pos] = ids[pos - 1];
+                counts[pos] = counts[pos - 1];
+                pos--;
+            }
+            ids[pos] = other;
+            counts[pos] = count;
+            if (n < cap) size[0] = n + 1;
+        });
+        return size[0];
+    }
+
+    // --------- Updates from committed bills
+
+    @TransactionalEventListener
+    public void onBillCreated(BillCreatedEvent event) {
+        apply(event, event.itemIds(), 1);
+    }
+
+    @TransactionalEventListener
+    public void onBillDeleted(BillDeletedEvent event) {
+        apply(event, event.itemIds(), -1);
+    }
+
+    @TransactionalEventListener
+    public void onBillsPurged(BillsPurgedEvent event) {
+        event.bills().forEach(this::onBillDeleted);
+    }
+
+    private void apply(Object event, long[] itemIds, int sign) {
+        lock.writeLock().lock();
+        try {
+            if (rebuilding) eventsDuringRebuild.add(event);
+            addBill(matrix, itemIds, itemIds.length, sign);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Adds every unordered pair of distinct items in the bill (first {@code n} entries of itemIds). */
+    private void addBill(LongObjectHashMap<LongIntHashMap> target, long[] itemIds, int n, int sign) {
+        long[] distinct = Arrays.stream(itemIds, 0, n).filter(id -> id != 0).distinct().toArray();
+        if (distinct.length < 2 || distinct.length > maxBillLines) return;   // bulk orders say little about affinity
+        for (int i = 0; i < distinct.length; i++) {
+            for (int j = i + 1; j < distinct.length; j++) {
+                bump(target, distinct[i], distinct[j], sign);
+                bump(target, distinct[j], distinct[i], sign);
+            }
+        }
+    }
+
+    private static void bump(LongObjectHashMap<LongIntHashMap> target, long a, long b, int delta) {
+        LongIntHashMap row = target.computeIfAbsent(a, id -> new LongIntHashMap());
+        if (row.addTo(b, delta) <= 0) {
+            row.remove(b);
+            if (row.isEmpty()) target.remove(a);
+        }
+    }
+
+    // --------- Rebuild from history
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        executor.execute(this::rebuild);
+    }
+
+    /** Recomputes the matrix from bill_item; live events keep flowing while it runs. */
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            rebuilding = true;
+            eventsDuringRebuild.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        try {
+            long maxBillId = historyScanner.currentMaxBillId();
+            List<LongObjectHashMap<LongIntHashMap>> partials = historyScanner.scan(maxBillId, (from, to) -> {
+                LongObjectHashMap<LongIntHashMap> part = new LongObjectHashMap<>();
+                long[] billItems = new long[16];
+                int n = 0;
+                long currentBill = 0;
+                for (BillLineRef line : billItemRepository.findLineRefs(from, to)) {
+                    if (line.billId() != currentBill) {
+                        addBill(part, billItems, n, 1);
+                        currentBill = line.billId();
+                        n = 0;
+                    }
+                    if (n == billItems.length) billItems = Arrays.copyOf(billItems, n * 2);
+                    billItems[n++] = line.itemId();
+                }
+                addBill(part, billItems, n, 1);
+                return part;
+            });
+
+            LongObjectHashMap<LongIntHashMap> fresh = new LongObjectHashMap<>();
+            for (LongObjectHashMap<LongIntHashMap> part : partials) {
+                part.forEach((a, row) -> {
+                    LongIntHashMap target = fresh.get(a);
+                    if (target == null) {
+                        fresh.put(a, row);
+                    } else {
+                        row.forEach(target::addTo);
+                    }
+                });
+            }
+
+            lock.writeLock().lock();
+            try {
+                for (Object e : eventsDuringRebuild) {
+                    if (e instanceof BillCreatedEvent c && c.billId() > maxBillId) {
+                        addBill(fresh, c.itemIds(), c.itemIds().length, 1);
+                    } else if (e instanceof BillDeletedEvent d) {
+                        addBill(fresh, d.itemIds(), d.itemIds().length, -1);
+                    }
+                }
+                matrix = fresh;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("Related-items matrix rebuilt: {} rows, bills up to #{} in {} ms",
+                    fresh.size(), maxBillId, System.currentTimeMillis() - started);
+        } catch (RuntimeException ex) {
+            log.warn("Related-items rebuild failed; serving live co-occurrences only", ex);
+        } finally {
+            lock.writeLock().lock();
+            try {
+                rebuilding = false;
+                eventsDuringRebuild.clear();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+}
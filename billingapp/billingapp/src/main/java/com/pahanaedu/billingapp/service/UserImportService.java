@@ -0,0 +1,251 @@
+package com.pahanaedu.billingapp.service;
+
+import com.pahanaedu.billingapp.dto.UserImportResultDTO;
+import com.pahanaedu.billingapp.model.Role;
+import com.pahanaedu.billingapp.repository.RoleRepository;
+import com.pahanaedu.billingapp.repository.UserRepository;
+import com.pahanaedu.billingapp.security.BoundedPasswordEncoder;
+import com.pahanaedu.billingapp.util.ContactKeys;
+import com.pahanaedu.billingapp.util.CsvReader;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+
+/**
+ * Bulk user creation from CSV (term start: thousands of student and staff accounts).
+ *
+ * The file is read a chunk at a time. Per chunk: rows are validated against
+ * an in-memory role map and one "which usernames exist" query, passwords are
+ * BCrypt-hashed in parallel on a fork-join pool, then users and user_roles go
+ * in as two JDBC batches in one transaction. Bad rows are skipped and reported
+ * by line; they never fail the rest of the file.
+ *
+ * Expected header (any order, case-insensitive): username,password,fullName,email,phone,role
+ */
+@Service
+@Slf4j
+public class UserImportService {
+
+    private static final int MAX_ERRORS = 200;
+    private static final Pattern EMAIL = Pattern.compile("^[^@\\s]+@[^@\\s]+\\.[^@\\s]+$");
+    private static final List<String> COLUMNS = List.of("username", "password", "fullname", "email", "phone", "role");
+    private static final Set<String> OPTIONAL_COLUMNS = Set.of("email", "phone");
+
+    private record Row(long line, String username, String password, String fullName,
+                       String email, String phone, long roleId) {}
+
+    private final UserRepository userRepository;
+    private final RoleRepository roleRepository;
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final PasswordEncoder encoder;
+    private final int chunkSize;
+    private final int parallelism;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public UserImportService(UserRepository userRepository,
+                             RoleRepository roleRepository,
+                             JdbcTemplate jdbc,
+                             TransactionTemplate tx,
+                             PasswordEncoder passwordEncoder,
+                             @Value("${app.user-import.chunk-size:500}") int chunkSize,
+                             @Value("${app.user-import.parallelism:0}") int parallelism) {
+        this.userRepository = userRepository;
+        this.roleRepository = roleRepository;
+        this.jdbc = jdbc;
+        this.tx = tx;
+        // the import brings its own bounded pool, so skip the login hashing pool
+        this.encoder = passwordEncoder instanceof BoundedPasswordEncoder bounded ? bounded.unbounded() : passwordEncoder;
+        // the existence check binds one parameter per row; SQL Server allows 2100
+        this.chunkSize = Math.min(Math.max(chunkSize, 1), 2000);
+        // default: half the cores, leaving the rest for the till
+        this.parallelism = parallelism > 0 ? parallelism
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    }
+
+    /** Imports the CSV; returns null if another import is already running. */
+    public UserImportResultDTO importCsv(InputStream csv) throws IOException {
+        if (!running.compareAndSet(false, true)) return null;
+        long started = System.currentTimeMillis();
+        Result result = new Result();
+        try (Reader reader = new InputStreamReader(csv, StandardCharsets.UTF_8);
+             ForkJoinPool pool = new ForkJoinPool(parallelism)) {
+            CsvReader in = new CsvReader(reader);
+            int[] columns = header(in.next());
+            Map<String, Long> roles = roleMap();
+            Set<String> seen = new HashSet<>();
+
+            List<Row> chunk = new ArrayList<>(chunkSize);
+            List<String> fields;
+            while ((fields = in.next()) != null) {
+                result.rows++;
+                Row row = parse(in.recordLine(), fields, columns, roles, seen, result);
+                if (row != null) chunk.add(row);
+                if (chunk.size() == chunkSize) {
+                    write(chunk, pool, result);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) write(chunk, pool, result);
+        } finally {
+            running.set(false);
+        }
+        long millis = System.currentTimeMillis() - started;
+        log.info("User import: {} rows, {} created, {} skipped in {} ms", result.rows, result.created, result.skipped, millis);
+        return new UserImportResultDTO(result.rows, result.created, result.skipped, millis,
+                result.errors, result.truncated);
+    }
+
+    // --------- parsing
+
+    private static int[] header(List<String> header) {
+        if (header == null) throw new IllegalArgumentException("CSV is empty");
+        int[] columns = new int[COLUMNS.size()];
+        Arrays.fill(columns, -1);
+        for (int i = 0; i < header.size(); i++) {
+            int c = COLUMNS.indexOf(header.get(i).trim().replace("_", "").toLowerCase(Locale.ROOT));
+            if (c >= 0) columns[c] = i;
+        }
+        for (int c = 0; c < columns.length; c++) {
+            if (columns[c] < 0 && !OPTIONAL_COLUMNS.contains(COLUMNS.get(c))) {
+                throw new IllegalArgumentException("CSV header must include " + COLUMNS.get(c));
+            }
+        }
+        return columns;
+    }
+
+    /** Role name -> id, accepting "ROLE_STAFF", "STAFF" and any case. */
+    private Map<String, Long> roleMap() {
+        Map<String, Long> roles = new HashMap<>();
+        for (Role r : roleRepository.findAll()) {
+            if (r.getName() == null) continue;
+            String name = r.getName().toUpperCase(Locale.ROOT);
+            roles.put(name, r.getId());
+            if (name.startsWith("ROLE_")) roles.putIfAbsent(name.substring(5), r.getId());
+        }
+        return roles;
+    }
+
+    private static Row parse(long line, List<String> f, int[] columns, Map<String, Long> roles,
+                             Set<String> seen, Result result) {
+        String username = field(f, columns[0]);
+        String password = field(f, columns[1]);
+        String fullName = field(f, columns[2]);
+        String email = field(f, columns[3]);
+        String phone = field(f, columns[4]);
+        String role = field(f, columns[5]);
+
+        String error = null;
+        if (username == null) error = "username is required";
+        else if (username.length() > 255) error = "username is too long";
+        else if (password == null || password.length() < 6) error = "password must be at least 6 characters";
+        else if (fullName == null) error = "full name is required";
+        else if (email != null && !EMAIL.matcher(email).matches()) error = "invalid email " + email;
+        else if (role == null || !roles.containsKey(role.toUpperCase(Locale.ROOT))) error = "unknown role " + role;
+        else if (!seen.add(ContactKeys.username(username))) error = "duplicate username " + username + " in file";
+
+        if (error != null) {
+            result.skip(line, error);
+            return null;
+        }
+        return new Row(line, username, password, fullName, email, phone, roles.get(role.toUpperCase(Locale.ROOT)));
+    }
+
+    private static String field(List<String> f, int column) {
+        if (column < 0 || column >= f.size()) return null;
+        String v = f.get(column).trim();
+        return v.isEmpty() ? null : v;
+    }
+
+    // --------- writing
+
+    private void write(List<Row> chunk, ForkJoinPool pool, Result result) {
+        // drop rows whose username is taken in any case, compared on the indexed username_key (V10)
+        Set<String> taken = new HashSet<>(userRepository.findExistingUsernameKeys(
+                chunk.stream().map(r -> ContactKeys.username(r.username())).toList()));
+        List<Row> rows = new ArrayList<>(chunk.size());
+        for (Row r : chunk) {
+            if (taken.contains(ContactKeys.username(r.username()))) result.skip(r.line(), "username " + r.username() + " already exists");
+            else rows.add(r);
+        }
+        if (rows.isEmpty()) return;
+
+        String[] hashes = new String[rows.size()];
+        pool.submit(() -> IntStream.range(0, rows.size()).parallel()
+                .forEach(i -> hashes[i] = encoder.encode(rows.get(i).password()))).join();
+
+        try {
+            tx.executeWithoutResult(status -> {
+                jdbc.batchUpdate("INSERT INTO users (username, password, full_name, email, phone, username_key, email_key, "
+                                + "full_name_key) VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+                        new BatchPreparedStatementSetter() {
+                            @Override
+                            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                                Row r = rows.get(i);
+                                ps.setString(1, r.username());
+                                ps.setString(2, hashes[i]);
+                                ps.setString(3, r.fullName());
+                                ps.setString(4, r.email());
+                                ps.setString(5, r.phone());
+                                ps.setString(6, ContactKeys.username(r.username()));
+                                ps.setString(7, ContactKeys.email(r.email()));
+                                ps.setString(8, ContactKeys.fullName(r.fullName()));
+                            }
+
+                            @Override
+                            public int getBatchSize() {
+                                return rows.size();
+                            }
+                        });
+                // ids are identity values; resolve them in the same statement instead of reading keys back.
+                // By key: username = ? would also match another spelling on a case-insensitive collation
+                jdbc.batchUpdate("INSERT INTO user_roles (user_id, role_id) SELECT id, ? FROM users WHERE username_key = ?",
+                        rows, rows.size(), (ps, r) -> {
+                            ps.setLong(1, r.roleId());
+                            ps.setString(2, ContactKeys.username(r.username()));
+                        });
+            });
+            result.created += rows.size();
+        } catch (RuntimeException ex) {
+            // e.g. a username created concurrently; the chunk rolled back as a whole
+            log.warn("User import chunk at line {} failed: {}", rows.get(0).line(), ex.getMessage());
+            for (Row r : rows) result.skip(r.line(), "not imported, chunk failed: " + ex.getClass().getSimpleName());
+        }
+    }
+
+    private static final class Result {
+        long rows, created, skipped;
+        final List<String> errors = new ArrayList<>();
+        boolean truncated;
+
+        void skip(long line, String error) {
+            skipped++;
+            if (errors.size() < MAX_ERRORS) errors.add("line " + line + ": " + error);
+            else truncated = true;
+        }
+    }
+}
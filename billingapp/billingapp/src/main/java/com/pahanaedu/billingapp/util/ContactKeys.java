@@ -0,0 +1,47 @@
+package com.pahanaedu.billingapp.util;
+
+import java.util.Locale;
+
+/**
+ * Canonical forms of customer phone numbers and emails, stored in the
+ * indexed customer.phone_key / email_key columns and used as lookup keys.
+ * V13 (migration package) recomputed existing rows with these methods;
+ * users.username_key / email_key (V10) and full_name_key (V15) use the
+ * same email rule.
+ */
+public final class ContactKeys {
+
+    public static final int MAX_PHONE_KEY = 32;
+
+    private ContactKeys() {}
+
+    /** Digits only ("+94 77-123 4567" -> "94771234567"); null/no digits -> null. */
+    public static String phone(String phone) {
+        if (phone == null) return null;
+        StringBuilder sb = new StringBuilder(phone.length());
+        for (int i = 0; i < phone.length(); i++) {
+            char c = phone.charAt(i);
+            if (c >= '0' && c <= '9') sb.append(c);
+        }
+        if (sb.length() > MAX_PHONE_KEY) {
+            throw new IllegalArgumentException("Phone number has more than " + MAX_PHONE_KEY + " digits");
+        }
+        return sb.isEmpty() ? null : sb.toString();
+    }
+
+    /** Trimmed and lower-cased; null/blank -> null. */
+    public static String email(String email) {
+        if (email == null || email.isBlank()) return null;
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /** Same rule as {@link #email(String)}. */
+    public static String username(String username) {
+        return email(username);
+    }
+
+    /** Same rule as {@link #email(String)}: directory search matches names case-insensitively. */
+    public static String fullName(String fullName) {
+        return email(fullName);
+    }
+}
@@ -0,0 +1,86 @@
+package com.pahanaedu.billingapp.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal streaming RFC 4180 reader: comma separated, fields optionally in
+ * double quotes, "" for a literal quote, quoted fields may span lines.
+ * A leading byte-order mark (Excel's "CSV UTF-8") is skipped.
+ * Reads one record at a time so large files never sit in memory.
+ */
+public class CsvReader {
+
+    private final Reader in;
+    private int pending = -2;       // one char of look-ahead; -2 = none
+    private boolean started;
+    private long line = 1;          // line the next record starts on
+    private long recordLine;
+
+    public CsvReader(Reader in) {
+        this.in = in;
+    }
+
+    /** 1-based line number of the record most recently returned by {@link #next()}. */
+    public long recordLine() { return recordLine; }
+
+    /** Next record, or null at end of input. Blank lines are skipped. */
+    public List<String> next() throws IOException {
+        while (true) {
+            recordLine = line;
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false, sawAny = false;
+            int c;
+            while (true) {
+                c = read();
+                if (c == -1) break;
+                sawAny = true;
+                if (quoted) {
+                    if (c == '"') {
+                        int n = read();
+                        if (n == '"') field.append('"');
+                        else { quoted = false; unread(n); }
+                    } else {
+                        if (c == '\n') line++;
+                        field.append((char) c);
+                    }
+                } else if (c == '"' && field.isEmpty()) {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\r' || c == '\n') {
+                    if (c == '\r') { int n = read(); if (n != '\n') unread(n); }
+                    line++;
+                    break;
+                } else {
+                    field.append((char) c);
+                }
+            }
+            if (!sawAny) return null;
+            fields.add(field.toString());
+            if (fields.size() == 1 && fields.get(0).isBlank()) {
+                if (c == -1) return null;
+                continue;
+            }
+            return fields;
+        }
+    }
+
+    private int read() throws IOException {
+        if (pending != -2) { int c = pending; pending = -2; return c; }
+        int c = in.read();
+        if (!started) {
+            started = true;
+            if (c == '\uFEFF') c = in.read();
+        }
+        return c;
+    }
+
+    private void unread(int c) {
+        pending = c;
+    }
+}
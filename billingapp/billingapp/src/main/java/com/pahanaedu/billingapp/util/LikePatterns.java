@@ -0,0 +1,33 @@
+package com.pahanaedu.billingapp.util;
+
+/**
+ * LIKE patterns built from user input. The input's own wildcards (%, _ and
+ * SQL Server's [) and the escape character are escaped with a backslash, so
+ * every query using these must say ESCAPE '\' (cb.like(x, pattern, '\\')).
+ */
+public final class LikePatterns {
+
+    public static final char ESCAPE = '\\';
+
+    private LikePatterns() {}
+
+    /** "abc%": values starting with the input. */
+    public static String prefix(String q) {
+        return escape(q, 1).append('%').toString();
+    }
+
+    /** "%abc%": values containing the input. */
+    public static String contains(String q) {
+        return escape(q, 2).insert(0, '%').append('%').toString();
+    }
+
+    private static StringBuilder escape(String q, int extra) {
+        StringBuilder sb = new StringBuilder(q.length() + extra);
+        for (int i = 0; i < q.length(); i++) {
+            char c = q.charAt(i);
+            if (c == ESCAPE || c == '%' || c == '_' || c == '[') sb.append(ESCAPE);
+            sb.append(c);
+        }
+        return sb;
+    }
+}
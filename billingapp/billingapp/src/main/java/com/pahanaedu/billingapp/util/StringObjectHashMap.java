@@ -0,0 +1,128 @@
+package com.pahanaedu.billingapp.util;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing (linear probing) map from String keys to objects, the
+ * String-keyed sibling of {@link LongObjectHashMap}. Keys and values sit in
+ * two flat arrays, so a lookup is one hash, a mask and usually one equals().
+ * Not thread-safe; callers guard it.
+ */
+public class StringObjectHashMap<V> {
+
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private String[] keys;     // null slot == empty
+    private Object[] values;
+    private int size;
+    private int mask;
+    private int resizeAt;
+
+    public StringObjectHashMap() {
+        this(16);
+    }
+
+    public StringObjectHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        allocate(capacity);
+    }
+
+    public int size() { return size; }
+
+    public boolean isEmpty() { return size == 0; }
+
+    @SuppressWarnings("unchecked")
+    public V get(String key) {
+        int slot = slotOf(key);
+        while (keys[slot] != null) {
+            if (keys[slot].equals(key)) return (V) values[slot];
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    /** Stores {@code value} under a non-null key and returns the previous value, if any. */
+    @SuppressWarnings("unchecked")
+    public V put(String key, V value) {
+        if (key == null) throw new IllegalArgumentException("null keys are not supported");
+        int slot = slotOf(key);
+        while (keys[slot] != null) {
+            if (keys[slot].equals(key)) {
+                V old = (V) values[slot];
+                values[slot] = value;
+                return old;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size >= resizeAt) rehash(keys.length << 1);
+        return null;
+    }
+
+    /** Removes the key using backward-shift deletion, so no tombstones are left behind. */
+    @SuppressWarnings("unchecked")
+    public V remove(String key) {
+        int slot = slotOf(key);
+        while (keys[slot] != null) {
+            if (keys[slot].equals(key)) {
+                V old = (V) values[slot];
+                shiftBack(slot);
+                size--;
+                return old;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, null);
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    // --------- internals
+
+    private int slotOf(String key) {
+        int h = key.hashCode();
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    private void shiftBack(int gap) {
+        int slot = gap;
+        while (true) {
+            slot = (slot + 1) & mask;
+            if (keys[slot] == null) break;
+            int home = slotOf(keys[slot]);
+            // move the entry into the gap if the gap lies between its home slot and its current slot
+            if (((slot - home) & mask) >= ((slot - gap) & mask)) {
+                keys[gap] = keys[slot];
+                values[gap] = values[slot];
+                gap = slot;
+            }
+        }
+        keys[gap] = null;
+        values[gap] = null;
+    }
+
+    private void allocate(int capacity) {
+        keys = new String[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private void rehash(int capacity) {
+        String[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == null) continue;
+            int slot = slotOf(oldKeys[i]);
+            while (keys[slot] != null) slot = (slot + 1) & mask;
+            keys[slot] = oldKeys[i];
+            values[slot] = oldValues[i];
+        }
+    }
+}
@@ -0,0 +1,15 @@
+-- User directory search (UserRepository.searchDirectory): prefix LIKEs on
+-- normalised username/email keys and full name, and the role filter join.
+-- Same normalisation as util.ContactKeys (trimmed, lower-cased).
+
+ALTER TABLE users ADD username_key VARCHAR(255);
+ALTER TABLE users ADD email_key VARCHAR(255);
+
+UPDATE users
+SET username_key = NULLIF(LOWER(TRIM(username)), ''),
+    email_key = NULLIF(LOWER(TRIM(email)), '');
+
+CREATE INDEX ix_users_username_key ON users (username_key);
+CREATE INDEX ix_users_email_key ON users (email_key);
+CREATE INDEX ix_users_full_name ON users (full_name);
+CREATE INDEX ix_user_roles_role ON user_roles (role_id, user_id);
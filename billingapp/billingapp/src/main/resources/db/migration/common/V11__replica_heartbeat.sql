@@ -0,0 +1,10 @@
+-- Replication lag probe (jdbc.ReplicaHealth): the app stamps beat_at (epoch millis) on the
+-- primary and reads it back from the read replica; the difference is the replica's lag.
+
+CREATE TABLE replica_heartbeat (
+    id      INT    NOT NULL,
+    beat_at BIGINT NOT NULL,
+    CONSTRAINT pk_replica_heartbeat PRIMARY KEY (id)
+);
+
+INSERT INTO replica_heartbeat (id, beat_at) VALUES (1, 0);
@@ -0,0 +1,9 @@
+-- One-time fill of the V6 lifetime aggregates for bills created before them.
+-- Runs once, with the deploy, instead of a recompute on every start; bills
+-- created since V6 are already counted by CustomerStatsService, and this
+-- recomputes those rows to the same values.
+
+UPDATE customer SET
+    bill_count = (SELECT COUNT(*) FROM bill b WHERE b.customer_id = customer.id),
+    total_spent = (SELECT COALESCE(SUM(b.total_amount), 0) FROM bill b WHERE b.customer_id = customer.id),
+    last_bill_date = (SELECT MAX(b.bill_date) FROM bill b WHERE b.customer_id = customer.id);
@@ -0,0 +1,10 @@
+-- Directory search by name (UserDirectoryRepositoryImpl): a prefix LIKE on the
+-- raw full_name is case-sensitive under a case-sensitive collation (H2, some
+-- SQL Server installs). Same normalised-key approach as V10, same rule as
+-- util.ContactKeys.fullName (trimmed, lower-cased). Sorting still uses full_name.
+
+ALTER TABLE users ADD full_name_key VARCHAR(255);
+
+UPDATE users SET full_name_key = NULLIF(LOWER(TRIM(full_name)), '');
+
+CREATE INDEX ix_users_full_name_key ON users (full_name_key);
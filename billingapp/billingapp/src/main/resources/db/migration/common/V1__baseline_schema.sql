@@ -0,0 +1,66 @@
+-- Baseline schema, matching what hibernate ddl-auto=update used to create.
+-- Existing databases are baselined at this version (spring.flyway.baseline-on-migrate).
+
+CREATE TABLE roles (
+    id   BIGINT IDENTITY NOT NULL,
+    name VARCHAR(255),
+    CONSTRAINT pk_roles PRIMARY KEY (id)
+);
+
+CREATE TABLE users (
+    id        BIGINT IDENTITY NOT NULL,
+    username  VARCHAR(255),
+    password  VARCHAR(255),
+    full_name VARCHAR(255),
+    email     VARCHAR(255),
+    phone     VARCHAR(255),
+    CONSTRAINT pk_users PRIMARY KEY (id)
+);
+
+CREATE TABLE user_roles (
+    user_id BIGINT NOT NULL,
+    role_id BIGINT NOT NULL,
+    CONSTRAINT pk_user_roles PRIMARY KEY (user_id, role_id),
+    CONSTRAINT fk_user_roles_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_user_roles_role FOREIGN KEY (role_id) REFERENCES roles (id)
+);
+
+CREATE TABLE customer (
+    id    BIGINT IDENTITY NOT NULL,
+    name  VARCHAR(255),
+    email VARCHAR(255),
+    phone VARCHAR(255),
+    CONSTRAINT pk_customer PRIMARY KEY (id)
+);
+
+CREATE TABLE item (
+    id          BIGINT IDENTITY NOT NULL,
+    name        VARCHAR(255)  NOT NULL,
+    description VARCHAR(2000),
+    price       FLOAT(53)     NOT NULL,
+    stock       INT           NOT NULL,
+    category    VARCHAR(60),
+    image_url   VARCHAR(MAX),
+    CONSTRAINT pk_item PRIMARY KEY (id)
+);
+
+CREATE TABLE bill (
+    id           BIGINT IDENTITY NOT NULL,
+    bill_date    DATETIME2(6),
+    total_amount FLOAT(53) NOT NULL,
+    customer_id  BIGINT,
+    CONSTRAINT pk_bill PRIMARY KEY (id),
+    CONSTRAINT fk_bill_customer FOREIGN KEY (customer_id) REFERENCES customer (id)
+);
+
+CREATE TABLE bill_item (
+    id         BIGINT IDENTITY NOT NULL,
+    quantity   INT       NOT NULL,
+    unit_price FLOAT(53) NOT NULL,
+    subtotal   FLOAT(53) NOT NULL,
+    bill_id    BIGINT,
+    item_id    BIGINT,
+    CONSTRAINT pk_bill_item PRIMARY KEY (id),
+    CONSTRAINT fk_bill_item_bill FOREIGN KEY (bill_id) REFERENCES bill (id),
+    CONSTRAINT fk_bill_item_item FOREIGN KEY (item_id) REFERENCES item (id)
+);
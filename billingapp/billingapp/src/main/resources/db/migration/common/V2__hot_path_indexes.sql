@@ -0,0 +1,9 @@
+-- Indexes for the read paths: customer bill history, bill lines, catalog browsing, login.
+
+CREATE INDEX ix_bill_customer_date ON bill (customer_id, bill_date);
+
+CREATE INDEX ix_bill_item_bill ON bill_item (bill_id);
+
+CREATE INDEX ix_item_category_name ON item (category, name);
+
+CREATE UNIQUE INDEX ux_users_username ON users (username);
@@ -0,0 +1,11 @@
+-- Indexes behind the allow-listed catalog sorts and filters (see ItemSort).
+
+-- price range / price sort, with and without a category filter
+CREATE INDEX ix_item_category_price ON item (category, price);
+CREATE INDEX ix_item_price ON item (price);
+
+-- name sort across all categories
+CREATE INDEX ix_item_name ON item (name);
+
+-- units sold per item for the bestselling sort
+CREATE INDEX ix_bill_item_item_qty ON bill_item (item_id, quantity);
@@ -0,0 +1,5 @@
+-- Prefix search on the customer list (CustomerRepository.searchSummaries).
+
+CREATE INDEX ix_customer_name ON customer (name);
+CREATE INDEX ix_customer_email ON customer (email);
+CREATE INDEX ix_customer_phone ON customer (phone);
@@ -0,0 +1,7 @@
+-- Lifetime aggregates kept on the customer row (CustomerStatsService).
+-- Maintained inside the createBill/deleteBill transactions; filled in for
+-- existing history by the startup backfill, not here, so deploys stay short.
+
+ALTER TABLE customer ADD bill_count BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE customer ADD total_spent FLOAT(53) DEFAULT 0 NOT NULL;
+ALTER TABLE customer ADD last_bill_date DATETIME2(6);
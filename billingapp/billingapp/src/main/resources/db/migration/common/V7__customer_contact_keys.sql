@@ -0,0 +1,26 @@
+-- Normalised phone/email for exact customer lookup at the till (util.ContactKeys).
+-- Existing rows: strip the usual phone punctuation and lower-case emails.
+-- Where two customers share a key only the oldest keeps it, so the unique
+-- indexes (vendor migration V8) can be built; the others must be fixed by hand.
+
+ALTER TABLE customer ADD phone_key VARCHAR(32);
+ALTER TABLE customer ADD email_key VARCHAR(255);
+
+UPDATE customer
+SET phone_key = NULLIF(SUBSTRING(
+        REPLACE(REPLACE(REPLACE(REPLACE(REPLACE(REPLACE(REPLACE(
+            phone, ' ', ''), '-', ''), '+', ''), '(', ''), ')', ''), '.', ''), '/', ''),
+        1, 32), ''),
+    email_key = NULLIF(LOWER(TRIM(email)), '');
+
+UPDATE customer
+SET phone_key = NULL
+WHERE phone_key IS NOT NULL
+  AND EXISTS (SELECT 1 FROM customer older
+              WHERE older.phone_key = customer.phone_key AND older.id < customer.id);
+
+UPDATE customer
+SET email_key = NULL
+WHERE email_key IS NOT NULL
+  AND EXISTS (SELECT 1 FROM customer older
+              WHERE older.email_key = customer.email_key AND older.id < customer.id);
@@ -0,0 +1,14 @@
+-- Revoked bearer tokens (security.TokenRevocationList); times are epoch seconds.
+-- jti set: that one token is revoked. jti NULL: every token of username issued before revoked_at.
+-- Rows past expires_at can no longer match a live token and are purged.
+
+CREATE TABLE token_revocation (
+    id         BIGINT IDENTITY NOT NULL,
+    jti        VARCHAR(64),
+    username   VARCHAR(255),
+    revoked_at BIGINT NOT NULL,
+    expires_at BIGINT NOT NULL,
+    CONSTRAINT pk_token_revocation PRIMARY KEY (id)
+);
+
+CREATE INDEX ix_token_revocation_expires ON token_revocation (expires_at);
@@ -0,0 +1,10 @@
+-- H2 (tests, benchmarks): same as the SQL Server version, NULLS DISTINCT standing in for the filtered index.
+
+ALTER TABLE token_revocation ADD revoked_at_ms BIGINT NULL;
+
+DELETE FROM token_revocation
+WHERE jti IS NOT NULL
+  AND id NOT IN (SELECT MIN(id) FROM token_revocation WHERE jti IS NOT NULL GROUP BY jti);
+
+CREATE UNIQUE NULLS DISTINCT INDEX ux_token_revocation_jti ON token_revocation (jti);
+CREATE INDEX ix_token_revocation_revoked ON token_revocation (revoked_at);
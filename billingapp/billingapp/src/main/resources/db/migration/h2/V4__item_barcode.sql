@@ -0,0 +1,6 @@
+-- H2 (tests, benchmarks): same as the SQL Server version. H2's MSSQLServer mode treats NULLs
+-- in a unique index as equal, so NULLS DISTINCT stands in for the filtered index.
+
+ALTER TABLE item ADD barcode VARCHAR(32) NULL;
+
+CREATE UNIQUE NULLS DISTINCT INDEX ux_item_barcode ON item (barcode);
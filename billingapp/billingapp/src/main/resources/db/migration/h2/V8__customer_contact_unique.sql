@@ -0,0 +1,4 @@
+-- H2 (tests, benchmarks): NULLS DISTINCT stands in for the SQL Server filtered indexes.
+
+CREATE UNIQUE NULLS DISTINCT INDEX ux_customer_phone_key ON customer (phone_key);
+CREATE UNIQUE NULLS DISTINCT INDEX ux_customer_email_key ON customer (email_key);
@@ -0,0 +1,16 @@
+-- Revocations shared between instances (security.TokenRevocationList).
+-- revoked_at_ms: user cut-offs at millisecond precision; whole seconds let a token issued in the
+--   same second as a password or role change through. NULL on older rows (whole second).
+-- ux_token_revocation_jti: one row per revoked token, so when two requests (on any instances)
+--   rotate the same refresh token, the insert picks the single winner. Duplicates left by
+--   concurrent logouts are removed first.
+-- ix_token_revocation_revoked: each instance polls the recent rows by revoked_at.
+
+ALTER TABLE token_revocation ADD revoked_at_ms BIGINT NULL;
+
+DELETE FROM token_revocation
+WHERE jti IS NOT NULL
+  AND id NOT IN (SELECT MIN(id) FROM token_revocation WHERE jti IS NOT NULL GROUP BY jti);
+
+CREATE UNIQUE INDEX ux_token_revocation_jti ON token_revocation (jti) WHERE jti IS NOT NULL;
+CREATE INDEX ix_token_revocation_revoked ON token_revocation (revoked_at);
@@ -0,0 +1,6 @@
+-- Scannable barcode / ISBN per item, normalised (digits and X only) by the API.
+-- Filtered unique index: SQL Server would otherwise treat all NULL barcodes as duplicates.
+
+ALTER TABLE item ADD barcode VARCHAR(32) NULL;
+
+CREATE UNIQUE INDEX ux_item_barcode ON item (barcode) WHERE barcode IS NOT NULL;
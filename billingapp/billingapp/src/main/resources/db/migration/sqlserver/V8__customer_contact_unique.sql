@@ -0,0 +1,4 @@
+-- One customer per phone / email key. Filtered so customers without a phone or email don't collide on NULL.
+
+CREATE UNIQUE INDEX ux_customer_phone_key ON customer (phone_key) WHERE phone_key IS NOT NULL;
+CREATE UNIQUE INDEX ux_customer_email_key ON customer (email_key) WHERE email_key IS NOT NULL;
@@ -0,0 +1,182 @@
+package com.pahanaedu.billingapp.bench;
+
+import com.pahanaedu.billingapp.model.Bill;
+import com.pahanaedu.billingapp.model.BillItem;
+import com.pahanaedu.billingapp.model.Customer;
+import com.pahanaedu.billingapp.model.Item;
+import com.pahanaedu.billingapp.util.ContactKeys;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Reproducible catalogue, customers and bill history for benchmarks.
+ *
+ * Every value comes from one SplittableRandom drawn in a fixed order, so the
+ * same seed and sizes always give the same rows; only the bill dates move,
+ * spread over the year before {@code base}. Item popularity is skewed (a few
+ * titles sell most copies) so best-seller and related-item paths see
+ * realistic data. Stock is large enough that checkout never runs out.
+ */
+public class BenchDataGenerator {
+
+    public record Sizes(int customers, int items, int bills, int maxLinesPerBill) {}
+
+    public static final long DEFAULT_SEED = 20240901L;
+
+    private static final int BATCH = 1000;
+    private static final int STOCK = 1_000_000;
+    private static final String[] CATEGORIES = {
+            "Fiction", "History", "Science", "Children", "Reference", "Stationery", "Art", "Travel"};
+    private static final String[] WORDS = {
+            "atlas", "book", "chronicle", "dictionary", "essays", "field", "garden", "history", "island",
+            "journal", "kingdom", "letters", "maps", "notes", "ocean", "poems", "quest", "river", "stories",
+            "theory", "universe", "voyage", "world", "year", "zoology", "pencil", "marker", "notebook"};
+    private static final String[] NAMES = {
+            "Amal", "Binu", "Chamari", "Dinesh", "Eranga", "Fathima", "Gayan", "Hiruni", "Isuru", "Janaki",
+            "Kasun", "Lahiru", "Madhavi", "Nimal", "Oshadi", "Pradeep", "Ruwan", "Sanduni", "Tharindu", "Udari"};
+
+    private final long seed;
+    private final LocalDateTime base;
+
+    public BenchDataGenerator(long seed, LocalDateTime base) {
+        this.seed = seed;
+        this.base = base;
+    }
+
+    /** Fills empty customer/item/bill tables with JDBC batches (ids come from the identity columns). */
+    public void populate(JdbcTemplate jdbc, Sizes sizes) {
+        SplittableRandom rnd = new SplittableRandom(seed);
+
+        List<Object[]> customers = new ArrayList<>(sizes.customers());
+        for (int i = 0; i < sizes.customers(); i++) {
+            String name = NAMES[rnd.nextInt(NAMES.length)] + " " + NAMES[rnd.nextInt(NAMES.length)] + " " + i;
+            String email = "customer" + i + "@bench.example";
+            String phone = String.format(Locale.ROOT, "+94 77 %07d", i);
+            customers.add(new Object[]{name, email, phone, ContactKeys.email(email), ContactKeys.phone(phone)});
+        }
+        batch(jdbc, "INSERT INTO customer (name, email, phone, email_key, phone_key) VALUES (?, ?, ?, ?, ?)", customers);
+
+        double[] prices = new double[sizes.items()];
+        List<Object[]> items = new ArrayList<>(sizes.items());
+        for (int i = 0; i < sizes.items(); i++) {
+            prices[i] = 100 + rnd.nextInt(9900) / 2.0;      // 100.0 .. 5049.5
+            items.add(new Object[]{itemName(rnd, i), "Benchmark item " + i, prices[i], STOCK,
+                    CATEGORIES[rnd.nextInt(CATEGORIES.length)], String.format(Locale.ROOT, "978%010d", i)});
+        }
+        batch(jdbc, "INSERT INTO item (name, description, price, stock, category, barcode) VALUES (?, ?, ?, ?, ?, ?)",
+                items);
+
+        long[] customerIds = ids(jdbc, "customer", 0);
+        long[] itemIds = ids(jdbc, "item", 0);
+        for (int done = 0; done < sizes.bills(); done += BATCH) {
+            int n = Math.min(BATCH, sizes.bills() - done);
+            List<Object[]> bills = new ArrayList<>(n);
+            List<int[][]> lines = new ArrayList<>(n);          // per bill: {item index, quantity}
+            for (int b = 0; b < n; b++) {
+                int[][] billLines = new int[1 + rnd.nextInt(Math.max(1, sizes.maxLinesPerBill()))][];
+                double total = 0;
+                for (int l = 0; l < billLines.length; l++) {
+                    int item = skewed(rnd, itemIds.length);
+                    int qty = 1 + rnd.nextInt(3);
+                    billLines[l] = new int[]{item, qty};
+                    total += prices[item] * qty;
+                }
+                LocalDateTime date = base.minusMinutes(rnd.nextInt(365 * 24 * 60));
+                bills.add(new Object[]{Timestamp.valueOf(date), total, customerIds[rnd.nextInt(customerIds.length)]});
+                lines.add(billLines);
+            }
+            long before = maxId(jdbc, "bill");
+            batch(jdbc, "INSERT INTO bill (bill_date, total_amount, customer_id) VALUES (?, ?, ?)", bills);
+            long[] billIds = ids(jdbc, "bill", before);
+
+            List<Object[]> billItems = new ArrayList<>();
+            for (int b = 0; b < n; b++) {
+                for (int[] line : lines.get(b)) {
+                    double price = prices[line[0]];
+                    billItems.add(new Object[]{line[1], price, price * line[1], billIds[b], itemIds[line[0]]});
+                }
+            }
+            batch(jdbc, "INSERT INTO bill_item (quantity, unit_price, subtotal, bill_id, item_id) VALUES (?, ?, ?, ?, ?)",
+                    billItems);
+        }
+
+        // lifetime stats as CustomerStatsService would have kept them
+        jdbc.update("""
+                UPDATE customer SET
+                    bill_count = (SELECT COUNT(*) FROM bill b WHERE b.customer_id = customer.id),
+                    total_spent = (SELECT COALESCE(SUM(b.total_amount), 0) FROM bill b WHERE b.customer_id = customer.id),
+                    last_bill_date = (SELECT MAX(b.bill_date) FROM bill b WHERE b.customer_id = customer.id)
+                """);
+    }
+
+    /** An unsaved Bill graph (customer, items, lines) for serialisation and PDF benchmarks. */
+    public Bill billGraph(int lines) {
+        SplittableRandom rnd = new SplittableRandom(seed);
+        Customer customer = new Customer();
+        customer.setId(1L);
+        customer.setName(NAMES[rnd.nextInt(NAMES.length)] + " " + NAMES[rnd.nextInt(NAMES.length)]);
+        customer.setEmail("customer1@bench.example");
+        customer.setPhone("+94 77 0000001");
+
+        Bill bill = new Bill();
+        bill.setCustomer(customer);
+        bill.setBillDate(base);
+        List<BillItem> billItems = new ArrayList<>(lines);
+        double total = 0;
+        for (int i = 0; i < lines; i++) {
+            Item item = new Item();
+            item.setId((long) i + 1);
+            item.setName(itemName(rnd, i));
+            item.setDescription("Benchmark item " + i);
+            item.setPrice(100 + rnd.nextInt(9900) / 2.0);
+            item.setStock(STOCK);
+            item.setCategory(CATEGORIES[rnd.nextInt(CATEGORIES.length)]);
+            item.setBarcode(String.format(Locale.ROOT, "978%010d", i));
+
+            BillItem line = new BillItem();
+            line.setItem(item);
+            line.setQuantity(1 + rnd.nextInt(3));
+            line.setUnitPrice(item.getPrice());
+            line.setSubtotal(item.getPrice() * line.getQuantity());
+            billItems.add(line);
+            total += line.getSubtotal();
+        }
+        bill.setItems(billItems);
+        bill.setTotalAmount(total);
+        return bill;
+    }
+
+    /** Index into a catalogue of {@code n}, low indexes far more likely (squared uniform). */
+    public static int skewed(SplittableRandom rnd, int n) {
+        double u = rnd.nextDouble();
+        return Math.min(n - 1, (int) (u * u * n));
+    }
+
+    private static String itemName(SplittableRandom rnd, int i) {
+        String first = WORDS[rnd.nextInt(WORDS.length)];
+        String second = WORDS[rnd.nextInt(WORDS.length)];
+        return Character.toUpperCase(first.charAt(0)) + first.substring(1) + " of " + second + " " + i;
+    }
+
+    private static void batch(JdbcTemplate jdbc, String sql, List<Object[]> rows) {
+        for (int from = 0; from < rows.size(); from += BATCH) {
+            jdbc.batchUpdate(sql, rows.subList(from, Math.min(rows.size(), from + BATCH)));
+        }
+    }
+
+    private static long maxId(JdbcTemplate jdbc, String table) {
+        Long max = jdbc.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+        return max == null ? 0 : max;
+    }
+
+    private static long[] ids(JdbcTemplate jdbc, String table, long after) {
+        return jdbc.queryForList("SELECT id FROM " + table + " WHERE id > ? ORDER BY id", Long.class, after)
+                .stream().mapToLong(Long::longValue).toArray();
+    }
+}
@@ -0,0 +1,63 @@
+package com.pahanaedu.billingapp.bench;
+
+import com.pahanaedu.billingapp.jdbc.ReplicaHealth;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * Seeds the bench profile's empty database with {@link BenchDataGenerator}
+ * (sizes under app.bench.*). Runs with the other runners, i.e. before the
+ * ready-time index warm-ups, so they load the full data set. A local stand-in
+ * replica (app.datasource.replica.migrate=true) gets the same rows.
+ */
+@Component
+@Profile("bench")
+@Slf4j
+public class BenchDataSeeder implements CommandLineRunner {
+
+    private final JdbcTemplate jdbc;
+    private final JdbcTemplate replicaJdbc;         // null unless the replica is a local stand-in
+    private final BenchDataGenerator generator;
+    private final BenchDataGenerator.Sizes sizes;
+
+    public BenchDataSeeder(JdbcTemplate jdbc,
+                           ObjectProvider<ReplicaHealth> replica,
+                           @Value("${app.datasource.replica.migrate:false}") boolean localReplica,
+                           @Value("${app.bench.seed:" + BenchDataGenerator.DEFAULT_SEED + "}") long seed,
+                           @Value("${app.bench.customers:50000}") int customers,
+                           @Value("${app.bench.items:100000}") int items,
+                           @Value("${app.bench.bills:1000000}") int bills,
+                           @Value("${app.bench.max-lines-per-bill:4}") int maxLines) {
+        this.jdbc = jdbc;
+        ReplicaHealth health = localReplica ? replica.getIfAvailable() : null;
+        this.replicaJdbc = health == null ? null : new JdbcTemplate(health.replica());
+        // bill dates are spread over the year before today, so windowed reports see the data
+        this.generator = new BenchDataGenerator(seed, LocalDate.now().atStartOfDay());
+        this.sizes = new BenchDataGenerator.Sizes(customers, items, bills, maxLines);
+    }
+
+    @Override
+    public void run(String... args) {
+        seed(jdbc, "primary");
+        if (replicaJdbc != null) seed(replicaJdbc, "replica");
+    }
+
+    private void seed(JdbcTemplate target, String name) {
+        Integer existing = target.queryForObject("SELECT COUNT(*) FROM item", Integer.class);
+        if (existing != null && existing > 0) {
+            log.info("Bench data not seeded ({}): catalogue already has {} items", name, existing);
+            return;
+        }
+        long start = System.nanoTime();
+        log.info("Seeding bench data ({}): {}", name, sizes);
+        generator.populate(target, sizes);
+        log.info("Seeded bench data ({}) in {} ms", name, (System.nanoTime() - start) / 1_000_000);
+    }
+}
@@ -0,0 +1,44 @@
+package com.pahanaedu.billingapp.config;
+
+import com.pahanaedu.billingapp.model.User;
+import com.pahanaedu.billingapp.repository.UserRepository;
+import com.pahanaedu.billingapp.security.UserCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MetricsConfigTest {
+
+    @Test
+    void userCacheExportsEvictionsAndInvalidationsSeparately() {
+        UserRepository users = mock(UserRepository.class);
+        when(users.findByUsername(anyString())).thenAnswer(a -> Optional.of(user(a.getArgument(0))));
+        UserCache cache = new UserCache(users, 1, Duration.ofMinutes(10));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        new MetricsConfig().userCacheMetrics(cache).bindTo(registry);
+
+        cache.get("ann");
+        cache.get("bob");       // pushes ann out: the size bound is 1
+        cache.get("bob");
+        cache.evict("bob");
+
+        assertThat(registry.get("cache.gets").tag("result", "hit").functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("cache.gets").tag("result", "miss").functionCounter().count()).isEqualTo(2);
+        assertThat(registry.get("cache.evictions").functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("cache.invalidations").functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("cache.size").gauge().value()).isZero();
+    }
+
+    private static User user(String username) {
+        User u = new User();
+        u.setUsername(username);
+        return u;
+    }
+}
@@ -0,0 +1,43 @@
+package com.pahanaedu.billingapp.controller;
+
+import com.pahanaedu.billingapp.service.CatalogResponseCache;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CatalogResponseCacheFilterTest {
+
+    @Test
+    void encodedValueCannotPoseAsAnotherParameter() {
+        String real = CatalogResponseCacheFilter.key(page("q", "", "sort", "name"));
+        String crafted = CatalogResponseCacheFilter.key(page("q", "&sort=name"));
+
+        assertThat(real).isEqualTo("/api/v1/items?q=&sort=name");
+        assertThat(crafted).isEqualTo("/api/v1/items?q=%26sort%3Dname").isNotEqualTo(real);
+    }
+
+    @Test
+    void onlyListParametersInAFixedOrder() {
+        assertThat(CatalogResponseCacheFilter.key(page("sort", "price", "junk", "1", "page", "2", "category", "Fiction")))
+                .isEqualTo(CatalogResponseCacheFilter.key(page("page", "2", "category", "Fiction", "sort", "price")))
+                .isEqualTo("/api/v1/items?category=Fiction&page=2&sort=price");
+    }
+
+    @Test
+    void detailAndFacetsKeysAndUncachedPaths() {
+        assertThat(CatalogResponseCacheFilter.key(get("/api/v1/items/42"))).isEqualTo(CatalogResponseCache.detailKey(42));
+        assertThat(CatalogResponseCacheFilter.key(get("/api/v1/items/categories"))).isEqualTo("/api/v1/items/categories");
+        assertThat(CatalogResponseCacheFilter.key(get("/api/v1/items/bestsellers"))).isNull();
+    }
+
+    private static MockHttpServletRequest page(String... params) {
+        MockHttpServletRequest request = get("/api/v1/items");
+        for (int i = 0; i < params.length; i += 2) request.addParameter(params[i], params[i + 1]);
+        return request;
+    }
+
+    private static MockHttpServletRequest get(String uri) {
+        return new MockHttpServletRequest("GET", uri);
+    }
+}
@@ -0,0 +1,125 @@
+package com.pahanaedu.billingapp.jdbc;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class CountingDataSourceTest {
+
+    private final DriverManagerDataSource h2 = new DriverManagerDataSource(
+            "jdbc:h2:mem:counting-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+    private final SlowQueryJournal journal = new SlowQueryJournal(0, 16);     // every statement is slow
+    private CountingDataSource dataSource;
+    private QueryStats stats;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        dataSource = new CountingDataSource(h2, null);
+        try (Connection c = dataSource.getConnection(); Statement s = c.createStatement()) {
+            s.execute("CREATE TABLE t (id INT PRIMARY KEY)");
+            s.execute("INSERT INTO t VALUES (1), (2), (3)");
+        }
+        stats = QueryStats.begin(new MockHttpServletRequest("GET", "/api/test"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        QueryStats.end();
+    }
+
+    @Test
+    void proxiesEqualThemselvesAndHashByIdentity() throws Exception {
+        try (Connection c = dataSource.getConnection(); Connection other = dataSource.getConnection();
+             PreparedStatement ps = c.prepareStatement("SELECT id FROM t");
+             ResultSet rs = ps.executeQuery()) {
+            Set<Object> set = new HashSet<>(Set.of(c, ps, rs));
+
+            assertThat(c).isEqualTo(c).isNotEqualTo(other);
+            assertThat(c.hashCode()).isEqualTo(System.identityHashCode(c));
+            assertThat(ps).isEqualTo(ps);
+            assertThat(rs).isEqualTo(rs);
+            assertThat(set).contains(c, ps, rs).doesNotContain(other);
+        }
+    }
+
+    @Test
+    void gettersLeadBackToTheProxies() throws Exception {
+        try (Connection c = dataSource.getConnection(); PreparedStatement ps = c.prepareStatement("SELECT id FROM t");
+             ResultSet rs = ps.executeQuery()) {
+            assertThat(ps.getConnection()).isSameAs(c);
+            assertThat(rs.getStatement()).isSameAs(ps);
+
+            // a statement reached through them is counted like any other
+            try (Statement again = rs.getStatement().getConnection().createStatement()) {
+                again.executeQuery("SELECT COUNT(*) FROM t").close();
+            }
+        }
+        assertThat(stats.statements()).isEqualTo(2);
+    }
+
+    @Test
+    void slowSelectIsJournalledWhenItsResultSetCloses() throws Exception {
+        CountingDataSource journalled = new CountingDataSource(h2, journal);
+        try (Connection c = journalled.getConnection(); Statement s = c.createStatement()) {
+            try (ResultSet rs = s.executeQuery("SELECT id FROM t")) {
+                while (rs.next()) { }
+                assertThat(slow()).isEmpty();       // the row count is not known yet
+            }
+            assertThat(slow()).extracting("count", "avgRows").containsExactly(tuple(1L, 3.0));
+        }
+        assertThat(slow()).extracting("count").containsExactly(1L);     // statement and connection close add nothing
+    }
+
+    @Test
+    void slowSelectIsJournalledWhenOnlyItsStatementCloses() throws Exception {
+        CountingDataSource journalled = new CountingDataSource(h2, journal);
+        try (Connection c = journalled.getConnection()) {
+            Statement s = c.createStatement();
+            ResultSet rs = s.executeQuery("SELECT id FROM t");
+            rs.next();
+            rs.next();
+            s.close();
+            assertThat(slow()).extracting("count", "avgRows").containsExactly(tuple(1L, 2.0));
+        }
+    }
+
+    @Test
+    void slowSelectIsJournalledWhenItsStatementRunsAgain() throws Exception {
+        CountingDataSource journalled = new CountingDataSource(h2, journal);
+        try (Connection c = journalled.getConnection(); PreparedStatement ps = c.prepareStatement("SELECT id FROM t")) {
+            ps.executeQuery().next();
+            assertThat(slow()).isEmpty();
+            ps.executeQuery();
+            assertThat(slow()).extracting("count", "avgRows").containsExactly(tuple(1L, 1.0));
+        }
+        assertThat(slow()).extracting("count").containsExactly(2L);
+    }
+
+    @Test
+    void slowSelectIsJournalledWhenOnlyTheConnectionCloses() throws Exception {
+        CountingDataSource journalled = new CountingDataSource(h2, journal);
+        Connection c = journalled.getConnection();
+        c.createStatement().executeQuery("SELECT id FROM t").next();
+        c.close();
+
+        assertThat(slow()).extracting("count", "avgRows").containsExactly(tuple(1L, 1.0));
+    }
+
+    private List<?> slow() {
+        return journal.worst(SlowQueryJournal.Sort.TOTAL, 10);
+    }
+}
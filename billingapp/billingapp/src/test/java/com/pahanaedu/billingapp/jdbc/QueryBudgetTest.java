@@ -0,0 +1,120 @@
+package com.pahanaedu.billingapp.jdbc;
+
+import com.pahanaedu.billingapp.security.TokenService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Statement budgets (app.sql-accounting.budgets) enforced on the endpoints that
+ * walk bill -> items and customer -> bills, against a small seeded bench
+ * database. Each is also called for its smallest and largest parent, so a
+ * count that grows with the rows fails even while it is still under budget.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:query-budget;MODE=MSSQLServer;DB_CLOSE_DELAY=-1",
+        "app.bench.customers=50",
+        "app.bench.items=200",
+        "app.bench.bills=500",
+        "app.sql-accounting.enforce-budgets=true",
+        "app.sql-accounting.budgets[/api/v1/customers]=1"       // proves enforcement: the page needs 2
+})
+@ActiveProfiles("bench")
+@AutoConfigureMockMvc
+class QueryBudgetTest {
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private JdbcTemplate jdbc;
+    @Autowired
+    private TokenService tokens;
+
+    private String bearer;
+
+    @BeforeEach
+    void setUp() {
+        bearer = "Bearer " + tokens.issue("admin", List.of("ROLE_ADMIN"), TokenService.Type.ACCESS).value();
+    }
+
+    @Test
+    void billWithItems() throws Exception {
+        long[] bills = smallestAndLargest("SELECT bill_id, COUNT(*) FROM bill_item GROUP BY bill_id");
+
+        int few = statements("/api/bills/" + bills[0]);
+        int many = statements("/api/bills/" + bills[1]);
+        assertThat(many).isLessThanOrEqualTo(few);
+    }
+
+    @Test
+    void printedBill() throws Exception {
+        long[] bills = smallestAndLargest("SELECT bill_id, COUNT(*) FROM bill_item GROUP BY bill_id");
+
+        int few = statements("/api/bills/print/" + bills[0]);
+        int many = statements("/api/bills/print/" + bills[1]);
+        assertThat(many).isLessThanOrEqualTo(few);
+    }
+
+    @Test
+    void billPdf() throws Exception {
+        long[] bills = smallestAndLargest("SELECT bill_id, COUNT(*) FROM bill_item GROUP BY bill_id");
+
+        int few = statements("/api/bills/download-pdf/" + bills[0]);
+        int many = statements("/api/bills/download-pdf/" + bills[1]);
+        assertThat(many).isLessThanOrEqualTo(few);
+    }
+
+    @Test
+    void allBills() throws Exception {
+        statements("/api/bills");
+    }
+
+    @Test
+    void customerBills() throws Exception {
+        long[] customers = smallestAndLargest("SELECT customer_id, COUNT(*) FROM bill GROUP BY customer_id");
+
+        int few = statements("/api/v1/customers/" + customers[0] + "/bills?size=100");
+        int many = statements("/api/v1/customers/" + customers[1] + "/bills?size=100");
+        assertThat(many).isLessThanOrEqualTo(few);
+    }
+
+    @Test
+    void overBudgetFailsTheRequest() {
+        assertThatThrownBy(() -> statements("/api/v1/customers?size=20"))
+                .isInstanceOf(QueryBudgetExceededException.class)
+                .hasMessage("GET /api/v1/customers ran 2 statements, budget is 1");
+    }
+
+    /** Runs the GET (over budget throws) and returns its X-Query-Count. */
+    private int statements(String url) throws Exception {
+        String count = mvc.perform(get(url).header("Authorization", bearer))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("X-Query-Count");
+        assertThat(count).isNotNull();
+        return Integer.parseInt(count);
+    }
+
+    /** Parent ids with the fewest and the most children, from "SELECT parent, COUNT(*) ... GROUP BY parent". */
+    private long[] smallestAndLargest(String countsByParent) {
+        List<long[]> rows = jdbc.query(countsByParent, (rs, i) -> new long[]{rs.getLong(1), rs.getLong(2)});
+        long[] min = rows.get(0), max = rows.get(0);
+        for (long[] r : rows) {
+            if (r[1] < min[1]) min = r;
+            if (r[1] > max[1]) max = r;
+        }
+        assertThat(max[1]).isGreaterThan(min[1]);
+        return new long[]{min[0], max[0]};
+    }
+}
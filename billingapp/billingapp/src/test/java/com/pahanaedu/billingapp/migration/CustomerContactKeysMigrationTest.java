@@ -0,0 +1,64 @@
+package com.pahanaedu.billingapp.migration;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** V7 keys from legacy rows, then V13 recomputing them with ContactKeys (H2 in SQL Server mode). */
+class CustomerContactKeysMigrationTest {
+
+    @Test
+    void recomputesKeysWithTheApplicationRules() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:v13;MODE=MSSQLServer;DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+
+        migrate(dataSource, "6");
+        insert(jdbc, 1, "+94 (77) 123-4567", "Ann@Example.com ");
+        insert(jdbc, 2, "077_1234567#ext", null);                  // separators V7 did not strip
+        insert(jdbc, 3, "94771234567", "ann@example.com");          // newer duplicate of #1
+        insert(jdbc, 4, "1234567890 1234567890 1234567890 123", null);   // 33 digits
+        insert(jdbc, 5, "  ", "\tbob@example.com");
+        migrate(dataSource, "12");
+
+        // V7 left #2 with a key the API never produces
+        assertThat(phoneKey(jdbc, 2)).isEqualTo("077_1234567#ext");
+
+        migrate(dataSource, null);
+
+        assertThat(keys(jdbc, 1)).containsExactly("94771234567", "ann@example.com");
+        assertThat(keys(jdbc, 2)).containsExactly("0771234567", null);
+        assertThat(keys(jdbc, 3)).containsExactly(null, null);
+        assertThat(keys(jdbc, 4)).containsExactly(null, null);
+        assertThat(keys(jdbc, 5)).containsExactly(null, "bob@example.com");
+    }
+
+    private static void migrate(DriverManagerDataSource dataSource, String target) {
+        var config = Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration/common", "classpath:db/migration/h2")
+                .javaMigrations(new V13__customer_contact_keys_recompute());
+        if (target != null) config.target(target);
+        config.load().migrate();
+    }
+
+    private static void insert(JdbcTemplate jdbc, long id, String phone, String email) {
+        jdbc.update("INSERT INTO customer (id, name, phone, email) VALUES (?, ?, ?, ?)", id, "Customer " + id, phone, email);
+    }
+
+    private static String phoneKey(JdbcTemplate jdbc, long id) {
+        return jdbc.queryForObject("SELECT phone_key FROM customer WHERE id = ?", String.class, id);
+    }
+
+    private static List<String> keys(JdbcTemplate jdbc, long id) {
+        Map<String, Object> row = jdbc.queryForMap("SELECT phone_key, email_key FROM customer WHERE id = ?", id);
+        return Arrays.asList((String) row.get("PHONE_KEY"), (String) row.get("EMAIL_KEY"));
+    }
+}
@@ -0,0 +1,119 @@
+package com.pahanaedu.billingapp.security;
+
+import com.pahanaedu.billingapp.controller.AuthController;
+import com.pahanaedu.billingapp.controller.AuthExceptionHandler;
+import com.pahanaedu.billingapp.service.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class BoundedPasswordEncoderTest {
+
+    // one hashing thread, one queue slot, like passwordHashingExecutor at its smallest
+    private final ThreadPoolExecutor pool = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(1), new ThreadPoolExecutor.AbortPolicy());
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final PasswordEncoder plain = new PasswordEncoder() {
+        @Override
+        public String encode(CharSequence raw) { return "{x}" + raw; }
+
+        @Override
+        public boolean matches(CharSequence raw, String encoded) { return encode(raw).equals(encoded); }
+    };
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        pool.shutdownNow();
+    }
+
+    @Test
+    void hashesOnThePool() throws InterruptedException {
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(plain, pool, Duration.ofSeconds(5));
+
+        assertThat(encoder.matches("secret", encoder.encode("secret"))).isTrue();
+        // the worker counts a task only after its result is handed back, so let it finish first
+        pool.shutdown();
+        assertThat(pool.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(pool.getCompletedTaskCount()).isEqualTo(2);
+    }
+
+    @Test
+    void fullQueueIsRejectedAtOnce() {
+        saturate();
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(plain, pool, Duration.ofSeconds(5));
+
+        assertThatThrownBy(() -> encoder.matches("secret", "{x}secret"))
+                .isInstanceOf(TooManyAttemptsException.class);
+    }
+
+    @Test
+    void hashWaitingPastMaxWaitIsRejected() {
+        pool.execute(this::block);
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(plain, pool, Duration.ofMillis(50));
+
+        assertThatThrownBy(() -> encoder.matches("secret", "{x}secret"))
+                .isInstanceOf(TooManyAttemptsException.class);
+        // the abandoned hash is cancelled, not left to run later
+        assertThat(pool.getQueue()).singleElement().matches(r -> ((Future<?>) r).isCancelled());
+    }
+
+    @Test
+    void saturatedPoolAnswersLoginWith429() throws Exception {
+        saturate();
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(plain, pool, Duration.ofSeconds(5));
+        CustomUserDetailsService users = mock(CustomUserDetailsService.class);
+        when(users.loadUserByUsername(anyString()))
+                .thenReturn(User.withUsername("alice").password("{x}secret").roles("USER").build());
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+        provider.setUserDetailsService(users);
+        provider.setPasswordEncoder(encoder);
+
+        AuthController controller = new AuthController(new ProviderManager(provider), mock(UserService.class),
+                users, mock(UserCache.class), mock(TokenService.class), mock(TokenRevocationList.class),
+                new LoginThrottle(30, 30, 5, 5, 1000));
+        MockMvc mvc = MockMvcBuilders.standaloneSetup(controller)
+                .setControllerAdvice(new AuthExceptionHandler()).build();
+
+        mvc.perform(post("/api/v1/auth/login").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"alice\",\"password\":\"secret\"}"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "1"));
+    }
+
+    // the only thread busy and the only queue slot taken
+    private void saturate() {
+        pool.execute(this::block);
+        pool.execute(this::block);
+    }
+
+    private void block() {
+        try {
+            release.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
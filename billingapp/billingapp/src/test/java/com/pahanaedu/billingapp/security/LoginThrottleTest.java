@@ -0,0 +1,111 @@
+package com.pahanaedu.billingapp.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+
+class LoginThrottleTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    // per IP: burst 3, 3/min; per user: burst 5, 5/min (one token every 12 s)
+    private final LoginThrottle throttle = new LoginThrottle(3, 3, 5, 5, 100_000);
+    private final long t0 = System.nanoTime();
+
+    @Test
+    void burstThenThrottledWithRetryAfter() {
+        for (int i = 0; i < 5; i++) throttle.check("alice", "10.0.0." + i, t0);
+
+        TooManyAttemptsException ex = catchThrowableOfType(
+                () -> throttle.check("alice", "10.0.0.9", t0), TooManyAttemptsException.class);
+        assertThat(ex).isNotNull();
+        assertThat(ex.getRetryAfterSeconds()).isBetween(12L, 13L);
+    }
+
+    @Test
+    void tokensRefillAtTheConfiguredRate() {
+        for (int i = 0; i < 5; i++) throttle.check("alice", "10.0.0." + i, t0);
+
+        assertThatThrownBy(() -> throttle.check("alice", "10.0.1.1", t0 + 11 * SECOND))
+                .isInstanceOf(TooManyAttemptsException.class);
+        throttle.check("alice", "10.0.1.2", t0 + 12 * SECOND + 1);
+        assertThatThrownBy(() -> throttle.check("alice", "10.0.1.3", t0 + 13 * SECOND))
+                .isInstanceOf(TooManyAttemptsException.class);
+
+        // idle for a full minute: the whole burst is back, and no more than that
+        long later = t0 + 80 * SECOND;
+        for (int i = 0; i < 5; i++) throttle.check("alice", "10.0.2." + i, later);
+        assertThatThrownBy(() -> throttle.check("alice", "10.0.2.9", later))
+                .isInstanceOf(TooManyAttemptsException.class);
+    }
+
+    @Test
+    void usernameIsMatchedIgnoringCaseAndSpaces() {
+        for (int i = 0; i < 5; i++) throttle.check(i % 2 == 0 ? "Alice" : " alice ", "10.0.0." + i, t0);
+
+        assertThatThrownBy(() -> throttle.check("ALICE", "10.0.0.9", t0))
+                .isInstanceOf(TooManyAttemptsException.class);
+    }
+
+    @Test
+    void ipBucketLimitsAcrossUsernames() {
+        for (int i = 0; i < 3; i++) throttle.check("user" + i, "10.0.0.1", t0);
+
+        assertThatThrownBy(() -> throttle.check("other", "10.0.0.1", t0))
+                .isInstanceOf(TooManyAttemptsException.class);
+        throttle.check("other", "10.0.0.2", t0);
+    }
+
+    @Test
+    void exhaustedKeyLeavesOtherKeysAloneInAnyStripe() {
+        String busy = "alice";
+        String sameStripe = keyInStripe(stripe(busy), busy);
+        String otherStripe = keyInStripe((stripe(busy) + 1) & 63, busy);
+
+        for (int i = 0; i < 5; i++) throttle.check(busy, "10.0.0." + i, t0);
+        assertThatThrownBy(() -> throttle.check(busy, "10.0.0.9", t0))
+                .isInstanceOf(TooManyAttemptsException.class);
+
+        for (int i = 0; i < 5; i++) {
+            throttle.check(sameStripe, "10.1.0." + i, t0);
+            throttle.check(otherStripe, "10.2.0." + i, t0);
+        }
+    }
+
+    @Test
+    void fullStripeLetsNewKeysThroughUntilIdleOnesAreDropped() {
+        // one key per stripe
+        LoginThrottle small = new LoginThrottle(1000, 1000, 1, 1, 64);
+        String first = "alice";
+        String second = keyInStripe(stripe(first), first);
+
+        small.check(first, "10.0.0.1", t0);
+        assertThatThrownBy(() -> small.check(first, "10.0.0.2", t0))
+                .isInstanceOf(TooManyAttemptsException.class);
+        // stripe full: not tracked, never throttled
+        for (int i = 0; i < 3; i++) small.check(second, "10.0.1." + i, t0);
+
+        // past one refill period the wheel drops the idle key and the newcomer gets a bucket
+        long later = t0 + 2 * TimeUnit.MINUTES.toNanos(1);
+        small.check(second, "10.0.2.1", later);
+        assertThatThrownBy(() -> small.check(second, "10.0.2.2", later))
+                .isInstanceOf(TooManyAttemptsException.class);
+    }
+
+    // same spreading as LoginThrottle.BucketTable (64 stripes)
+    private static int stripe(String key) {
+        int h = key.hashCode();
+        return (h ^ (h >>> 16)) & 63;
+    }
+
+    private static String keyInStripe(int stripe, String not) {
+        for (int i = 0; ; i++) {
+            String k = "user" + i;
+            if (stripe(k) == stripe && !k.equals(not)) return k;
+        }
+    }
+}
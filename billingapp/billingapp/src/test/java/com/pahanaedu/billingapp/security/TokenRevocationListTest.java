@@ -0,0 +1,120 @@
+package com.pahanaedu.billingapp.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pahanaedu.billingapp.model.TokenRevocation;
+import com.pahanaedu.billingapp.repository.TokenRevocationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TokenRevocationListTest {
+
+    private final TokenRevocationRepository repository = mock(TokenRevocationRepository.class);
+    private TokenService tokens;
+    private TokenRevocationList revocations;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        tokens = new TokenService(new ObjectMapper(), "", Duration.ofMinutes(15), Duration.ofDays(7));
+        when(repository.findByExpiresAtGreaterThan(anyLong())).thenReturn(List.of());
+        revocations = new TokenRevocationList(repository, tokens, Duration.ofSeconds(2));
+        revocations.load();
+    }
+
+    @Test
+    void onlyTheFirstRevocationOfATokenWins() {
+        TokenService.Verified token = refresh("alice");
+
+        assertThat(revocations.revoke(token)).isTrue();
+        assertThat(revocations.revoke(token)).isFalse();
+        assertThat(revocations.isRevoked(token)).isTrue();
+        verify(repository, times(1)).save(any());
+    }
+
+    @Test
+    void revocationAlreadyStoredByAnotherInstanceLoses() {
+        TokenService.Verified token = refresh("alice");
+        when(repository.save(any())).thenThrow(new DataIntegrityViolationException("ux_token_revocation_jti"));
+
+        assertThat(revocations.revoke(token)).isFalse();
+        assertThat(revocations.isRevoked(token)).isTrue();
+    }
+
+    @Test
+    void issuedAtKeepsMilliseconds() {
+        long before = System.currentTimeMillis();
+        TokenService.Token issued = tokens.issue("alice", List.of(), TokenService.Type.REFRESH);
+        TokenService.Verified verified = tokens.verify(issued.value(), TokenService.Type.REFRESH).orElseThrow();
+
+        assertThat(verified.issuedAtMillis()).isEqualTo(issued.issuedAtMillis())
+                .isBetween(before, System.currentTimeMillis());
+    }
+
+    @Test
+    void cutOffRevokesTokensIssuedUpToTheMillisecond() {
+        long now = System.currentTimeMillis();
+        revocations.revokeAll("alice");
+
+        assertThat(revocations.isRevoked(issuedAt("alice", now))).isTrue();
+        // a login straight after a password change, same second: not caught by the cut-off
+        assertThat(revocations.isRevoked(issuedAt("alice", System.currentTimeMillis() + 1))).isFalse();
+        assertThat(revocations.isRevoked(issuedAt("bob", now))).isFalse();
+    }
+
+    @Test
+    void syncPicksUpOtherInstancesRevocations() {
+        long now = System.currentTimeMillis();
+        long expires = now / 1000 + 600;
+        TokenService.Verified token = refresh("alice");
+        when(repository.findByRevokedAtGreaterThanEqual(anyLong())).thenReturn(List.of(
+                new TokenRevocation(token.jti(), "alice", now, expires),
+                new TokenRevocation(null, "bob", now, expires)));
+
+        assertThat(revocations.isRevoked(token)).isFalse();
+        revocations.sync();
+
+        assertThat(revocations.isRevoked(token)).isTrue();
+        assertThat(revocations.isRevoked(issuedAt("bob", now - 1))).isTrue();
+        // a token revoked elsewhere cannot be spent here either
+        assertThat(revocations.revoke(token)).isFalse();
+    }
+
+    @Test
+    void failedSyncKeepsEntriesAndRetries() {
+        TokenService.Verified token = refresh("alice");
+        revocations.revoke(token);
+        when(repository.findByRevokedAtGreaterThanEqual(anyLong()))
+                .thenThrow(new DataAccessResourceFailureException("down"))
+                .thenReturn(List.of(new TokenRevocation(null, "bob", System.currentTimeMillis(),
+                        System.currentTimeMillis() / 1000 + 600)));
+
+        revocations.sync();
+        assertThat(revocations.isRevoked(token)).isTrue();
+
+        revocations.sync();
+        assertThat(revocations.isRevoked(issuedAt("bob", 0))).isTrue();
+    }
+
+    private TokenService.Verified refresh(String username) {
+        TokenService.Token t = tokens.issue(username, List.of(), TokenService.Type.REFRESH);
+        return tokens.verify(t.value(), TokenService.Type.REFRESH).orElseThrow();
+    }
+
+    private static TokenService.Verified issuedAt(String username, long issuedAtMillis) {
+        return new TokenService.Verified(username, List.of(), TokenService.Type.ACCESS,
+                UUID.randomUUID().toString(), issuedAtMillis, issuedAtMillis / 1000 + 900);
+    }
+}
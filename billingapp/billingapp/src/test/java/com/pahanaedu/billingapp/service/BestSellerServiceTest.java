@@ -0,0 +1,197 @@
+package com.pahanaedu.billingapp.service;
+
+import com.pahanaedu.billingapp.dto.BestSellerDTO;
+import com.pahanaedu.billingapp.dto.ItemSale;
+import com.pahanaedu.billingapp.dto.ItemSummaryDTO;
+import com.pahanaedu.billingapp.dto.ItemUnitsSold;
+import com.pahanaedu.billingapp.event.BillCreatedEvent;
+import com.pahanaedu.billingapp.event.BillDeletedEvent;
+import com.pahanaedu.billingapp.event.ItemChangedEvent;
+import com.pahanaedu.billingapp.repository.BillItemRepository;
+import com.pahanaedu.billingapp.repository.ItemRepository;
+import com.pahanaedu.billingapp.service.BestSellerService.SalesCounter;
+import com.pahanaedu.billingapp.service.BestSellerService.Window;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BestSellerServiceTest {
+
+    private final BillItemRepository billItems = mock(BillItemRepository.class);
+    private final ItemRepository items = mock(ItemRepository.class);
+    private final BillHistoryScanner scanner = mock(BillHistoryScanner.class);
+    private BestSellerService service;
+
+    private final LocalDateTime now = LocalDateTime.now();
+    private final long today = now.toLocalDate().toEpochDay();
+
+    @BeforeEach
+    void setUp() {
+        service = new BestSellerService(billItems, items, scanner, mock(ExecutorService.class), 0);
+        when(items.findSummariesByIdIn(anyCollection())).thenAnswer(inv -> {
+            Collection<Long> ids = inv.getArgument(0);
+            return ids.stream().map(id -> new ItemSummaryDTO(id, "Item " + id, 10, 5, "Fiction")).toList();
+        });
+    }
+
+    // --------- ring buckets
+
+    @Test
+    void windowsOnlyCountTheirDays() {
+        SalesCounter c = new SalesCounter();
+        c.add(today, today, 5);
+        c.add(today - 6, today, 3);
+        c.add(today - 10, today, 2);
+
+        assertThat(c.units(Window.DAYS_7, today)).isEqualTo(8);
+        assertThat(c.units(Window.DAYS_30, today)).isEqualTo(10);
+        assertThat(c.units(Window.ALL_TIME, today)).isEqualTo(10);
+    }
+
+    @Test
+    void daysRollOutOfTheWindow() {
+        SalesCounter c = new SalesCounter();
+        c.add(today - 6, today, 3);
+        c.add(today, today, 5);
+
+        assertThat(c.units(Window.DAYS_7, today + 1)).isEqualTo(5);
+        assertThat(c.units(Window.DAYS_30, today + 29)).isEqualTo(5);
+        assertThat(c.units(Window.DAYS_30, today + 30)).isZero();
+        assertThat(c.units(Window.ALL_TIME, today + 30)).isEqualTo(8);
+    }
+
+    @Test
+    void reusedBucketStartsFromZeroAndIgnoresItsOldDay() {
+        SalesCounter c = new SalesCounter();
+        c.add(today, today, 5);
+        long later = today + BestSellerService.RING_DAYS;   // same slot as today
+
+        c.add(later, later, 2);
+        assertThat(c.units(Window.DAYS_7, later)).isEqualTo(2);
+
+        // a late delete for the day the bucket used to hold must not touch the new day
+        c.add(today, later, -5);
+        assertThat(c.units(Window.DAYS_7, later)).isEqualTo(2);
+        assertThat(c.units(Window.ALL_TIME, later)).isEqualTo(2);
+    }
+
+    @Test
+    void mergeKeepsTheNewerDayPerBucket() {
+        SalesCounter a = new SalesCounter();
+        a.add(today, today, 4);
+        SalesCounter b = new SalesCounter();
+        b.add(today, today, 1);
+        b.add(today - 1, today, 2);
+
+        a.merge(b);
+
+        assertThat(a.units(Window.DAYS_7, today)).isEqualTo(7);
+        assertThat(a.total).isEqualTo(7);
+    }
+
+    // --------- top-N
+
+    @Test
+    void topReturnsTheHighestSellersInDescendingOrder() {
+        int itemCount = BestSellerService.MAX_LIMIT * 3;
+        for (int id = 1; id <= itemCount; id++) {
+            service.onBillCreated(bill(id, now, id, id));
+        }
+
+        List<BestSellerDTO> top = service.top(Window.ALL_TIME, BestSellerService.MAX_LIMIT);
+
+        assertThat(top).hasSize(BestSellerService.MAX_LIMIT);
+        for (int i = 0; i < top.size(); i++) {
+            long expected = itemCount - i;
+            assertThat(top.get(i).itemId()).isEqualTo(expected);
+            assertThat(top.get(i).unitsSold()).isEqualTo(expected);
+            assertThat(top.get(i).item().name()).isEqualTo("Item " + expected);
+        }
+        assertThat(service.top(Window.ALL_TIME, 3)).extracting(BestSellerDTO::itemId)
+                .containsExactly((long) itemCount, itemCount - 1L, itemCount - 2L);
+    }
+
+    @Test
+    void topFollowsNewSalesAndSkipsOtherWindows() {
+        service.onBillCreated(bill(1, now, 1, 5));
+        service.onBillCreated(bill(2, now.minusDays(10), 2, 9));
+        assertThat(service.top(Window.DAYS_7, 10)).extracting(BestSellerDTO::itemId).containsExactly(1L);
+        assertThat(service.top(Window.DAYS_30, 10)).extracting(BestSellerDTO::itemId).containsExactly(2L, 1L);
+
+        service.onBillCreated(bill(3, now, 2, 1));
+        service.onBillDeleted(deleted(1, now, 1, 5));
+        assertThat(service.top(Window.DAYS_7, 10)).extracting(BestSellerDTO::itemId).containsExactly(2L);
+    }
+
+    @Test
+    void cardsAreServedFromMemoryAndFollowItemChanges() {
+        service.onBillCreated(bill(1, now, 7, 3));
+        service.top(Window.ALL_TIME, 10);
+        service.onItemChanged(new ItemChangedEvent(7, false, null, "Renamed", 12.5, 1, "Science"));
+
+        List<BestSellerDTO> top = service.top(Window.ALL_TIME, 10);
+
+        assertThat(top.get(0).item()).isEqualTo(new ItemSummaryDTO(7L, "Renamed", 12.5, 1, "Science"));
+        verify(items, times(1)).findSummariesByIdIn(anyCollection());
+    }
+
+    // --------- rebuild
+
+    @Test
+    void eventsDuringRebuildAreReplayedOntoTheScan() {
+        when(scanner.currentMaxBillId()).thenReturn(10L);
+        when(billItems.sumUnitsByItem(anyLong(), anyLong()))
+                .thenReturn(List.of(new ItemUnitsSold(1L, 8L)));
+        when(billItems.findSalesSince(anyLong(), anyLong(), any()))
+                .thenReturn(List.of(new ItemSale(1L, now, 3), new ItemSale(1L, now, 5)));
+        doAnswer(inv -> {
+            BillHistoryScanner.ChunkLoader<?> loader = inv.getArgument(1);
+            Object part = loader.load(1, 10);
+            // committed while the scan was running
+            service.onBillDeleted(deleted(5, now, 1, 3));          // in the scan: subtract
+            service.onBillCreated(bill(11, now, 1, 2));             // after the snapshot: add
+            service.onBillCreated(bill(9, now, 1, 100));            // already in the scan: ignore
+            return List.of(part);
+        }).when(scanner).scan(eq(10L), any());
+
+        service.rebuild();
+
+        assertThat(service.unitsSold(1, Window.ALL_TIME)).isEqualTo(7);
+        assertThat(service.unitsSold(1, Window.DAYS_7)).isEqualTo(7);
+    }
+
+    @Test
+    void failedRebuildKeepsLiveCounters() {
+        service.onBillCreated(bill(1, now, 1, 4));
+        when(scanner.currentMaxBillId()).thenThrow(new IllegalStateException("database down"));
+
+        service.rebuild();
+        service.onBillCreated(bill(2, now, 1, 1));
+
+        assertThat(service.unitsSold(1, Window.ALL_TIME)).isEqualTo(5);
+    }
+
+    private static BillCreatedEvent bill(long billId, LocalDateTime date, long itemId, int quantity) {
+        return new BillCreatedEvent(billId, null, date, 0, new long[]{itemId}, new int[]{quantity});
+    }
+
+    private static BillDeletedEvent deleted(long billId, LocalDateTime date, long itemId, int quantity) {
+        return new BillDeletedEvent(billId, null, date, 0, new long[]{itemId}, new int[]{quantity});
+    }
+}
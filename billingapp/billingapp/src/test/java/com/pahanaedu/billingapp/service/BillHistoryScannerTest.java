@@ -0,0 +1,53 @@
+package com.pahanaedu.billingapp.service;
+
+import com.pahanaedu.billingapp.repository.BillRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BillHistoryScannerTest {
+
+    private final BillRepository bills = mock(BillRepository.class);
+    private final ExecutorService pool = Executors.newSingleThreadExecutor();
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void chunksComeBackInOrder() {
+        when(bills.findMinId()).thenReturn(1L);
+        BillHistoryScanner scanner = new BillHistoryScanner(bills, pool, 10);
+
+        assertThat(scanner.scan(25, (lo, hi) -> lo + ".." + hi)).containsExactly("1..10", "11..20", "21..25");
+    }
+
+    @Test
+    void noBillsNoChunks() {
+        when(bills.findMinId()).thenReturn(0L);
+        BillHistoryScanner scanner = new BillHistoryScanner(bills, pool, 10);
+
+        assertThat(scanner.scan(0, (lo, hi) -> lo)).isEmpty();
+    }
+
+    @Test
+    void scanFromThePoolsOnlyThreadFinishes() throws Exception {
+        // a startup rebuild runs on the background pool; with every worker busy coordinating it must not wait forever
+        when(bills.findMinId()).thenReturn(1L);
+        BillHistoryScanner scanner = new BillHistoryScanner(bills, pool, 10);
+
+        Future<List<Long>> rebuild = pool.submit(() -> scanner.scan(50, (lo, hi) -> hi - lo + 1));
+
+        assertThat(rebuild.get(5, TimeUnit.SECONDS)).containsExactly(10L, 10L, 10L, 10L, 10L);
+    }
+}
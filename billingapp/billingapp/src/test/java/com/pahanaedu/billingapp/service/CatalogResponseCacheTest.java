@@ -0,0 +1,89 @@
+package com.pahanaedu.billingapp.service;
+
+import com.pahanaedu.billingapp.event.BillCreatedEvent;
+import com.pahanaedu.billingapp.event.BillDeletedEvent;
+import com.pahanaedu.billingapp.event.BillsPurgedEvent;
+import com.pahanaedu.billingapp.event.ItemChangedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CatalogResponseCacheTest {
+
+    private static final String NEWEST = "/api/v1/items?page=0&sort=newest";
+    private static final String BESTSELLING = "/api/v1/items?page=0&sort=bestselling";
+    private static final String FACETS = "/api/v1/items/categories";
+
+    private final CatalogResponseCache cache = new CatalogResponseCache(100, 1024, 0, 0);
+
+    @Test
+    void itemChangeDropsPagesFacetsAndThatItemsDetail() {
+        fill(NEWEST, BESTSELLING, FACETS, CatalogResponseCache.detailKey(1), CatalogResponseCache.detailKey(2));
+
+        cache.onItemChanged(new ItemChangedEvent(1L, false, null, "Book", 10.0, 4, "Fiction"));
+
+        assertThat(cached(NEWEST, BESTSELLING, FACETS, CatalogResponseCache.detailKey(1))).isEmpty();
+        assertThat(cached(CatalogResponseCache.detailKey(2))).hasSize(1);
+    }
+
+    @Test
+    void billWritesDropOnlySalesOrderedPages() {
+        BillDeletedEvent deleted = new BillDeletedEvent(7L, 3L, LocalDateTime.now(), 20.0, new long[]{1}, new int[]{2});
+
+        fill(NEWEST, BESTSELLING, FACETS);
+        cache.onBillCreated(new BillCreatedEvent(8L, 3L, LocalDateTime.now(), 20.0, new long[]{1}, new int[]{2}));
+        assertThat(cached(NEWEST, BESTSELLING, FACETS)).containsExactly(NEWEST, FACETS);
+
+        fill(BESTSELLING);
+        cache.onBillDeleted(deleted);
+        assertThat(cached(BESTSELLING)).isEmpty();
+
+        fill(BESTSELLING);
+        cache.onBillsPurged(new BillsPurgedEvent(3L, List.of(deleted)));
+        assertThat(cached(BESTSELLING)).isEmpty();
+    }
+
+    @Test
+    void salesOrderMatchesTheSortParameterOnly() {
+        assertThat(CatalogResponseCache.salesOrdered("/api/v1/items?sort=BestSelling")).isTrue();
+        assertThat(CatalogResponseCache.salesOrdered("/api/v1/items?q=bestselling&sort=name")).isFalse();
+        assertThat(CatalogResponseCache.salesOrdered("/api/v1/items")).isFalse();
+    }
+
+    @Test
+    void entriesExpireAfterTheTtl() throws InterruptedException {
+        CatalogResponseCache shortLived = new CatalogResponseCache(100, 1024, 0, 20);
+        shortLived.put(NEWEST, shortLived.generation(), "application/json", body());
+        assertThat(shortLived.get(NEWEST)).isNotNull();
+
+        Thread.sleep(40);
+
+        assertThat(shortLived.get(NEWEST)).isNull();
+        assertThat(shortLived.stats().size()).isZero();
+    }
+
+    @Test
+    void zeroTtlNeverExpires() throws InterruptedException {
+        fill(NEWEST);
+        Thread.sleep(20);
+
+        assertThat(cache.get(NEWEST)).isNotNull();
+    }
+
+    private void fill(String... keys) {
+        for (String key : keys) cache.put(key, cache.generation(), "application/json", body());
+    }
+
+    private List<String> cached(String... keys) {
+        return Arrays.stream(keys).filter(k -> cache.get(k) != null).toList();
+    }
+
+    private static byte[] body() {
+        return "{\"content\":[]}".getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,148 @@
+package com.pahanaedu.billingapp.service;
+
+import com.pahanaedu.billingapp.dto.UserImportResultDTO;
+import com.pahanaedu.billingapp.migration.V13__customer_contact_keys_recompute;
+import com.pahanaedu.billingapp.model.Role;
+import com.pahanaedu.billingapp.repository.RoleRepository;
+import com.pahanaedu.billingapp.repository.UserRepository;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/** Imports into the real schema (H2 in SQL Server mode); chunks of two rows. */
+class UserImportServiceTest {
+
+    private static final String HEADER = "username,password,fullName,email,phone,role\n";
+
+    private final UserRepository users = mock(UserRepository.class);
+    private final RoleRepository roles = mock(RoleRepository.class);
+    private JdbcTemplate jdbc;
+    private UserImportService service;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:import-" + UUID.randomUUID() + ";MODE=MSSQLServer;DB_CLOSE_DELAY=-1", "sa", "");
+        Flyway.configure().dataSource(dataSource)
+                .locations("classpath:db/migration/common", "classpath:db/migration/h2")
+                .javaMigrations(new V13__customer_contact_keys_recompute()).load().migrate();
+        jdbc = new JdbcTemplate(dataSource);
+        jdbc.update("INSERT INTO roles (name) VALUES ('ROLE_USER')");
+        long userRole = jdbc.queryForObject("SELECT id FROM roles WHERE name = 'ROLE_USER'", Long.class);
+
+        // GHOST has an id with no roles row: its user_roles insert breaks the foreign key
+        when(roles.findAll()).thenReturn(List.of(role(userRole, "ROLE_USER"), role(9999, "ROLE_GHOST")));
+        // what the JPQL query does: the stored username_key of each one taken
+        when(users.findExistingUsernameKeys(anyCollection())).thenAnswer(a -> {
+            Collection<String> keys = a.getArgument(0);
+            return new NamedParameterJdbcTemplate(jdbc).queryForList(
+                    "SELECT username_key FROM users WHERE username_key IN (:keys)", Map.of("keys", keys), String.class);
+        });
+
+        PasswordEncoder encoder = mock(PasswordEncoder.class);
+        when(encoder.encode(any())).thenAnswer(a -> "{x}" + a.getArgument(0));
+        service = new UserImportService(users, roles, jdbc,
+                new TransactionTemplate(new DataSourceTransactionManager(dataSource)), encoder, 2, 2);
+    }
+
+    @Test
+    void importsAFileSavedAsExcelCsvUtf8() throws IOException {
+        UserImportResultDTO result = importCsv("\uFEFF" + HEADER
+                + "ann,secret1,Ann Perera,ann@example.com,,USER\n");
+
+        assertThat(result.created()).isEqualTo(1);
+        assertThat(usernames()).containsExactly("ann");
+    }
+
+    @Test
+    void failedChunkRollsBackWholeAndTheRestCarriesOn() throws IOException {
+        UserImportResultDTO result = importCsv(HEADER
+                + "ann,secret1,Ann,,,USER\n"
+                + "bob,secret2,Bob,,,USER\n"
+                + "cat,secret3,Cat,,,USER\n"          // same chunk as dan: rolled back with it
+                + "dan,secret4,Dan,,,GHOST\n"
+                + "eve,secret5,Eve,,,USER\n");
+
+        assertThat(result.rows()).isEqualTo(5);
+        assertThat(result.created()).isEqualTo(3);
+        assertThat(result.skipped()).isEqualTo(2);
+        assertThat(result.errors()).hasSize(2)
+                .allMatch(e -> e.contains("not imported, chunk failed"))
+                .anyMatch(e -> e.startsWith("line 4:"))
+                .anyMatch(e -> e.startsWith("line 5:"));
+        assertThat(usernames()).containsExactly("ann", "bob", "eve");
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM user_roles", Integer.class)).isEqualTo(3);
+    }
+
+    @Test
+    void badRowsAreSkippedByLine() throws IOException {
+        UserImportResultDTO result = importCsv(HEADER
+                + "ann,short,Ann,,,USER\n"
+                + "\"bob\",secret2,\"Bob\nSilva\",,,USER\n"
+                + "BOB,secret3,Bob again,,,USER\n");
+
+        assertThat(result.created()).isEqualTo(1);
+        assertThat(result.errors()).containsExactly(
+                "line 2: password must be at least 6 characters",
+                "line 5: duplicate username BOB in file");
+        assertThat(jdbc.queryForObject("SELECT full_name FROM users", String.class)).isEqualTo("Bob\nSilva");
+    }
+
+    @Test
+    void usernameTakenInAnotherCaseIsSkipped() throws IOException {
+        importCsv(HEADER + "alice,secret1,Alice Silva,,,USER\n");
+
+        UserImportResultDTO result = importCsv(HEADER
+                + "Alice,secret2,Alice Again,,,USER\n"
+                + "bob,secret3,Bob,,,USER\n");
+
+        assertThat(result.created()).isEqualTo(1);
+        assertThat(result.errors()).containsExactly("line 2: username Alice already exists");
+        assertThat(usernames()).containsExactly("alice", "bob");
+        // the existing alice did not pick up a second role row
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM user_roles", Integer.class)).isEqualTo(2);
+    }
+
+    @Test
+    void missingRequiredColumnFailsTheFile() {
+        assertThatThrownBy(() -> importCsv("password,fullName,role\nx,y,USER\n"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("CSV header must include username");
+    }
+
+    private UserImportResultDTO importCsv(String csv) throws IOException {
+        return service.importCsv(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private List<String> usernames() {
+        return jdbc.queryForList("SELECT username FROM users ORDER BY username", String.class);
+    }
+
+    private static Role role(long id, String name) {
+        Role r = new Role();
+        r.setId(id);
+        r.setName(name);
+        return r;
+    }
+}
@@ -0,0 +1,39 @@
+package com.pahanaedu.billingapp.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ContactKeysTest {
+
+    @Test
+    void phoneKeepsDigitsOnly() {
+        assertThat(ContactKeys.phone("+94 77-123 4567")).isEqualTo("94771234567");
+        assertThat(ContactKeys.phone("(077) 123.45/67 ext#_9")).isEqualTo("07712345679");
+        assertThat(ContactKeys.phone("94771234567")).isEqualTo("94771234567");
+    }
+
+    @Test
+    void phoneWithoutDigitsHasNoKey() {
+        assertThat(ContactKeys.phone(null)).isNull();
+        assertThat(ContactKeys.phone("")).isNull();
+        assertThat(ContactKeys.phone(" - ")).isNull();
+    }
+
+    @Test
+    void phoneKeyIsBounded() {
+        String max = "1".repeat(ContactKeys.MAX_PHONE_KEY);
+        assertThat(ContactKeys.phone(max + " ")).isEqualTo(max);
+        assertThatThrownBy(() -> ContactKeys.phone(max + "1")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void emailIsTrimmedAndLowerCasedWithoutLocale() {
+        assertThat(ContactKeys.email("  Ann.Perera@Example.COM\t")).isEqualTo("ann.perera@example.com");
+        assertThat(ContactKeys.email("TITLE@EXAMPLE.COM")).isEqualTo("title@example.com");   // no dotless i
+        assertThat(ContactKeys.email(" ")).isNull();
+        assertThat(ContactKeys.email(null)).isNull();
+        assertThat(ContactKeys.username(" Admin ")).isEqualTo("admin");
+    }
+}
@@ -0,0 +1,89 @@
+package com.pahanaedu.billingapp.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CsvReaderTest {
+
+    @Test
+    void splitsPlainRecords() throws IOException {
+        assertThat(readAll("a,b,c\n1,2,3\n")).containsExactly(
+                List.of("a", "b", "c"), List.of("1", "2", "3"));
+    }
+
+    @Test
+    void keepsEmptyFields() throws IOException {
+        assertThat(readAll(",x,\n")).containsExactly(List.of("", "x", ""));
+    }
+
+    @Test
+    void quotedFieldsKeepCommasAndDoubledQuotes() throws IOException {
+        assertThat(readAll("\"Perera, Ann\",\"say \"\"hi\"\"\",\"\"\n")).containsExactly(
+                List.of("Perera, Ann", "say \"hi\"", ""));
+    }
+
+    @Test
+    void quoteInsideAnUnquotedFieldIsLiteral() throws IOException {
+        assertThat(readAll("5\" disk,x\n")).containsExactly(List.of("5\" disk", "x"));
+    }
+
+    @Test
+    void quotedFieldsSpanLinesAndLineNumbersFollow() throws IOException {
+        CsvReader in = new CsvReader(new StringReader("h1,h2\n\"line one\nline two\",x\nlast,y\n"));
+
+        assertThat(in.next()).containsExactly("h1", "h2");
+        assertThat(in.recordLine()).isEqualTo(1);
+        assertThat(in.next()).containsExactly("line one\nline two", "x");
+        assertThat(in.recordLine()).isEqualTo(2);
+        assertThat(in.next()).containsExactly("last", "y");
+        assertThat(in.recordLine()).isEqualTo(4);
+        assertThat(in.next()).isNull();
+    }
+
+    @Test
+    void acceptsCrLfAndSkipsBlankLines() throws IOException {
+        CsvReader in = new CsvReader(new StringReader("a,b\r\n\r\n  \r\nc,d\r\n"));
+
+        assertThat(in.next()).containsExactly("a", "b");
+        assertThat(in.next()).containsExactly("c", "d");
+        assertThat(in.recordLine()).isEqualTo(4);
+        assertThat(in.next()).isNull();
+    }
+
+    @Test
+    void lastRecordNeedsNoNewline() throws IOException {
+        assertThat(readAll("a,b\nc,d")).containsExactly(List.of("a", "b"), List.of("c", "d"));
+    }
+
+    @Test
+    void emptyInputHasNoRecords() throws IOException {
+        assertThat(readAll("")).isEmpty();
+        assertThat(readAll("\n\n")).isEmpty();
+    }
+
+    @Test
+    void skipsLeadingByteOrderMark() throws IOException {
+        assertThat(readAll("\uFEFFusername,password\nann,secret1\n")).containsExactly(
+                List.of("username", "password"), List.of("ann", "secret1"));
+        assertThat(readAll("\uFEFF\"username\",x\n")).containsExactly(List.of("username", "x"));
+    }
+
+    @Test
+    void keepsByteOrderMarkAnywhereElse() throws IOException {
+        assertThat(readAll("a,\uFEFFb\n")).containsExactly(List.of("a", "\uFEFFb"));
+    }
+
+    private static List<List<String>> readAll(String csv) throws IOException {
+        CsvReader in = new CsvReader(new StringReader(csv));
+        List<List<String>> records = new ArrayList<>();
+        List<String> r;
+        while ((r = in.next()) != null) records.add(r);
+        return records;
+    }
+}
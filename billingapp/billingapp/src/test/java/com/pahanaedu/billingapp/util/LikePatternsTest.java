@@ -0,0 +1,39 @@
+package com.pahanaedu.billingapp.util;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LikePatternsTest {
+
+    @Test
+    void escapesWildcardsAndTheEscapeCharacter() {
+        assertThat(LikePatterns.prefix("50%_off")).isEqualTo("50\\%\\_off%");
+        assertThat(LikePatterns.contains("[a]\\b")).isEqualTo("%\\[a]\\\\b%");
+        assertThat(LikePatterns.contains("")).isEqualTo("%%");
+    }
+
+    @Test
+    void userWildcardsMatchOnlyThemselves() {
+        JdbcTemplate jdbc = new JdbcTemplate(new DriverManagerDataSource(
+                "jdbc:h2:mem:like-" + UUID.randomUUID() + ";MODE=MSSQLServer;DB_CLOSE_DELAY=-1", "sa", ""));
+        jdbc.execute("CREATE TABLE t (v VARCHAR(20))");
+        for (String v : List.of("plain", "100% cotton", "snake_case", "[draft]", "back\\slash")) {
+            jdbc.update("INSERT INTO t VALUES (?)", v);
+        }
+
+        assertThat(matches(jdbc, "%")).containsExactly("100% cotton");
+        assertThat(matches(jdbc, "_")).containsExactly("snake_case");
+        assertThat(matches(jdbc, "[d")).containsExactly("[draft]");
+        assertThat(matches(jdbc, "\\")).containsExactly("back\\slash");
+    }
+
+    private static List<String> matches(JdbcTemplate jdbc, String q) {
+        return jdbc.queryForList("SELECT v FROM t WHERE v LIKE ? ESCAPE '\\'", String.class, LikePatterns.contains(q));
+    }
+}
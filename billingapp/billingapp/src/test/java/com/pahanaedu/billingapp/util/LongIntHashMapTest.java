@@ -0,0 +1,119 @@
+package com.pahanaedu.billingapp.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LongIntHashMapTest {
+
+    // default capacity is 16 slots and stays so up to 8 keys
+    private static final int MASK = 15;
+
+    @Test
+    void addToInsertsAndAccumulates() {
+        LongIntHashMap map = new LongIntHashMap();
+        assertThat(map.addTo(42, 3)).isEqualTo(3);
+        assertThat(map.addTo(42, 4)).isEqualTo(7);
+        assertThat(map.addTo(42, -7)).isZero();
+
+        assertThat(map.get(42)).isZero();
+        assertThat(map.size()).isEqualTo(1);   // a counter back at 0 stays until removed
+        assertThat(map.get(43)).isZero();
+    }
+
+    @Test
+    void keyZeroIsReserved() {
+        LongIntHashMap map = new LongIntHashMap();
+        assertThatThrownBy(() -> map.addTo(0, 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(map.get(0)).isZero();
+        assertThat(map.remove(0)).isZero();
+    }
+
+    @Test
+    void collidingKeysSurviveDeletesInTheMiddleOfTheirRun() {
+        long[] keys = keysWithHome(3, 4);
+        LongIntHashMap map = new LongIntHashMap();
+        for (int i = 0; i < keys.length; i++) map.addTo(keys[i], i + 1);
+
+        assertThat(map.remove(keys[1])).isEqualTo(2);
+        assertThat(map.remove(keys[1])).isZero();
+        assertThat(map.get(keys[0])).isEqualTo(1);
+        assertThat(map.get(keys[2])).isEqualTo(3);
+        assertThat(map.get(keys[3])).isEqualTo(4);
+
+        assertThat(map.remove(keys[0])).isEqualTo(1);
+        assertThat(map.get(keys[2])).isEqualTo(3);
+        assertThat(map.get(keys[3])).isEqualTo(4);
+        assertThat(map.size()).isEqualTo(2);
+    }
+
+    @Test
+    void runsWrapAroundTheEndOfTheTable() {
+        long[] lastSlot = keysWithHome(MASK, 2);      // slots 15, 0
+        long[] firstSlot = keysWithHome(0, 1);        // displaced to slot 1
+        LongIntHashMap map = new LongIntHashMap();
+        map.addTo(lastSlot[0], 1);
+        map.addTo(lastSlot[1], 2);
+        map.addTo(firstSlot[0], 3);
+
+        // removing the head of the run shifts both wrapped entries back
+        assertThat(map.remove(lastSlot[0])).isEqualTo(1);
+        assertThat(map.get(lastSlot[1])).isEqualTo(2);
+        assertThat(map.get(firstSlot[0])).isEqualTo(3);
+
+        assertThat(map.remove(lastSlot[1])).isEqualTo(2);
+        assertThat(map.get(firstSlot[0])).isEqualTo(3);
+        assertThat(map.size()).isEqualTo(1);
+    }
+
+    @Test
+    void resizeKeepsEveryEntry() {
+        LongIntHashMap map = new LongIntHashMap();
+        for (long key = 1; key <= 10_000; key++) map.addTo(key, (int) key);
+
+        assertThat(map.size()).isEqualTo(10_000);
+        for (long key = 1; key <= 10_000; key++) assertThat(map.get(key)).isEqualTo((int) key);
+        long[] sum = {0};
+        map.forEach((key, value) -> sum[0] += value);
+        assertThat(sum[0]).isEqualTo(10_000L * 10_001 / 2);
+    }
+
+    @Test
+    void matchesHashMapUnderRandomAddsAndRemoves() {
+        Random random = new Random(29);
+        LongIntHashMap map = new LongIntHashMap(4);
+        Map<Long, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 200_000; i++) {
+            long key = 1 + random.nextInt(500);     // small key space: long probe runs, many deletes
+            if (random.nextInt(3) == 0) {
+                Integer old = expected.remove(key);
+                assertThat(map.remove(key)).isEqualTo(old == null ? 0 : old);
+            } else {
+                int delta = random.nextInt(10) + 1;
+                assertThat(map.addTo(key, delta)).isEqualTo(expected.merge(key, delta, Integer::sum));
+            }
+        }
+        assertThat(map.size()).isEqualTo(expected.size());
+        expected.forEach((key, value) -> assertThat(map.get(key)).isEqualTo(value));
+        Map<Long, Integer> seen = new HashMap<>();
+        map.forEach(seen::put);
+        assertThat(seen).isEqualTo(expected);
+    }
+
+    // keys whose home slot in a 16-slot table is {@code slot} (same mixing as LongIntHashMap.slotOf)
+    private static long[] keysWithHome(int slot, int count) {
+        List<Long> found = new ArrayList<>();
+        for (long key = 1; found.size() < count; key++) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            if (((int) (h ^ (h >>> 32)) & MASK) == slot) found.add(key);
+        }
+        return found.stream().mapToLong(Long::longValue).toArray();
+    }
+}
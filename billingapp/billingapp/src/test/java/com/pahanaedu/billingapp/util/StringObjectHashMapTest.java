@@ -0,0 +1,116 @@
+package com.pahanaedu.billingapp.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StringObjectHashMapTest {
+
+    // default capacity is 32 slots and stays so up to 15 keys
+    private static final int MASK = 31;
+
+    @Test
+    void putGetReplaceRemove() {
+        StringObjectHashMap<Integer> map = new StringObjectHashMap<>();
+        assertThat(map.put("a", 1)).isNull();
+        assertThat(map.put("a", 2)).isEqualTo(1);
+        assertThat(map.get("a")).isEqualTo(2);
+        assertThat(map.size()).isEqualTo(1);
+
+        assertThat(map.remove("a")).isEqualTo(2);
+        assertThat(map.remove("a")).isNull();
+        assertThat(map.get("a")).isNull();
+        assertThat(map.isEmpty()).isTrue();
+    }
+
+    @Test
+    void nullKeysAreRejected() {
+        StringObjectHashMap<Integer> map = new StringObjectHashMap<>();
+        assertThatThrownBy(() -> map.put(null, 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void equalHashCodesShareAProbeRun() {
+        // "Aa" and "BB" have the same String.hashCode, so all four collide
+        String[] keys = {"AaAa", "AaBB", "BBAa", "BBBB"};
+        StringObjectHashMap<Integer> map = new StringObjectHashMap<>();
+        for (int i = 0; i < keys.length; i++) map.put(keys[i], i);
+
+        assertThat(map.remove("AaBB")).isEqualTo(1);
+        assertThat(map.get("AaAa")).isEqualTo(0);
+        assertThat(map.get("BBAa")).isEqualTo(2);
+        assertThat(map.get("BBBB")).isEqualTo(3);
+
+        assertThat(map.remove("AaAa")).isEqualTo(0);
+        assertThat(map.get("BBAa")).isEqualTo(2);
+        assertThat(map.get("BBBB")).isEqualTo(3);
+        assertThat(map.get("AaBB")).isNull();
+        assertThat(map.size()).isEqualTo(2);
+    }
+
+    @Test
+    void runsWrapAroundTheEndOfTheTable() {
+        List<String> lastSlot = keysWithHome(MASK, 2);    // slots 31, 0
+        List<String> firstSlot = keysWithHome(0, 1);      // displaced to slot 1
+        StringObjectHashMap<String> map = new StringObjectHashMap<>();
+        for (String key : lastSlot) map.put(key, key);
+        map.put(firstSlot.get(0), firstSlot.get(0));
+
+        assertThat(map.remove(lastSlot.get(0))).isEqualTo(lastSlot.get(0));
+        assertThat(map.get(lastSlot.get(1))).isEqualTo(lastSlot.get(1));
+        assertThat(map.get(firstSlot.get(0))).isEqualTo(firstSlot.get(0));
+
+        assertThat(map.remove(lastSlot.get(1))).isEqualTo(lastSlot.get(1));
+        assertThat(map.get(firstSlot.get(0))).isEqualTo(firstSlot.get(0));
+        assertThat(map.size()).isEqualTo(1);
+    }
+
+    @Test
+    void resizeAndClearKeepTheTableConsistent() {
+        StringObjectHashMap<Integer> map = new StringObjectHashMap<>(1);
+        for (int i = 0; i < 10_000; i++) map.put("94" + i, i);
+        assertThat(map.size()).isEqualTo(10_000);
+        for (int i = 0; i < 10_000; i++) assertThat(map.get("94" + i)).isEqualTo(i);
+
+        map.clear();
+        assertThat(map.isEmpty()).isTrue();
+        assertThat(map.get("941")).isNull();
+        map.put("941", 1);
+        assertThat(map.get("941")).isEqualTo(1);
+    }
+
+    @Test
+    void matchesHashMapUnderRandomPutsAndRemoves() {
+        Random random = new Random(34);
+        StringObjectHashMap<Integer> map = new StringObjectHashMap<>(4);
+        Map<String, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 200_000; i++) {
+            String key = "k" + random.nextInt(500);
+            if (random.nextInt(3) == 0) {
+                assertThat(map.remove(key)).isEqualTo(expected.remove(key));
+            } else {
+                assertThat(map.put(key, i)).isEqualTo(expected.put(key, i));
+            }
+        }
+        assertThat(map.size()).isEqualTo(expected.size());
+        expected.forEach((key, value) -> assertThat(map.get(key)).isEqualTo(value));
+    }
+
+    // keys whose home slot in a 32-slot table is {@code slot} (same mixing as StringObjectHashMap.slotOf)
+    private static List<String> keysWithHome(int slot, int count) {
+        List<String> found = new ArrayList<>();
+        for (int i = 0; found.size() < count; i++) {
+            String key = "key" + i;
+            int h = key.hashCode();
+            if (((h ^ (h >>> 16)) & MASK) == slot) found.add(key);
+        }
+        return found;
+    }
+}
@@ -9,21 +9,43 @@ export const api = axios.create({
   }
 });
 
-// Request interceptor - try basic auth with stored credentials
+// Bearer token pair from /api/v1/auth/login, /register or /refresh
+export function getTokens() {
+  try { return JSON.parse(localStorage.getItem('authTokens') || 'null'); } catch { return null; }
+}
+
+export function setTokens(data) {
+  if (data && data.accessToken) {
+    localStorage.setItem('authTokens', JSON.stringify({
+      accessToken: data.accessToken,
+      refreshToken: data.refreshToken,
+    }));
+  } else {
+    localStorage.removeItem('authTokens');
+  }
+}
+
+// Every page of a paged list endpoint (Spring Page JSON). The server caps
+// page size at 100, so bigger lists are fetched page by page.
+export const MAX_PAGE_SIZE = 100;
+
+export async function getAllPages(url, params = {}) {
+  const all = [];
+  for (let page = 0; ; page += 1) {
+    const { data } = await api.get(url, { params: { ...params, page, size: MAX_PAGE_SIZE } });
+    if (Array.isArray(data)) return data;
+    all.push(...(data?.content || []));
+    if (data?.last !== false || !data?.content?.length) return all;
+  }
+}
+
+// Request interceptor - send the access token
 api.interceptors.request.use(
   (config) => {
-    const user = JSON.parse(localStorage.getItem('user') || 'null');
-    const credentials = JSON.parse(localStorage.getItem('userCredentials') || 'null');
-    
-    // Try basic authentication if credentials are available
-    if (credentials && credentials.username && credentials.password) {
-      const basicAuth = btoa(`${credentials.username}:${credentials.password}`);
-      config.headers.Authorization = `Basic ${basicAuth}`;
-      console.log('Using Basic Auth for:', credentials.username);
+    const tokens = getTokens();
+    if (tokens?.accessToken && !config.headers.Authorization) {
+      config.headers.Authorization = `Bearer ${tokens.accessToken}`;
     }
-    
-    console.log('Request headers:', config.headers);
-    console.log('Cookies:', document.cookie);
     return config;
   },
   (error) => {
@@ -31,19 +53,37 @@ api.interceptors.request.use(
   }
 );
 
-// Helper function to get cookie value
-function getCookie(name) {
-  const value = `; ${document.cookie}`;
-  const parts = value.split(`; ${name}=`);
-  if (parts.length === 2) return parts.pop().split(';').shift();
+// One refresh at a time; concurrent 401s wait for the same rotation
+let refreshing = null;
+
+function refreshTokens() {
+  if (!refreshing) {
+    const refreshToken = getTokens()?.refreshToken;
+    refreshing = (refreshToken
+      ? api.post('/api/v1/auth/refresh', { refreshToken }, { _retried: true })
+          .then(({ data }) => { setTokens(data); return data.accessToken; })
+      : Promise.reject(new Error('No refresh token')))
+      .finally(() => { refreshing = null; });
+  }
+  return refreshing;
 }
 
 api.interceptors.response.use(
   (res) => res,
-  (err) => {
+  async (err) => {
     console.log('API Error:', err.response?.status, err.response?.data);
+    const config = err?.config;
     
     if (err?.response?.status === 401) {
+      // access token expired: rotate once and replay the request
+      if (config && !config._retried && !config.url?.startsWith('/api/v1/auth/') && getTokens()?.refreshToken) {
+        try {
+          const accessToken = await refreshTokens();
+          return api({ ...config, _retried: true, headers: { ...config.headers, Authorization: `Bearer ${accessToken}` } });
+        } catch {
+          setTokens(null);
+        }
+      }
       window.dispatchEvent(new Event("app:unauthorized"));
     }
     
@@ -1,7 +1,7 @@
 import { useState, useEffect } from "react";
 import { useAuth } from "../store/AuthContext";
 import { addSampleBooks } from "../utils/addSampleBooks";
-import { api } from "../api/axios";
+import { api, getAllPages } from "../api/axios";
 import toast from "react-hot-toast";
 
 export default function AdminDashboard() {
@@ -637,16 +637,8 @@ function ManageBooksSection() {
   async function loadBooks() {
     try {
       setLoading(true);
-      const response = await api.get("/api/v1/items", { params: { size: 1000 } });
-      
-      let bookData = [];
-      if (Array.isArray(response.data)) {
-        bookData = response.data;
-      } else if (response.data?.content) {
-        bookData = response.data.content;
-      }
-      
-      setBooks(bookData);
+      // the list endpoint pages at most 100 items at a time
+      setBooks(await getAllPages("/api/v1/items"));
     } catch (error) {
       console.error("Error loading books:", error);
       toast.error("Failed to load books");
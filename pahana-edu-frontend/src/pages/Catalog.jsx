@@ -26,6 +26,7 @@ const SORT_OPTIONS = [
   { value: "price", label: "Price Low-High" },
   { value: "price_desc", label: "Price High-Low" },
   { value: "newest", label: "Newest First" },
+  { value: "bestselling", label: "Best Selling" },
 ];
 
 export default function Catalog() {
@@ -46,18 +47,19 @@ export default function Catalog() {
       setLoading(true);
       setErr("");
 
-      // Build query parameters (fetch more when filtering by category to avoid pagination hiding items)
-      const fetchSize = selectedCategory !== "all" ? 1000 : size;
+      // Filtering, sorting and paging all happen on the backend
       const params = { 
         page: p, 
-        size: fetchSize
+        size
       };
       
       if (q && q.trim()) {
         params.q = q.trim();
       }
       
-      // Do NOT send category to backend; filter on client to work with any API
+      if (selectedCategory !== "all") {
+        params.category = selectedCategory;
+      }
       
       if (sortBy && sortBy !== "newest") {
         params.sort = sortBy;
@@ -104,7 +106,7 @@ export default function Catalog() {
          setItems(filteredBooks);
          setTotalPages(Math.max(1, Math.ceil(filteredBooks.length / size)));
        } else {
-         // Dedupe and filter the actual API data by category
+         // Dedupe the API data (category is already filtered server-side)
          let filteredBooks = Array.isArray(data) ? data.slice() : [];
          // De-duplicate by ISBN or name+author
          const seen = new Set();
@@ -117,16 +119,9 @@ export default function Catalog() {
            seen.add(key);
            return true;
          });
-         if (selectedCategory !== "all") {
-           filteredBooks = filteredBooks.filter(book => {
-             const bookCategory = (book.category || book.categories || '').toString().trim().toLowerCase();
-             const selected = selectedCategory.toString().trim().toLowerCase();
-             return bookCategory === selected;
-           });
-         }
          
          setItems(filteredBooks);
-         setTotalPages(Math.max(1, Math.ceil(filteredBooks.length / fetchSize)));
+         setTotalPages(Math.max(1, totalPages));
        }
        
      } catch (e) {
@@ -43,7 +43,7 @@ export default function EditBook() {
         author: bookData.author || "",
         category: bookData.category || "",
         imageUrl: bookData.imageUrl || "",
-        isbn: bookData.isbn || "",
+        isbn: bookData.isbn || bookData.barcode || "",
         publisher: bookData.publisher || "",
         publicationYear: bookData.publicationYear || "",
         unitPrice: priceInDollars,
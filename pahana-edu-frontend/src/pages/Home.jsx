@@ -22,8 +22,23 @@ export default function Home() {
   const [q, setQ] = useState("");
   const [items, setItems] = useState([]);
   const [loading, setLoading] = useState(true);
+  const [bestSellers, setBestSellers] = useState([]);
   const nav = useNavigate();
 
+  useEffect(() => {
+    // Ranking is served from memory on the backend; hide the rail if it is empty or unavailable
+    api
+      .get("/api/v1/items/bestsellers", { params: { window: "30d", limit: 8 } })
+      .then(({ data }) => {
+        const rows = Array.isArray(data) ? data.map((b) => b.item).filter(Boolean) : [];
+        setBestSellers(rows);
+      })
+      .catch((error) => {
+        console.error('Error fetching best sellers:', error);
+        setBestSellers([]);
+      });
+  }, []);
+
   useEffect(() => {
     setLoading(true);
     api
@@ -96,6 +111,16 @@ export default function Home() {
         </div>
       </Section>
 
+      {bestSellers.length > 0 && (
+        <Section title="Best Sellers" subtitle="What other readers bought most this month">
+          <Grid>
+            {bestSellers.map((it) => (
+              <Card key={it.id} item={it} />
+            ))}
+          </Grid>
+        </Section>
+      )}
+
       <Section title="New Arrivals" subtitle="Discover the latest additions to our collection">
         {loading ? (
           <GridSkeleton />
@@ -1,6 +1,6 @@
 // src/store/AuthContext.jsx
 import { createContext, useContext, useEffect, useMemo, useState } from "react";
-import { api } from "../api/axios"; // <-- named import
+import { api, getTokens, setTokens } from "../api/axios"; // <-- named import
 
 const AuthContext = createContext(null);
 
@@ -26,28 +26,34 @@ export function AuthProvider({ children }) {
     return () => window.removeEventListener("app:unauthorized", handler);
   }, []);
 
+  // login/register answer { user, accessToken, refreshToken, ... }
+  function storeSession(data) {
+    setTokens(data);
+    setUser(data.user);
+    localStorage.setItem("user", JSON.stringify(data.user));
+    localStorage.removeItem("userCredentials"); // left over from Basic auth
+    return data.user;
+  }
+
   async function login(username, password) {
-    const response = await api.post("/api/v1/auth/login", { username, password });
-    console.log('Login response headers:', response.headers);
-    console.log('Login successful - storing credentials for basic auth');
-    console.log('Cookies after login:', document.cookie);
-    
-    // Store user data and credentials for basic auth
-    setUser(response.data);
-    localStorage.setItem("user", JSON.stringify(response.data));
-    localStorage.setItem("userCredentials", JSON.stringify({ username, password }));
-    return response.data;
+    const { data } = await api.post("/api/v1/auth/login", { username, password });
+    return storeSession(data);
   }
 
   async function register(payload) {
     const { data } = await api.post("/api/v1/auth/register", payload);
-    setUser(data);
-    localStorage.setItem("user", JSON.stringify(data));
-    return data;
+    return storeSession(data);
   }
 
   async function logout() {
-    try { await api.post("/api/v1/auth/logout"); } catch {}
+    const tokens = getTokens();
+    setTokens(null);
+    if (tokens) {
+      try {
+        await api.post("/api/v1/auth/logout", { refreshToken: tokens.refreshToken },
+          { headers: { Authorization: `Bearer ${tokens.accessToken}` } });
+      } catch {}
+    }
     setUser(null);
     localStorage.removeItem("user");
     localStorage.removeItem("userCredentials");
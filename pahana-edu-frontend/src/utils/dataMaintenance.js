@@ -1,4 +1,4 @@
-import { api } from "../api/axios";
+import { api, getAllPages } from "../api/axios";
 
 const CATEGORY_LIST = [
 	"Fiction", "Science", "Business", "History", "Technology",
@@ -30,9 +30,11 @@ export function dedupeArrayByBooks(items) {
 }
 
 async function tryGetAll() {
-	// Try main endpoint first; fall back to alternatives
+	// Try main endpoint first (every page); fall back to alternatives
+	try {
+		return { items: await getAllPages("/api/v1/items"), listEndpoint: "/api/v1/items" };
+	} catch (_) {}
 	const endpoints = [
-		{ url: "/api/v1/items", params: { page: 0, size: 1000 } },
 		{ url: "/api/v1/books", params: {} },
 		{ url: "/api/products", params: {} }
 	];